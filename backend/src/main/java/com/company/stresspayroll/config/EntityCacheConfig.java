@@ -0,0 +1,80 @@
+package com.company.stresspayroll.config;
+
+import java.time.Duration;
+import java.util.OptionalLong;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+
+/**
+ * Hibernate's second-level cache for users and employee profiles, held in bounded
+ * Caffeine caches. Users are cached by id and resolved by username through their
+ * natural id; profiles are cached by id and resolved by user the same way.
+ * <p>
+ * Hibernate updates or evicts the entry of each entity it writes, so only the rows
+ * that changed are reloaded. Every entry also expires after {@code cache.entities.ttl}
+ * to bound staleness from writes made outside Hibernate. Hit, miss and eviction counts
+ * are exported per region as {@code cache.*} meters.
+ */
+@Configuration
+public class EntityCacheConfig {
+    
+    public static final String USERS_REGION = "users";
+    
+    public static final String USERS_BY_USERNAME_REGION = "users-by-username";
+    
+    public static final String EMPLOYEE_PROFILES_REGION = "employee-profiles";
+    
+    public static final String EMPLOYEE_PROFILES_BY_USER_REGION = "employee-profiles-by-user";
+    
+    private static final String[] REGIONS = {
+        USERS_REGION, USERS_BY_USERNAME_REGION, EMPLOYEE_PROFILES_REGION, EMPLOYEE_PROFILES_BY_USER_REGION
+    };
+    
+    @Value("${cache.entities.max-size:10000}")
+    private long maxSize;
+    
+    @Value("${cache.entities.ttl:10m}")
+    private Duration ttl;
+    
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        for (String region : REGIONS) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+            // Hibernate stores immutable disassembled state, so copying on every read is wasted work
+            configuration.setStoreByValue(false);
+            configuration.setStatisticsEnabled(true);
+            cacheManager.createCache(region, configuration);
+        }
+        return cacheManager;
+    }
+    
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheHibernateProperties(CacheManager entityCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+    }
+    
+    @Bean
+    public MeterBinder entityCacheMetrics(CacheManager entityCacheManager) {
+        return registry -> {
+            for (String region : REGIONS) {
+                JCacheMetrics.monitor(registry, entityCacheManager.getCache(region));
+            }
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package com.company.stresspayroll.config;
+
+import java.io.IOException;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+
+import com.company.stresspayroll.payroll.PayRules;
+
+/**
+ * Compiles the pay rules file named by {@code payroll.rules.location} at startup. An
+ * invalid file stops the application instead of producing wrong payslips later.
+ */
+@Configuration
+public class PayRulesConfig {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PayRulesConfig.class);
+    
+    @Value("${payroll.rules.location:classpath:payroll-rules.properties}")
+    private Resource location;
+    
+    @Bean
+    public PayRules payRules() throws IOException {
+        Properties settings = PropertiesLoaderUtils.loadProperties(location);
+        PayRules rules;
+        try {
+            rules = PayRules.compile(settings);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid pay rules in " + location + ": " + e.getMessage(), e);
+        }
+        logger.info("Pay rules from {}: {}", location, rules.describe());
+        return rules;
+    }
+}
@@ -0,0 +1,22 @@
+package com.company.stresspayroll.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hands out connections from the read pool inside read-only transactions and from
+ * the primary pool everywhere else, including outside any transaction. Must be
+ * wrapped in a {@code LazyConnectionDataSourceProxy}, as Hibernate asks for the
+ * connection before Spring marks the transaction read-only.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    
+    public enum Route {
+        PRIMARY, READ
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.READ : Route.PRIMARY;
+    }
+}
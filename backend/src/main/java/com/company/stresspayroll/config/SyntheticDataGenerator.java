@@ -0,0 +1,306 @@
+package com.company.stresspayroll.config;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.company.stresspayroll.model.Payslip;
+import com.company.stresspayroll.model.User;
+import com.company.stresspayroll.payroll.PayBatch;
+import com.company.stresspayroll.payroll.PayRules;
+import com.company.stresspayroll.service.DashboardAggregateService;
+import com.company.stresspayroll.service.PayrollCalculator;
+
+/**
+ * Fills the database with a large, reproducible data set for load testing, replacing
+ * {@link DataInitializer} when the {@code synthetic} profile is active.
+ * <p>
+ * Every employee draws from its own random generator derived from {@code datagen.seed}
+ * and its index, so the same settings always produce the same rows whatever the
+ * thread scheduling. Employees are generated in chunks on a worker pool and written
+ * with JDBC batches. User ids are assigned explicitly so no ids need to be read back.
+ * Only a small pool of BCrypt hashes is computed, in parallel, and shared across users.
+ */
+@Component
+@Profile("synthetic")
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int BATCH_SIZE = 5000;
+
+    private static final String INSERT_USER_SQL =
+        "INSERT INTO users (id, username, email, password_hash, full_name, role, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PROFILE_SQL =
+        "INSERT INTO employee_profiles (user_id, phone, department, position, base_salary, paid_leaves_per_month, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ATTENDANCE_SQL =
+        "INSERT INTO attendance (user_id, date, status, created_at) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_STRESS_SQL =
+        "INSERT INTO stress_records (user_id, record_month, record_year, overtime_hours, overtime_reason, stress_level, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PAYSLIP_SQL =
+        "INSERT INTO payslips (user_id, payslip_month, payslip_year, base_salary, unpaid_leave_deductions, overtime_pay, stress_allowance, final_salary, generated_at, revision) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 1)";
+
+    private static final String[] FIRST_NAMES = {"Aarav", "Priya", "John", "Maria", "Wei", "Fatima", "Liam", "Sofia",
+        "Kenji", "Amara", "Lucas", "Chloe", "Omar", "Elena", "Ravi", "Grace"};
+    private static final String[] LAST_NAMES = {"Sharma", "Smith", "Garcia", "Chen", "Khan", "Müller", "Rossi", "Tanaka",
+        "Okafor", "Silva", "Patel", "Brown", "Novak", "Dubois", "Kim", "Reyes"};
+    private static final String[] DEPARTMENTS = {"Engineering", "Finance", "Operations", "Sales", "Support", "Marketing", "HR"};
+    private static final String[] POSITIONS = {"Associate", "Analyst", "Senior Analyst", "Engineer", "Senior Engineer", "Team Lead", "Manager"};
+    private static final String[] OVERTIME_REASONS = {"Release deadline", "Month-end close", "Customer escalation",
+        "Audit preparation", "Production incident", "Quarterly planning"};
+
+    @Value("${datagen.employees:1000}")
+    private int employees;
+
+    @Value("${datagen.hr-users:1}")
+    private int hrUsers;
+
+    @Value("${datagen.seed:42}")
+    private long seed;
+
+    @Value("${datagen.attendance-months:24}")
+    private int attendanceMonths;
+
+    @Value("${datagen.payslip-months:12}")
+    private int payslipMonths;
+
+    @Value("${datagen.stress-months:12}")
+    private int stressMonths;
+
+    @Value("${datagen.password:password123}")
+    private String password;
+
+    @Value("${datagen.password-hashes:16}")
+    private int passwordHashes;
+
+    @Value("${datagen.parallelism:0}")
+    private int parallelism;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private DashboardAggregateService dashboardAggregateService;
+
+    @Autowired
+    private PayRules payRules;
+
+    private final AtomicLong attendanceRows = new AtomicLong();
+    private final AtomicLong stressRows = new AtomicLong();
+    private final AtomicLong payslipRows = new AtomicLong();
+
+    @Override
+    public void run(String... args) throws Exception {
+        long start = System.currentTimeMillis();
+        YearMonth currentMonth = YearMonth.now();
+        LocalDate attendanceStart = currentMonth.minusMonths(attendanceMonths).atDay(1);
+        LocalDate attendanceEnd = LocalDate.now().minusDays(1);
+        logger.info("Generating {} employees and {} HR users (seed {}), attendance from {} to {}",
+                employees, hrUsers, seed, attendanceStart, attendanceEnd);
+
+        // Salted hashes of the same password; hashing every user would take hours
+        String[] hashes = IntStream.range(0, Math.max(1, passwordHashes)).parallel()
+                .mapToObj(i -> passwordEncoder.encode(password))
+                .toArray(String[]::new);
+
+        insertHrUsers(hashes, attendanceStart);
+
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<?>> chunks = new ArrayList<>();
+            for (int from = 1; from <= employees; from += CHUNK_SIZE) {
+                int first = from;
+                int last = Math.min(employees, from + CHUNK_SIZE - 1);
+                chunks.add(pool.submit(() -> generateChunk(first, last, hashes, attendanceStart, attendanceEnd, currentMonth)));
+            }
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        // Ids were assigned explicitly, so move the identity past them for users registered later
+        jdbcTemplate.execute("ALTER TABLE users ALTER COLUMN id RESTART WITH " + (hrUsers + employees + 1));
+        dashboardAggregateService.rebuild();
+
+        logger.info("Synthetic data ready in {} ms: {} users, {} attendance rows, {} stress records, {} payslips",
+                System.currentTimeMillis() - start, hrUsers + employees, attendanceRows.get(), stressRows.get(), payslipRows.get());
+        logger.info("HR login: hr_admin / {}, employee login: {} / {}", password, employeeUsername(1), password);
+    }
+
+    private void insertHrUsers(String[] hashes, LocalDate createdOn) {
+        Timestamp createdAt = Timestamp.valueOf(createdOn.minusMonths(1).atTime(9, 0));
+        List<Object[]> rows = new ArrayList<>();
+        for (int n = 1; n <= hrUsers; n++) {
+            String username = n == 1 ? "hr_admin" : "hr_user_" + n;
+            rows.add(new Object[] {(long) n, username, username + "@company.com", hashes[n % hashes.length],
+                "HR Administrator " + n, "HR", createdAt, createdAt});
+        }
+        jdbcTemplate.batchUpdate(INSERT_USER_SQL, rows);
+    }
+
+    private void generateChunk(int first, int last, String[] hashes, LocalDate attendanceStart,
+                               LocalDate attendanceEnd, YearMonth currentMonth) {
+        int size = last - first + 1;
+        BigDecimal[] baseSalaries = new BigDecimal[size];
+        BatchBuffer users = new BatchBuffer(INSERT_USER_SQL);
+        BatchBuffer profiles = new BatchBuffer(INSERT_PROFILE_SQL);
+
+        for (int n = first; n <= last; n++) {
+            Random random = new Random(mix(seed, n, 0));
+            long userId = hrUsers + n;
+            String username = employeeUsername(n);
+            String fullName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            Timestamp createdAt = Timestamp.valueOf(attendanceStart.minusDays(random.nextInt(365)).atTime(9, 0));
+            BigDecimal baseSalary = BigDecimal.valueOf(3_000_000L + random.nextInt(12_000_000), 2);
+            baseSalaries[n - first] = baseSalary;
+
+            users.add(userId, username, username + "@company.com", hashes[n % hashes.length], fullName, "EMPLOYEE", createdAt, createdAt);
+            profiles.add(userId, String.format("+1%010d", n), DEPARTMENTS[random.nextInt(DEPARTMENTS.length)],
+                POSITIONS[random.nextInt(POSITIONS.length)], baseSalary, 2, createdAt, createdAt);
+        }
+        users.flush();
+        profiles.flush();
+
+        BatchBuffer attendance = new BatchBuffer(INSERT_ATTENDANCE_SQL);
+        BatchBuffer stress = new BatchBuffer(INSERT_STRESS_SQL);
+        BatchBuffer payslips = new BatchBuffer(INSERT_PAYSLIP_SQL);
+        YearMonth firstMonth = YearMonth.from(attendanceStart);
+        int[] leavesByMonth = new int[attendanceMonths + 1];
+        int payslipCount = Math.min(payslipMonths, attendanceMonths);
+        int[] overtimeByMonthBack = new int[Math.max(stressMonths, payslipCount) + 1];
+        PayBatch pay = new PayBatch(Math.max(1, payslipCount));
+
+        for (int n = first; n <= last; n++) {
+            Random random = new Random(mix(seed, n, 1));
+            long userId = hrUsers + n;
+            double absenceRate = 0.01 + random.nextDouble() * 0.06;
+            Arrays.fill(leavesByMonth, 0);
+
+            for (LocalDate date = attendanceStart; !date.isAfter(attendanceEnd); date = date.plusDays(1)) {
+                if (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                    continue;
+                }
+                String status = "PRESENT";
+                if (random.nextDouble() < absenceRate) {
+                    status = random.nextInt(5) < 3 ? "PAID_LEAVE" : "UNPAID_LEAVE";
+                    leavesByMonth[monthIndex(firstMonth, date)]++;
+                }
+                attendance.add(userId, Date.valueOf(date), status, Timestamp.valueOf(date.atTime(18, 0)));
+            }
+
+            Arrays.fill(overtimeByMonthBack, -1);
+            for (int back = stressMonths; back >= 1; back--) {
+                YearMonth month = currentMonth.minusMonths(back);
+                int overtimeHours = (int) (Math.pow(random.nextDouble(), 3) * 100);
+                overtimeByMonthBack[back] = overtimeHours;
+                Timestamp recordedAt = Timestamp.valueOf(month.atEndOfMonth().atTime(17, 0));
+                stress.add(userId, month.getMonthValue(), month.getYear(), overtimeHours,
+                    overtimeHours == 0 ? null : OVERTIME_REASONS[random.nextInt(OVERTIME_REASONS.length)],
+                    PayrollCalculator.stressLevel(overtimeHours), recordedAt);
+            }
+
+            User user = new User();
+            user.setId(userId);
+            pay.clear();
+            for (int back = payslipCount; back >= 1; back--) {
+                YearMonth month = currentMonth.minusMonths(back);
+                int overtimeHours = overtimeByMonthBack[back];
+                pay.add(baseSalaries[n - first], 2, leavesByMonth[monthIndex(firstMonth, month.atDay(1))],
+                    Math.max(0, overtimeHours), overtimeHours < 0 ? 0 : PayrollCalculator.stressLevel(overtimeHours));
+            }
+            payRules.evaluate(pay);
+            for (int back = payslipCount; back >= 1; back--) {
+                YearMonth month = currentMonth.minusMonths(back);
+                Payslip payslip = pay.toPayslip(payslipCount - back, user, month.getMonthValue(), month.getYear(),
+                    baseSalaries[n - first]);
+                payslips.add(userId, month.getMonthValue(), month.getYear(), payslip.getBaseSalary(),
+                    payslip.getUnpaidLeaveDeductions(), payslip.getOvertimePay(), payslip.getStressAllowance(),
+                    payslip.getFinalSalary(), Timestamp.valueOf(currentMonth.minusMonths(back - 1).atDay(1).atTime(8, 0)));
+            }
+        }
+        attendance.flush();
+        stress.flush();
+        payslips.flush();
+
+        attendanceRows.addAndGet(attendance.written);
+        stressRows.addAndGet(stress.written);
+        payslipRows.addAndGet(payslips.written);
+        logger.debug("Generated employees {} to {}", first, last);
+    }
+
+    private static int monthIndex(YearMonth firstMonth, LocalDate date) {
+        return (date.getYear() - firstMonth.getYear()) * 12 + date.getMonthValue() - firstMonth.getMonthValue();
+    }
+
+    private static String employeeUsername(int n) {
+        return String.format("emp%07d", n);
+    }
+
+    /**
+     * Derives an independent seed per employee and purpose from the global seed.
+     */
+    private static long mix(long seed, long index, long stream) {
+        long z = seed + index * 0x9E3779B97F4A7C15L + stream * 0xD1B54A32D192ED03L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Collects rows for one insert statement and writes them in JDBC batches.
+     */
+    private final class BatchBuffer {
+
+        private final String sql;
+        private final List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        private long written;
+
+        private BatchBuffer(String sql) {
+            this.sql = sql;
+        }
+
+        private void add(Object... values) {
+            rows.add(values);
+            if (rows.size() >= BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, rows);
+                written += rows.size();
+                rows.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.company.stresspayroll.config;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier thread, using the JFR
+ * {@code jdk.VirtualThreadPinned} event streamed in-process. Pinning happens when a
+ * virtual thread blocks inside a {@code synchronized} block or a native frame, and
+ * under load it quietly turns the carrier pool back into a bounded thread pool.
+ * <p>
+ * Each event is timed into the {@code jvm.threads.virtual.pinned} metric. The first
+ * time a code site pins, its stack is logged as a warning. A per-site summary is
+ * logged on shutdown, so a load test run shows whether the JPA and JDBC paths pin.
+ */
+@Component
+@ConditionalOnProperty(name = "threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 20;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${threads.virtual.pinned-threshold:20ms}")
+    private Duration pinnedThreshold;
+    
+    private final Map<String, LongAdder> pinsBySite = new ConcurrentHashMap<>();
+    private Timer pinnedTimer;
+    private RecordingStream stream;
+    
+    @PostConstruct
+    public void start() {
+        pinnedTimer = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Time virtual threads spent pinned to a carrier thread")
+                .register(meterRegistry);
+        
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(pinnedThreshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        logger.info("Watching for virtual threads pinned longer than {} ms", pinnedThreshold.toMillis());
+    }
+    
+    @PreDestroy
+    public void stop() {
+        stream.close();
+        if (pinsBySite.isEmpty()) {
+            logger.info("No virtual thread pinning above {} ms was observed", pinnedThreshold.toMillis());
+            return;
+        }
+        List<Map.Entry<String, LongAdder>> sites = pinsBySite.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, LongAdder> entry) -> entry.getValue().sum()).reversed())
+                .collect(Collectors.toList());
+        StringBuilder summary = new StringBuilder();
+        for (Map.Entry<String, LongAdder> site : sites) {
+            summary.append(System.lineSeparator()).append("  ").append(site.getValue().sum()).append(" x ").append(site.getKey());
+        }
+        logger.warn("Virtual thread pinning by site:{}", summary);
+    }
+    
+    private void onPinned(RecordedEvent event) {
+        pinnedTimer.record(event.getDuration());
+        
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        String site = pinSite(stackTrace);
+        LongAdder count = pinsBySite.get(site);
+        if (count == null) {
+            LongAdder created = new LongAdder();
+            count = pinsBySite.putIfAbsent(site, created);
+            if (count == null) {
+                count = created;
+                logger.warn("Virtual thread pinned for {} ms at {}{}", event.getDuration().toMillis(), site, formatStack(stackTrace));
+            }
+        }
+        count.increment();
+    }
+    
+    /**
+     * Names the first frame outside the JDK, which is the library or application
+     * code that blocked while holding a monitor.
+     */
+    private static String pinSite(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName();
+            }
+        }
+        return "jdk";
+    }
+    
+    private static String formatStack(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "";
+        }
+        StringBuilder stack = new StringBuilder();
+        for (RecordedFrame frame : stackTrace.getFrames().stream().limit(LOGGED_FRAMES).collect(Collectors.toList())) {
+            stack.append(System.lineSeparator()).append("\tat ")
+                 .append(frame.getMethod().getType().getName()).append('.').append(frame.getMethod().getName())
+                 .append(':').append(frame.getLineNumber());
+        }
+        return stack.toString();
+    }
+}
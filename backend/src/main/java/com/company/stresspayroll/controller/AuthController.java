@@ -2,10 +2,14 @@ package com.company.stresspayroll.controller;
 
 import com.company.stresspayroll.dto.AuthRequest;
 import com.company.stresspayroll.dto.RegisterRequest;
+import com.company.stresspayroll.metrics.QueryBudget;
 import com.company.stresspayroll.model.User;
 import com.company.stresspayroll.security.JwtUtil;
+import com.company.stresspayroll.security.PasswordHashingRejectedException;
 import com.company.stresspayroll.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -20,6 +24,9 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class AuthController {
     
+    // Password hashes take about 100 ms, so a saturated hashing pool drains quickly
+    private static final String RETRY_AFTER_SECONDS = "1";
+    
     @Autowired
     private AuthenticationManager authenticationManager;
     
@@ -30,6 +37,7 @@ public class AuthController {
     private JwtUtil jwtUtil;
     
     @PostMapping("/login")
+    @QueryBudget(2)
     public ResponseEntity<?> login(@RequestBody AuthRequest authRequest) {
         try {
             Authentication authentication = authenticationManager.authenticate(
@@ -46,6 +54,8 @@ public class AuthController {
             response.put("role", user.getRole().name());
             
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingRejectedException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Invalid username or password");
@@ -54,6 +64,7 @@ public class AuthController {
     }
     
     @PostMapping("/register")
+    @QueryBudget(8)
     public ResponseEntity<?> register(@RequestBody RegisterRequest registerRequest) {
         try {
             User user = userService.registerUser(
@@ -69,10 +80,20 @@ public class AuthController {
             response.put("email", user.getEmail());
             
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingRejectedException e) {
+            return tooManyRequests(e);
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
             return ResponseEntity.badRequest().body(error);
         }
     }
+    
+    private ResponseEntity<?> tooManyRequests(PasswordHashingRejectedException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(error);
+    }
 }
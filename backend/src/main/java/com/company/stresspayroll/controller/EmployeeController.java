@@ -1,19 +1,33 @@
 package com.company.stresspayroll.controller;
 
 import com.company.stresspayroll.dto.PayslipResponse;
+import com.company.stresspayroll.dto.ReminderResponse;
+import com.company.stresspayroll.dto.StressHistoryEntry;
+import com.company.stresspayroll.dto.WellnessTip;
+import com.company.stresspayroll.metrics.QueryBudget;
 import com.company.stresspayroll.model.*;
 import com.company.stresspayroll.repository.ReminderRepository;
+import com.company.stresspayroll.security.AuthenticatedUser;
 import com.company.stresspayroll.service.PayrollService;
 import com.company.stresspayroll.service.UserService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import javax.annotation.PostConstruct;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @RestController
@@ -21,6 +35,23 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*")
 public class EmployeeController {
     
+    private static final List<WellnessTip> WELLNESS_TIPS = List.of(
+        new WellnessTip("Take Regular Breaks", "Take a 5-10 minute break every hour to reduce eye strain and mental fatigue."),
+        new WellnessTip("Practice Deep Breathing", "Spend 2-3 minutes doing deep breathing exercises to reduce stress."),
+        new WellnessTip("Stay Hydrated", "Drink at least 8 glasses of water throughout the day to maintain energy levels."),
+        new WellnessTip("Get Adequate Sleep", "Aim for 7-9 hours of quality sleep each night for optimal performance."),
+        new WellnessTip("Exercise Regularly", "Engage in at least 30 minutes of physical activity most days of the week."),
+        new WellnessTip("Maintain Work-Life Balance", "Set clear boundaries between work and personal time to prevent burnout."),
+        new WellnessTip("Practice Mindfulness", "Spend 10-15 minutes daily on mindfulness meditation or relaxation techniques."),
+        new WellnessTip("Eat Nutritious Meals", "Consume balanced meals with plenty of fruits, vegetables, and whole grains.")
+    );
+    
+    // The tips only change with a release, so clients may reuse them for a day
+    private static final CacheControl WELLNESS_TIPS_CACHE_CONTROL = CacheControl.maxAge(1, TimeUnit.DAYS).cachePublic();
+    
+    // Payslips can be recomputed, so clients must revalidate their copy every time
+    private static final CacheControl PAYSLIPS_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+    
     @Autowired
     private UserService userService;
     
@@ -31,14 +62,28 @@ public class EmployeeController {
     @Autowired
     private ReminderRepository reminderRepository;
     
-    private User getCurrentUser(Authentication authentication) {
-        return (User) authentication.getPrincipal();
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private byte[] wellnessTipsJson;
+    
+    private String wellnessTipsETag;
+    
+    @PostConstruct
+    public void serializeWellnessTips() throws JsonProcessingException {
+        wellnessTipsJson = objectMapper.writeValueAsBytes(WELLNESS_TIPS);
+        wellnessTipsETag = "\"" + DigestUtils.md5DigestAsHex(wellnessTipsJson) + "\"";
+    }
+    
+    private AuthenticatedUser getCurrentUser(Authentication authentication) {
+        return (AuthenticatedUser) authentication.getPrincipal();
     }
     
     @GetMapping("/profile")
+    @QueryBudget(3)
     public ResponseEntity<?> getProfile(Authentication authentication) {
         try {
-            User user = getCurrentUser(authentication);
+            User user = userService.getUserById(getCurrentUser(authentication).getId());
             EmployeeProfile profile = userService.getEmployeeProfile(user);
             
             Map<String, Object> response = new HashMap<>();
@@ -66,10 +111,11 @@ public class EmployeeController {
     }
     
     @PutMapping("/profile")
+    @QueryBudget(3)
     public ResponseEntity<?> updateProfile(@RequestBody Map<String, String> profileData, 
                                           Authentication authentication) {
         try {
-            User user = getCurrentUser(authentication);
+            User user = userService.getUserReference(getCurrentUser(authentication).getId());
             String phone = profileData.get("phone");
             String department = profileData.get("department");
             String position = profileData.get("position");
@@ -95,9 +141,17 @@ public class EmployeeController {
     }
     
     @GetMapping("/payslips")
-    public ResponseEntity<?> getPayslips(Authentication authentication) {
+    @QueryBudget(2)
+    public ResponseEntity<?> getPayslips(Authentication authentication, WebRequest request) {
         try {
-            User user = getCurrentUser(authentication);
+            User user = userService.getUserReference(getCurrentUser(authentication).getId());
+            String eTag = payrollService.getPayslipHistoryETag(user);
+            if (request.checkNotModified(eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(PAYSLIPS_CACHE_CONTROL)
+                    .build();
+            }
+            
             List<Payslip> payslips = payrollService.getPayslipsByUser(user);
             
             List<PayslipResponse> response = payslips.stream()
@@ -107,12 +161,18 @@ public class EmployeeController {
                     payslip.getYear(),
                     payslip.getBaseSalary(),
                     payslip.getUnpaidLeaveDeductions(),
+                    payslip.getOvertimePay(),
+                    payslip.getStressAllowance(),
                     payslip.getFinalSalary(),
-                    payslip.getGeneratedAt().toString()
+                    payslip.getGeneratedAt().toString(),
+                    payslip.getRevision()
                 ))
                 .collect(Collectors.toList());
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(PAYSLIPS_CACHE_CONTROL)
+                .body(response);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -121,10 +181,11 @@ public class EmployeeController {
     }
     
     @PostMapping("/payslips/generate")
+    @QueryBudget(6)
     public ResponseEntity<?> generatePayslip(@RequestBody Map<String, Integer> request, 
                                            Authentication authentication) {
         try {
-            User user = getCurrentUser(authentication);
+            User user = userService.getUserReference(getCurrentUser(authentication).getId());
             Integer month = request.get("month");
             Integer year = request.get("year");
             
@@ -141,8 +202,11 @@ public class EmployeeController {
                 payslip.getYear(),
                 payslip.getBaseSalary(),
                 payslip.getUnpaidLeaveDeductions(),
+                payslip.getOvertimePay(),
+                payslip.getStressAllowance(),
                 payslip.getFinalSalary(),
-                payslip.getGeneratedAt().toString()
+                payslip.getGeneratedAt().toString(),
+                payslip.getRevision()
             );
             
             return ResponseEntity.ok(response);
@@ -154,10 +218,11 @@ public class EmployeeController {
     }
     
     @PostMapping("/stress-record")
+    @QueryBudget(5)
     public ResponseEntity<?> createStressRecord(@RequestBody Map<String, Object> request, 
                                               Authentication authentication) {
         try {
-            User user = getCurrentUser(authentication);
+            User user = userService.getUserReference(getCurrentUser(authentication).getId());
             Integer month = (Integer) request.get("month");
             Integer year = (Integer) request.get("year");
             Integer overtimeHours = (Integer) request.get("overtimeHours");
@@ -174,14 +239,14 @@ public class EmployeeController {
             
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Stress record created successfully");
-            response.put("stressRecord", Map.of(
-                "id", stressRecord.getId(),
-                "month", stressRecord.getMonth(),
-                "year", stressRecord.getYear(),
-                "overtimeHours", stressRecord.getOvertimeHours(),
-                "overtimeReason", stressRecord.getOvertimeReason(),
-                "stressLevel", stressRecord.getStressLevel(),
-                "createdAt", stressRecord.getCreatedAt()
+            response.put("stressRecord", new StressHistoryEntry(
+                stressRecord.getId(),
+                stressRecord.getMonth(),
+                stressRecord.getYear(),
+                stressRecord.getStressLevel(),
+                stressRecord.getOvertimeHours(),
+                stressRecord.getOvertimeReason(),
+                stressRecord.getCreatedAt()
             ));
             
             return ResponseEntity.ok(response);
@@ -193,14 +258,15 @@ public class EmployeeController {
     }
     
     @GetMapping("/stress-dashboard")
+    @QueryBudget(2)
     public ResponseEntity<?> getStressDashboard(Authentication authentication) {
         try {
-            User user = getCurrentUser(authentication);
-            List<StressRecord> stressRecords = payrollService.getLatestStressRecordsByUser(user);
+            User user = userService.getUserReference(getCurrentUser(authentication).getId());
+            List<StressHistoryEntry> stressRecords = payrollService.getStressHistory(user);
             
             // Calculate average stress level
             double averageStress = stressRecords.stream()
-                .mapToInt(StressRecord::getStressLevel)
+                .mapToInt(StressHistoryEntry::getStressLevel)
                 .average()
                 .orElse(0.0);
             
@@ -209,21 +275,14 @@ public class EmployeeController {
             int currentYear = LocalDate.now().getYear();
             int currentStressLevel = stressRecords.stream()
                 .filter(record -> record.getMonth() == currentMonth && record.getYear() == currentYear)
-                .mapToInt(StressRecord::getStressLevel)
+                .mapToInt(StressHistoryEntry::getStressLevel)
                 .findFirst()
                 .orElse(0);
             
             Map<String, Object> response = new HashMap<>();
             response.put("currentStressLevel", currentStressLevel);
             response.put("averageStressLevel", Math.round(averageStress * 100.0) / 100.0);
-            response.put("stressHistory", stressRecords.stream()
-                .map(record -> Map.of(
-                    "month", record.getMonth(),
-                    "year", record.getYear(),
-                    "stressLevel", record.getStressLevel(),
-                    "overtimeHours", record.getOvertimeHours()
-                ))
-                .collect(Collectors.toList()));
+            response.put("stressHistory", stressRecords);
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -234,38 +293,27 @@ public class EmployeeController {
     }
     
     @GetMapping("/wellness-tips")
-    public ResponseEntity<?> getWellnessTips() {
-        List<Map<String, String>> tips = List.of(
-            Map.of("title", "Take Regular Breaks", "description", "Take a 5-10 minute break every hour to reduce eye strain and mental fatigue."),
-            Map.of("title", "Practice Deep Breathing", "description", "Spend 2-3 minutes doing deep breathing exercises to reduce stress."),
-            Map.of("title", "Stay Hydrated", "description", "Drink at least 8 glasses of water throughout the day to maintain energy levels."),
-            Map.of("title", "Get Adequate Sleep", "description", "Aim for 7-9 hours of quality sleep each night for optimal performance."),
-            Map.of("title", "Exercise Regularly", "description", "Engage in at least 30 minutes of physical activity most days of the week."),
-            Map.of("title", "Maintain Work-Life Balance", "description", "Set clear boundaries between work and personal time to prevent burnout."),
-            Map.of("title", "Practice Mindfulness", "description", "Spend 10-15 minutes daily on mindfulness meditation or relaxation techniques."),
-            Map.of("title", "Eat Nutritious Meals", "description", "Consume balanced meals with plenty of fruits, vegetables, and whole grains.")
-        );
+    @QueryBudget(0)
+    public ResponseEntity<?> getWellnessTips(WebRequest request) {
+        if (request.checkNotModified(wellnessTipsETag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .cacheControl(WELLNESS_TIPS_CACHE_CONTROL)
+                .build();
+        }
         
-        return ResponseEntity.ok(tips);
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .eTag(wellnessTipsETag)
+            .cacheControl(WELLNESS_TIPS_CACHE_CONTROL)
+            .body(wellnessTipsJson);
     }
     
     @GetMapping("/reminders")
+    @QueryBudget(2)
     public ResponseEntity<?> getReminders(Authentication authentication) {
         try {
-            User user = getCurrentUser(authentication);
-            List<Reminder> reminders = reminderRepository.findByUserOrderByCreatedAtDesc(user);
-            
-            List<Map<String, Object>> response = reminders.stream()
-                .map(reminder -> {
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("id", reminder.getId());
-                    map.put("reminderText", reminder.getReminderText());
-                    map.put("isCompleted", reminder.getIsCompleted());
-                    map.put("createdAt", reminder.getCreatedAt());
-                    map.put("updatedAt", reminder.getUpdatedAt());
-                    return map;
-                })
-                .collect(Collectors.toList());
+            User user = userService.getUserReference(getCurrentUser(authentication).getId());
+            List<ReminderResponse> response = reminderRepository.findResponsesByUser(user);
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -276,10 +324,11 @@ public class EmployeeController {
     }
     
     @PostMapping("/reminders")
+    @QueryBudget(2)
     public ResponseEntity<?> createReminder(@RequestBody Map<String, String> request, 
                                           Authentication authentication) {
         try {
-            User user = getCurrentUser(authentication);
+            User user = userService.getUserReference(getCurrentUser(authentication).getId());
             String reminderText = request.get("reminderText");
             
             if (reminderText == null || reminderText.trim().isEmpty()) {
@@ -293,11 +342,12 @@ public class EmployeeController {
             
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Reminder created successfully");
-            response.put("reminder", Map.of(
-                "id", reminder.getId(),
-                "reminderText", reminder.getReminderText(),
-                "isCompleted", reminder.getIsCompleted(),
-                "createdAt", reminder.getCreatedAt()
+            response.put("reminder", new ReminderResponse(
+                reminder.getId(),
+                reminder.getReminderText(),
+                reminder.getIsCompleted(),
+                reminder.getCreatedAt(),
+                reminder.getUpdatedAt()
             ));
             
             return ResponseEntity.ok(response);
@@ -309,11 +359,12 @@ public class EmployeeController {
     }
     
     @PutMapping("/reminders/{id}")
+    @QueryBudget(3)
     public ResponseEntity<?> updateReminder(@PathVariable Long id, 
                                           @RequestBody Map<String, Boolean> request, 
                                           Authentication authentication) {
         try {
-            User user = getCurrentUser(authentication);
+            User user = userService.getUserReference(getCurrentUser(authentication).getId());
             Boolean isCompleted = request.get("isCompleted");
             
             Reminder reminder = reminderRepository.findByIdAndUser(id, user)
@@ -324,11 +375,12 @@ public class EmployeeController {
             
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Reminder updated successfully");
-            response.put("reminder", Map.of(
-                "id", reminder.getId(),
-                "reminderText", reminder.getReminderText(),
-                "isCompleted", reminder.getIsCompleted(),
-                "updatedAt", reminder.getUpdatedAt()
+            response.put("reminder", new ReminderResponse(
+                reminder.getId(),
+                reminder.getReminderText(),
+                reminder.getIsCompleted(),
+                reminder.getCreatedAt(),
+                reminder.getUpdatedAt()
             ));
             
             return ResponseEntity.ok(response);
@@ -1,19 +1,54 @@
 package com.company.stresspayroll.controller;
 
+import com.company.stresspayroll.dto.AttendanceEntry;
+import com.company.stresspayroll.dto.AttendanceImportResult;
+import com.company.stresspayroll.dto.DashboardCounts;
+import com.company.stresspayroll.dto.EmployeeDirectoryEntry;
+import com.company.stresspayroll.dto.EmployeeSummary;
+import com.company.stresspayroll.dto.HighStressAlert;
 import com.company.stresspayroll.dto.PayslipResponse;
+import com.company.stresspayroll.dto.StressHistoryEntry;
+import com.company.stresspayroll.events.DashboardClientLimitException;
+import com.company.stresspayroll.events.DashboardEventBroadcaster;
+import com.company.stresspayroll.metrics.QueryBudget;
 import com.company.stresspayroll.model.*;
 import com.company.stresspayroll.repository.AttendanceRepository;
 import com.company.stresspayroll.repository.PayslipRepository;
 import com.company.stresspayroll.repository.StressRecordRepository;
 import com.company.stresspayroll.repository.UserRepository;
+import com.company.stresspayroll.security.AuthenticatedUser;
+import com.company.stresspayroll.service.AttendanceImportService;
+import com.company.stresspayroll.service.AttendanceService;
+import com.company.stresspayroll.service.DashboardAggregateService;
+import com.company.stresspayroll.service.EmployeeDirectoryService;
+import com.company.stresspayroll.service.HighStressTracker;
+import com.company.stresspayroll.service.PayrollExportService;
+import com.company.stresspayroll.service.PayrollRun;
+import com.company.stresspayroll.service.PayrollRunService;
 import com.company.stresspayroll.service.PayrollService;
+import com.company.stresspayroll.service.PayslipRecomputeService;
 import com.company.stresspayroll.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,12 +59,49 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*")
 public class HRController {
     
+    private static final int DEFAULT_DIRECTORY_PAGE_SIZE = 50;
+    
+    private static final int MAX_DIRECTORY_PAGE_SIZE = 500;
+    
+    private static final int DEFAULT_STRESS_FEED_PAGE_SIZE = 50;
+    
+    private static final int MAX_STRESS_FEED_PAGE_SIZE = 500;
+    
+    // Payslips can be recomputed, so clients must revalidate their copy every time
+    private static final CacheControl PAYSLIPS_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+    
+    private static final String DASHBOARD_EVENTS_RETRY_AFTER_SECONDS = "5";
+    
     @Autowired
     private UserService userService;
     
     @Autowired
     private PayrollService payrollService;
     
+    @Autowired
+    private PayrollRunService payrollRunService;
+    
+    @Autowired
+    private PayrollExportService payrollExportService;
+    
+    @Autowired
+    private PayslipRecomputeService payslipRecomputeService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private AttendanceService attendanceService;
+    
+    @Autowired
+    private AttendanceImportService attendanceImportService;
+    
+    @Autowired
+    private DashboardAggregateService dashboardAggregateService;
+    
+    @Autowired
+    private HighStressTracker highStressTracker;
+    
     @Autowired
     private UserRepository userRepository;
     
@@ -43,52 +115,69 @@ public class HRController {
     @Autowired
     private AttendanceRepository attendanceRepository;
     
-    private User getCurrentUser(Authentication authentication) {
-        return (User) authentication.getPrincipal();
+    @Autowired
+    private EmployeeDirectoryService employeeDirectoryService;
+    
+    @Autowired
+    private DashboardEventBroadcaster dashboardEventBroadcaster;
+    
+    private AuthenticatedUser getCurrentUser(Authentication authentication) {
+        return (AuthenticatedUser) authentication.getPrincipal();
     }
     
+    /**
+     * Streams every employee as one JSON array, written row by row from the query.
+     * Use {@code /employees/directory} for keyset pages and filters.
+     */
     @GetMapping("/employees")
-    public ResponseEntity<?> getAllEmployees(Authentication authentication) {
+    @QueryBudget(0)
+    public ResponseEntity<StreamingResponseBody> getAllEmployees(Authentication authentication) {
+        try {
+            AuthenticatedUser hrUser = getCurrentUser(authentication);
+            if (hrUser.getRole() != User.Role.HR) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Access denied. HR role required.");
+                return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(jsonBody(error));
+            }
+            
+            StreamingResponseBody body = employeeDirectoryService::writeDirectory;
+            
+            return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(jsonBody(error));
+        }
+    }
+    
+    @GetMapping("/employees/directory")
+    @QueryBudget(1)
+    public ResponseEntity<?> getEmployeeDirectory(@RequestParam(required = false) Long afterId,
+                                                  @RequestParam(required = false) Integer limit,
+                                                  @RequestParam(required = false) String department,
+                                                  @RequestParam(required = false) String position,
+                                                  Authentication authentication) {
         try {
-            User hrUser = getCurrentUser(authentication);
+            AuthenticatedUser hrUser = getCurrentUser(authentication);
             if (hrUser.getRole() != User.Role.HR) {
                 Map<String, String> error = new HashMap<>();
                 error.put("error", "Access denied. HR role required.");
                 return ResponseEntity.badRequest().body(error);
             }
             
-            List<User> employees = userRepository.findByRole(User.Role.EMPLOYEE);
-            
-            List<Map<String, Object>> response = employees.stream()
-                .map(employee -> {
-                    try {
-                        EmployeeProfile profile = userService.getEmployeeProfile(employee);
-                        return Map.<String, Object>of(
-                            "id", employee.getId(),
-                            "username", employee.getUsername(),
-                            "email", employee.getEmail(),
-                            "fullName", employee.getFullName(),
-                            "phone", profile.getPhone(),
-                            "department", profile.getDepartment(),
-                            "position", profile.getPosition(),
-                            "baseSalary", profile.getBaseSalary(),
-                            "createdAt", employee.getCreatedAt()
-                        );
-                    } catch (Exception e) {
-                        return Map.<String, Object>of(
-                            "id", employee.getId(),
-                            "username", employee.getUsername(),
-                            "email", employee.getEmail(),
-                            "fullName", employee.getFullName(),
-                            "phone", "N/A",
-                            "department", "N/A",
-                            "position", "N/A",
-                            "baseSalary", "N/A",
-                            "createdAt", employee.getCreatedAt()
-                        );
-                    }
-                })
-                .collect(Collectors.toList());
+            int pageSize = limit == null ? DEFAULT_DIRECTORY_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_DIRECTORY_PAGE_SIZE));
+            List<EmployeeDirectoryEntry> employees = userRepository.findDirectoryPage(
+                User.Role.EMPLOYEE, afterId == null ? 0L : afterId, department, position, PageRequest.of(0, pageSize));
+            
+            // A full page means there may be more rows after the last id
+            Long nextCursor = employees.size() == pageSize ? employees.get(employees.size() - 1).getId() : null;
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("employees", employees);
+            response.put("nextCursor", nextCursor);
+            response.put("limit", pageSize);
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -99,9 +188,10 @@ public class HRController {
     }
     
     @GetMapping("/employee/{userId}/profile")
+    @QueryBudget(3)
     public ResponseEntity<?> getEmployeeProfile(@PathVariable Long userId, Authentication authentication) {
         try {
-            User hrUser = getCurrentUser(authentication);
+            AuthenticatedUser hrUser = getCurrentUser(authentication);
             if (hrUser.getRole() != User.Role.HR) {
                 Map<String, String> error = new HashMap<>();
                 error.put("error", "Access denied. HR role required.");
@@ -145,9 +235,11 @@ public class HRController {
     }
     
     @GetMapping("/employee/{userId}/payslips")
-    public ResponseEntity<?> getEmployeePayslips(@PathVariable Long userId, Authentication authentication) {
+    @QueryBudget(3)
+    public ResponseEntity<?> getEmployeePayslips(@PathVariable Long userId, Authentication authentication,
+                                                 WebRequest request) {
         try {
-            User hrUser = getCurrentUser(authentication);
+            AuthenticatedUser hrUser = getCurrentUser(authentication);
             if (hrUser.getRole() != User.Role.HR) {
                 Map<String, String> error = new HashMap<>();
                 error.put("error", "Access denied. HR role required.");
@@ -161,6 +253,13 @@ public class HRController {
                 return ResponseEntity.badRequest().body(error);
             }
             
+            String eTag = payrollService.getPayslipHistoryETag(employee);
+            if (request.checkNotModified(eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(PAYSLIPS_CACHE_CONTROL)
+                    .build();
+            }
+            
             List<Payslip> payslips = payrollService.getPayslipsByUser(employee);
             
             List<PayslipResponse> response = payslips.stream()
@@ -170,11 +269,55 @@ public class HRController {
                     payslip.getYear(),
                     payslip.getBaseSalary(),
                     payslip.getUnpaidLeaveDeductions(),
+                    payslip.getOvertimePay(),
+                    payslip.getStressAllowance(),
                     payslip.getFinalSalary(),
-                    payslip.getGeneratedAt().toString()
+                    payslip.getGeneratedAt().toString(),
+                    payslip.getRevision()
                 ))
                 .collect(Collectors.toList());
             
+            return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(PAYSLIPS_CACHE_CONTROL)
+                .body(response);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    /**
+     * The earlier amounts of a recomputed payslip, newest first.
+     */
+    @GetMapping("/employee/{userId}/payslips/{payslipId}/revisions")
+    @QueryBudget(1)
+    public ResponseEntity<?> getPayslipRevisions(@PathVariable Long userId, @PathVariable Long payslipId,
+                                                 Authentication authentication) {
+        try {
+            AuthenticatedUser hrUser = getCurrentUser(authentication);
+            if (hrUser.getRole() != User.Role.HR) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Access denied. HR role required.");
+                return ResponseEntity.badRequest().body(error);
+            }
+            
+            List<Map<String, Object>> response = payslipRecomputeService.getRevisions(userId, payslipId).stream()
+                .map(revision -> {
+                    Map<String, Object> entry = new HashMap<>();
+                    entry.put("revision", revision.getRevision());
+                    entry.put("baseSalary", revision.getBaseSalary());
+                    entry.put("unpaidLeaveDeductions", revision.getUnpaidLeaveDeductions());
+                    entry.put("overtimePay", revision.getOvertimePay());
+                    entry.put("stressAllowance", revision.getStressAllowance());
+                    entry.put("finalSalary", revision.getFinalSalary());
+                    entry.put("generatedAt", revision.getGeneratedAt());
+                    entry.put("replacedAt", revision.getReplacedAt());
+                    return entry;
+                })
+                .collect(Collectors.toList());
+            
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
@@ -184,9 +327,10 @@ public class HRController {
     }
     
     @GetMapping("/employee/{userId}/stress-history")
+    @QueryBudget(3)
     public ResponseEntity<?> getEmployeeStressHistory(@PathVariable Long userId, Authentication authentication) {
         try {
-            User hrUser = getCurrentUser(authentication);
+            AuthenticatedUser hrUser = getCurrentUser(authentication);
             if (hrUser.getRole() != User.Role.HR) {
                 Map<String, String> error = new HashMap<>();
                 error.put("error", "Access denied. HR role required.");
@@ -200,46 +344,32 @@ public class HRController {
                 return ResponseEntity.badRequest().body(error);
             }
             
-            List<StressRecord> stressRecords = payrollService.getStressRecordsByUser(employee);
+            List<StressHistoryEntry> stressRecords = payrollService.getStressHistory(employee);
             
             // Calculate statistics
             double averageStress = stressRecords.stream()
-                .mapToInt(StressRecord::getStressLevel)
+                .mapToInt(StressHistoryEntry::getStressLevel)
                 .average()
                 .orElse(0.0);
             
             int maxStress = stressRecords.stream()
-                .mapToInt(StressRecord::getStressLevel)
+                .mapToInt(StressHistoryEntry::getStressLevel)
                 .max()
                 .orElse(0);
             
             int totalOvertimeHours = stressRecords.stream()
-                .mapToInt(StressRecord::getOvertimeHours)
+                .mapToInt(StressHistoryEntry::getOvertimeHours)
                 .sum();
             
             Map<String, Object> response = new HashMap<>();
-            response.put("employee", Map.of(
-                "id", employee.getId(),
-                "username", employee.getUsername(),
-                "fullName", employee.getFullName()
-            ));
+            response.put("employee", new EmployeeSummary(employee.getId(), employee.getUsername(), employee.getFullName()));
             response.put("statistics", Map.of(
                 "averageStressLevel", Math.round(averageStress * 100.0) / 100.0,
                 "maxStressLevel", maxStress,
                 "totalOvertimeHours", totalOvertimeHours,
                 "totalRecords", stressRecords.size()
             ));
-            response.put("stressHistory", stressRecords.stream()
-                .map(record -> Map.of(
-                    "id", record.getId(),
-                    "month", record.getMonth(),
-                    "year", record.getYear(),
-                    "stressLevel", record.getStressLevel(),
-                    "overtimeHours", record.getOvertimeHours(),
-                    "overtimeReason", record.getOvertimeReason(),
-                    "createdAt", record.getCreatedAt()
-                ))
-                .collect(Collectors.toList()));
+            response.put("stressHistory", stressRecords);
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -250,12 +380,13 @@ public class HRController {
     }
     
     @GetMapping("/employee/{userId}/attendance")
+    @QueryBudget(4)
     public ResponseEntity<?> getEmployeeAttendance(@PathVariable Long userId, 
                                                   @RequestParam(required = false) Integer month,
                                                   @RequestParam(required = false) Integer year,
                                                   Authentication authentication) {
         try {
-            User hrUser = getCurrentUser(authentication);
+            AuthenticatedUser hrUser = getCurrentUser(authentication);
             if (hrUser.getRole() != User.Role.HR) {
                 Map<String, String> error = new HashMap<>();
                 error.put("error", "Access denied. HR role required.");
@@ -269,50 +400,40 @@ public class HRController {
                 return ResponseEntity.badRequest().body(error);
             }
             
-            List<Attendance> attendanceRecords;
+            List<AttendanceEntry> attendanceRecords;
+            LocalDate startDate;
+            LocalDate endDate;
             
             if (month != null && year != null) {
                 // Get attendance for specific month/year
-                attendanceRecords = attendanceRepository.findByUserAndMonthAndYear(employee, month, year);
+                YearMonth yearMonth = YearMonth.of(year, month);
+                startDate = yearMonth.atDay(1);
+                endDate = yearMonth.atEndOfMonth();
+                attendanceRecords = attendanceRepository.findEntriesByUserAndDateBetween(employee, startDate, endDate);
             } else {
                 // Get recent attendance records (last 30 days)
                 LocalDate thirtyDaysAgo = LocalDate.now().minusDays(30);
-                attendanceRecords = attendanceRepository.findByUserAndDateAfterOrderByDateDesc(employee, thirtyDaysAgo);
+                attendanceRecords = attendanceRepository.findEntriesByUserAndDateAfter(employee, thirtyDaysAgo);
+                startDate = thirtyDaysAgo.plusDays(1);
+                endDate = attendanceRecords.isEmpty() || attendanceRecords.get(0).getDate().isBefore(LocalDate.now())
+                        ? LocalDate.now() : attendanceRecords.get(0).getDate();
             }
             
-            // Calculate statistics
-            long presentDays = attendanceRecords.stream()
-                .filter(record -> record.getStatus() == Attendance.AttendanceStatus.PRESENT)
-                .count();
-            
-            long paidLeaveDays = attendanceRecords.stream()
-                .filter(record -> record.getStatus() == Attendance.AttendanceStatus.PAID_LEAVE)
-                .count();
-            
-            long unpaidLeaveDays = attendanceRecords.stream()
-                .filter(record -> record.getStatus() == Attendance.AttendanceStatus.UNPAID_LEAVE)
-                .count();
+            // Calculate statistics from the bitmap index
+            long[] statusCounts = attendanceService.countByStatus(employee, startDate, endDate, attendanceRecords);
+            long presentDays = statusCounts[Attendance.AttendanceStatus.PRESENT.ordinal()];
+            long paidLeaveDays = statusCounts[Attendance.AttendanceStatus.PAID_LEAVE.ordinal()];
+            long unpaidLeaveDays = statusCounts[Attendance.AttendanceStatus.UNPAID_LEAVE.ordinal()];
             
             Map<String, Object> response = new HashMap<>();
-            response.put("employee", Map.of(
-                "id", employee.getId(),
-                "username", employee.getUsername(),
-                "fullName", employee.getFullName()
-            ));
+            response.put("employee", new EmployeeSummary(employee.getId(), employee.getUsername(), employee.getFullName()));
             response.put("statistics", Map.of(
                 "presentDays", presentDays,
                 "paidLeaveDays", paidLeaveDays,
                 "unpaidLeaveDays", unpaidLeaveDays,
                 "totalDays", attendanceRecords.size()
             ));
-            response.put("attendanceRecords", attendanceRecords.stream()
-                .map(record -> Map.of(
-                    "id", record.getId(),
-                    "date", record.getDate(),
-                    "status", record.getStatus().name(),
-                    "createdAt", record.getCreatedAt()
-                ))
-                .collect(Collectors.toList()));
+            response.put("attendanceRecords", attendanceRecords);
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -323,11 +444,12 @@ public class HRController {
     }
     
     @PostMapping("/employee/{userId}/attendance")
+    @QueryBudget(5)
     public ResponseEntity<?> createAttendanceRecord(@PathVariable Long userId, 
                                                    @RequestBody Map<String, Object> request,
                                                    Authentication authentication) {
         try {
-            User hrUser = getCurrentUser(authentication);
+            AuthenticatedUser hrUser = getCurrentUser(authentication);
             if (hrUser.getRole() != User.Role.HR) {
                 Map<String, String> error = new HashMap<>();
                 error.put("error", "Access denied. HR role required.");
@@ -353,15 +475,7 @@ public class HRController {
             LocalDate date = LocalDate.parse(dateStr);
             Attendance.AttendanceStatus status = Attendance.AttendanceStatus.valueOf(statusStr.toUpperCase());
             
-            // Check if attendance record already exists for this date
-            if (attendanceRepository.existsByUserAndDate(employee, date)) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "Attendance record already exists for this date");
-                return ResponseEntity.badRequest().body(error);
-            }
-            
-            Attendance attendance = new Attendance(employee, date, status);
-            attendance = attendanceRepository.save(attendance);
+            Attendance attendance = attendanceService.markAttendance(employee, date, status);
             
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Attendance record created successfully");
@@ -380,36 +494,159 @@ public class HRController {
         }
     }
     
+    /**
+     * Bulk upsert of attendance rows streamed as CSV ({@code username,date,status}) or,
+     * with an NDJSON content type, one JSON object per line.
+     */
+    @PostMapping("/attendance/import")
+    @QueryBudget(value = QueryBudget.UNBOUNDED, maxRepeats = QueryBudget.UNBOUNDED)
+    public ResponseEntity<?> importAttendance(HttpServletRequest request, Authentication authentication) {
+        try {
+            AuthenticatedUser hrUser = getCurrentUser(authentication);
+            if (hrUser.getRole() != User.Role.HR) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Access denied. HR role required.");
+                return ResponseEntity.badRequest().body(error);
+            }
+            
+            String contentType = request.getContentType();
+            AttendanceImportService.Format format = contentType != null && contentType.toLowerCase().contains("json")
+                    ? AttendanceImportService.Format.NDJSON : AttendanceImportService.Format.CSV;
+            
+            AttendanceImportResult result = attendanceImportService.importRows(
+                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8), format);
+            
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    /**
+     * Changes a user's role. Tokens issued to them before the change stop working,
+     * so they have to log in again to act with the new role.
+     */
+    @PutMapping("/employee/{userId}/role")
+    @QueryBudget(6)
+    public ResponseEntity<?> changeUserRole(@PathVariable Long userId,
+                                            @RequestBody Map<String, String> request,
+                                            Authentication authentication) {
+        try {
+            AuthenticatedUser hrUser = getCurrentUser(authentication);
+            if (hrUser.getRole() != User.Role.HR) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Access denied. HR role required.");
+                return ResponseEntity.badRequest().body(error);
+            }
+            
+            String roleStr = request.get("role");
+            if (roleStr == null) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Role is required");
+                return ResponseEntity.badRequest().body(error);
+            }
+            
+            User user = userService.changeUserRole(userId, User.Role.valueOf(roleStr.toUpperCase()));
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Role updated successfully. Existing sessions for this user must log in again.");
+            response.put("user", Map.of(
+                "id", user.getId(),
+                "username", user.getUsername(),
+                "role", user.getRole().name()
+            ));
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    /**
+     * Changes an employee's base salary and/or paid leave allowance. Payslips already
+     * generated for this month or later are marked for recompute.
+     */
+    @PutMapping("/employee/{userId}/compensation")
+    @QueryBudget(6)
+    public ResponseEntity<?> updateCompensation(@PathVariable Long userId,
+                                                @RequestBody Map<String, Object> request,
+                                                Authentication authentication) {
+        try {
+            AuthenticatedUser hrUser = getCurrentUser(authentication);
+            if (hrUser.getRole() != User.Role.HR) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Access denied. HR role required.");
+                return ResponseEntity.badRequest().body(error);
+            }
+            
+            Object baseSalary = request.get("baseSalary");
+            Object paidLeaves = request.get("paidLeavesPerMonth");
+            if (baseSalary == null && paidLeaves == null) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Base salary or paid leaves per month is required");
+                return ResponseEntity.badRequest().body(error);
+            }
+            
+            User employee = userService.getUserById(userId);
+            if (employee.getRole() != User.Role.EMPLOYEE) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "User is not an employee");
+                return ResponseEntity.badRequest().body(error);
+            }
+            
+            EmployeeProfile profile = userService.updateCompensation(employee,
+                baseSalary == null ? null : new BigDecimal(baseSalary.toString()),
+                paidLeaves == null ? null : Integer.valueOf(paidLeaves.toString()));
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Compensation updated successfully");
+            response.put("profile", Map.of(
+                "baseSalary", profile.getBaseSalary(),
+                "paidLeavesPerMonth", profile.getPaidLeavesPerMonth()
+            ));
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
     @GetMapping("/dashboard")
+    @QueryBudget(3)
     public ResponseEntity<?> getHRDashboard(Authentication authentication) {
         try {
-            User hrUser = getCurrentUser(authentication);
+            AuthenticatedUser hrUser = getCurrentUser(authentication);
             if (hrUser.getRole() != User.Role.HR) {
                 Map<String, String> error = new HashMap<>();
                 error.put("error", "Access denied. HR role required.");
                 return ResponseEntity.badRequest().body(error);
             }
             
-            // Get total employees
-            long totalEmployees = userRepository.countByRole(User.Role.EMPLOYEE);
-            
             // Get recent payslips
-            List<Payslip> recentPayslips = payslipRepository.findTop10ByOrderByGeneratedAtDesc();
+            List<Payslip> recentPayslips = payslipRepository.findRecentWithUser(PageRequest.of(0, 10));
             
-            // Get high stress employees (stress level > 7)
-            List<StressRecord> highStressRecords = stressRecordRepository.findByStressLevelGreaterThanOrderByCreatedAtDesc(7);
+            // Most recent high stress employees, kept in memory by the tracker
+            List<HighStressAlert> highStressAlerts = highStressTracker.getRecent();
             
-            // Get attendance statistics for current month
-            int currentMonth = LocalDate.now().getMonthValue();
-            int currentYear = LocalDate.now().getYear();
-            long totalAttendanceRecords = attendanceRepository.countByMonthAndYear(currentMonth, currentYear);
-            long presentDays = attendanceRepository.countByStatusAndMonthAndYear(Attendance.AttendanceStatus.PRESENT, currentMonth, currentYear);
+            // Employee total and current month attendance come from the precomputed aggregates
+            LocalDate today = LocalDate.now();
+            DashboardCounts counts = dashboardAggregateService.getDashboardCounts(today.getYear(), today.getMonthValue());
+            long totalAttendanceRecords = counts.getTotalAttendanceRecords();
+            long presentDays = counts.getPresentDays();
             
             Map<String, Object> response = new HashMap<>();
             response.put("statistics", Map.of(
-                "totalEmployees", totalEmployees,
+                "totalEmployees", counts.getTotalEmployees(),
                 "totalAttendanceRecords", totalAttendanceRecords,
                 "presentDays", presentDays,
+                "paidLeaveDays", counts.getPaidLeaveDays(),
+                "unpaidLeaveDays", counts.getUnpaidLeaveDays(),
                 "attendanceRate", totalAttendanceRecords > 0 ? Math.round((double) presentDays / totalAttendanceRecords * 100) : 0
             ));
             response.put("recentPayslips", recentPayslips.stream()
@@ -422,9 +659,10 @@ public class HRController {
                     "generatedAt", payslip.getGeneratedAt()
                 ))
                 .collect(Collectors.toList()));
-            response.put("highStressEmployees", highStressRecords.stream()
+            response.put("highStressEmployees", highStressAlerts.stream()
                 .map(record -> Map.of(
-                    "employeeName", record.getUser().getFullName(),
+                    "userId", record.getUserId(),
+                    "employeeName", record.getEmployeeName(),
                     "stressLevel", record.getStressLevel(),
                     "overtimeHours", record.getOvertimeHours(),
                     "month", record.getMonth(),
@@ -439,4 +677,254 @@ public class HRController {
             return ResponseEntity.badRequest().body(error);
         }
     }
+    
+    /**
+     * Streams dashboard changes as Server-Sent Events: generated payslips, stress
+     * records above the threshold, marked attendance, and a refresh after bulk changes.
+     * The body type must be declared as {@link ResponseBodyEmitter} for Spring to stream
+     * it, so errors are written through the same type.
+     */
+    @GetMapping("/dashboard/events")
+    @QueryBudget(0)
+    public ResponseEntity<ResponseBodyEmitter> streamDashboardEvents(Authentication authentication) {
+        try {
+            AuthenticatedUser hrUser = getCurrentUser(authentication);
+            if (hrUser.getRole() != User.Role.HR) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Access denied. HR role required.");
+                return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(jsonEmitter(error));
+            }
+            
+            return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .cacheControl(CacheControl.noStore())
+                // Keeps reverse proxies from buffering the stream
+                .header("X-Accel-Buffering", "no")
+                .body(dashboardEventBroadcaster.connect());
+        } catch (DashboardClientLimitException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.RETRY_AFTER, DASHBOARD_EVENTS_RETRY_AFTER_SECONDS)
+                .body(jsonEmitter(error));
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(jsonEmitter(error));
+        }
+    }
+    
+    @GetMapping("/stress/high")
+    @QueryBudget(2)
+    public ResponseEntity<?> getHighStressFeed(@RequestParam(required = false) Integer threshold,
+                                               @RequestParam(required = false) Long cursor,
+                                               @RequestParam(required = false) Integer limit,
+                                               Authentication authentication) {
+        try {
+            AuthenticatedUser hrUser = getCurrentUser(authentication);
+            if (hrUser.getRole() != User.Role.HR) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Access denied. HR role required.");
+                return ResponseEntity.badRequest().body(error);
+            }
+            
+            int minimumLevel = threshold == null ? highStressTracker.getThreshold() : threshold;
+            int pageSize = limit == null ? DEFAULT_STRESS_FEED_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_STRESS_FEED_PAGE_SIZE));
+            List<HighStressAlert> alerts = stressRecordRepository.findHighStressPage(
+                minimumLevel, cursor, PageRequest.of(0, pageSize));
+            
+            // Records are newest first, so the next page continues below the last id
+            Long nextCursor = alerts.size() == pageSize ? alerts.get(alerts.size() - 1).getId() : null;
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("alerts", alerts);
+            response.put("threshold", minimumLevel);
+            response.put("nextCursor", nextCursor);
+            response.put("limit", pageSize);
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    @PostMapping("/dashboard/aggregates/rebuild")
+    @QueryBudget(value = QueryBudget.UNBOUNDED, maxRepeats = QueryBudget.UNBOUNDED)
+    public ResponseEntity<?> rebuildDashboardAggregates(Authentication authentication) {
+        try {
+            AuthenticatedUser hrUser = getCurrentUser(authentication);
+            if (hrUser.getRole() != User.Role.HR) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Access denied. HR role required.");
+                return ResponseEntity.badRequest().body(error);
+            }
+            
+            int periods = dashboardAggregateService.rebuild();
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Dashboard aggregates rebuilt successfully");
+            response.put("periods", periods);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    @PostMapping("/payroll/run")
+    @QueryBudget(1)
+    public ResponseEntity<?> startPayrollRun(@RequestBody Map<String, Integer> request, Authentication authentication) {
+        try {
+            AuthenticatedUser hrUser = getCurrentUser(authentication);
+            if (hrUser.getRole() != User.Role.HR) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Access denied. HR role required.");
+                return ResponseEntity.badRequest().body(error);
+            }
+            
+            Integer month = request.get("month");
+            Integer year = request.get("year");
+            
+            if (month == null || year == null) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Month and year are required");
+                return ResponseEntity.badRequest().body(error);
+            }
+            
+            PayrollRun run = payrollRunService.startRun(month, year);
+            return ResponseEntity.accepted().body(run);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    @GetMapping("/payroll/run/{runId}")
+    @QueryBudget(0)
+    public ResponseEntity<?> getPayrollRun(@PathVariable String runId, Authentication authentication) {
+        try {
+            AuthenticatedUser hrUser = getCurrentUser(authentication);
+            if (hrUser.getRole() != User.Role.HR) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Access denied. HR role required.");
+                return ResponseEntity.badRequest().body(error);
+            }
+            
+            return ResponseEntity.ok(payrollRunService.getRun(runId));
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    @GetMapping("/payroll/recompute")
+    @QueryBudget(1)
+    public ResponseEntity<?> getDirtyPayslips(Authentication authentication) {
+        try {
+            AuthenticatedUser hrUser = getCurrentUser(authentication);
+            if (hrUser.getRole() != User.Role.HR) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Access denied. HR role required.");
+                return ResponseEntity.badRequest().body(error);
+            }
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("dirtyPayslips", payslipRecomputeService.countDirty());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    /**
+     * Recomputes only the payslips whose attendance, stress record or compensation
+     * changed after they were generated, keeping the replaced amounts as revisions.
+     */
+    @PostMapping("/payroll/recompute")
+    @QueryBudget(value = QueryBudget.UNBOUNDED, maxRepeats = QueryBudget.UNBOUNDED)
+    public ResponseEntity<?> recomputeDirtyPayslips(Authentication authentication) {
+        try {
+            AuthenticatedUser hrUser = getCurrentUser(authentication);
+            if (hrUser.getRole() != User.Role.HR) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Access denied. HR role required.");
+                return ResponseEntity.badRequest().body(error);
+            }
+            
+            return ResponseEntity.ok(payslipRecomputeService.recompute());
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    /**
+     * Streams every payslip of a pay period as CSV, or as NDJSON with {@code format=ndjson}.
+     * The body type must be declared as {@link StreamingResponseBody} for Spring to stream
+     * it, so errors are written through the same type.
+     */
+    @GetMapping("/payroll/export")
+    @QueryBudget(1)
+    public ResponseEntity<StreamingResponseBody> exportPayroll(@RequestParam Integer month,
+                                                               @RequestParam Integer year,
+                                                               @RequestParam(defaultValue = "csv") String format,
+                                                               Authentication authentication) {
+        try {
+            AuthenticatedUser hrUser = getCurrentUser(authentication);
+            if (hrUser.getRole() != User.Role.HR) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Access denied. HR role required.");
+                return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(jsonBody(error));
+            }
+            
+            if (month < 1 || month > 12) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Month must be between 1 and 12");
+                return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(jsonBody(error));
+            }
+            
+            PayrollExportService.Format exportFormat = PayrollExportService.Format.valueOf(format.toUpperCase());
+            String extension = exportFormat == PayrollExportService.Format.CSV ? "csv" : "ndjson";
+            MediaType mediaType = exportFormat == PayrollExportService.Format.CSV
+                    ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                    : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+            
+            StreamingResponseBody body = out -> payrollExportService.exportPayslips(month, year, exportFormat, out);
+            
+            return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        String.format("attachment; filename=\"payslips-%d-%02d.%s\"", year, month, extension))
+                .body(body);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(jsonBody(error));
+        }
+    }
+    
+    private StreamingResponseBody jsonBody(Object value) {
+        return out -> objectMapper.writeValue(out, value);
+    }
+    
+    private ResponseBodyEmitter jsonEmitter(Object value) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+        try {
+            // Held until the response starts, then written and completed
+            emitter.send(value, MediaType.APPLICATION_JSON);
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
 }
@@ -0,0 +1,61 @@
+package com.company.stresspayroll.dto;
+
+import com.company.stresspayroll.model.Attendance;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One attendance record in an attendance response, read as a projection so the
+ * records' users are never loaded.
+ */
+public class AttendanceEntry {
+    
+    private Long id;
+    private LocalDate date;
+    private Attendance.AttendanceStatus status;
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public AttendanceEntry() {}
+    
+    public AttendanceEntry(Long id, LocalDate date, Attendance.AttendanceStatus status, LocalDateTime createdAt) {
+        this.id = id;
+        this.date = date;
+        this.status = status;
+        this.createdAt = createdAt;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public LocalDate getDate() {
+        return date;
+    }
+    
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+    
+    public Attendance.AttendanceStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Attendance.AttendanceStatus status) {
+        this.status = status;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
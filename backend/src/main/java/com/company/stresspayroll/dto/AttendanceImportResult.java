@@ -0,0 +1,117 @@
+package com.company.stresspayroll.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk attendance import. Only the first rejected rows are listed;
+ * {@code rejected} counts all of them.
+ */
+public class AttendanceImportResult {
+    
+    private long rowsRead;
+    private long inserted;
+    private long updated;
+    private long unchanged;
+    private long rejected;
+    private List<RowReject> rejects = new ArrayList<>();
+    private long elapsedMillis;
+    private long rowsPerSecond;
+    
+    public static class RowReject {
+        
+        private long line;
+        private String reason;
+        
+        public RowReject() {}
+        
+        public RowReject(long line, String reason) {
+            this.line = line;
+            this.reason = reason;
+        }
+        
+        public long getLine() {
+            return line;
+        }
+        
+        public void setLine(long line) {
+            this.line = line;
+        }
+        
+        public String getReason() {
+            return reason;
+        }
+        
+        public void setReason(String reason) {
+            this.reason = reason;
+        }
+    }
+    
+    // Constructors
+    public AttendanceImportResult() {}
+    
+    // Getters and Setters
+    public long getRowsRead() {
+        return rowsRead;
+    }
+    
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+    
+    public long getInserted() {
+        return inserted;
+    }
+    
+    public void setInserted(long inserted) {
+        this.inserted = inserted;
+    }
+    
+    public long getUpdated() {
+        return updated;
+    }
+    
+    public void setUpdated(long updated) {
+        this.updated = updated;
+    }
+    
+    public long getUnchanged() {
+        return unchanged;
+    }
+    
+    public void setUnchanged(long unchanged) {
+        this.unchanged = unchanged;
+    }
+    
+    public long getRejected() {
+        return rejected;
+    }
+    
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+    
+    public List<RowReject> getRejects() {
+        return rejects;
+    }
+    
+    public void setRejects(List<RowReject> rejects) {
+        this.rejects = rejects;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    public long getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+    
+    public void setRowsPerSecond(long rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+}
@@ -0,0 +1,63 @@
+package com.company.stresspayroll.dto;
+
+public class DashboardCounts {
+    
+    private long totalEmployees;
+    private long totalAttendanceRecords;
+    private long presentDays;
+    private long paidLeaveDays;
+    private long unpaidLeaveDays;
+    
+    // Constructors
+    public DashboardCounts() {}
+    
+    public DashboardCounts(long totalEmployees, long totalAttendanceRecords, long presentDays,
+                           long paidLeaveDays, long unpaidLeaveDays) {
+        this.totalEmployees = totalEmployees;
+        this.totalAttendanceRecords = totalAttendanceRecords;
+        this.presentDays = presentDays;
+        this.paidLeaveDays = paidLeaveDays;
+        this.unpaidLeaveDays = unpaidLeaveDays;
+    }
+    
+    // Getters and Setters
+    public long getTotalEmployees() {
+        return totalEmployees;
+    }
+    
+    public void setTotalEmployees(long totalEmployees) {
+        this.totalEmployees = totalEmployees;
+    }
+    
+    public long getTotalAttendanceRecords() {
+        return totalAttendanceRecords;
+    }
+    
+    public void setTotalAttendanceRecords(long totalAttendanceRecords) {
+        this.totalAttendanceRecords = totalAttendanceRecords;
+    }
+    
+    public long getPresentDays() {
+        return presentDays;
+    }
+    
+    public void setPresentDays(long presentDays) {
+        this.presentDays = presentDays;
+    }
+    
+    public long getPaidLeaveDays() {
+        return paidLeaveDays;
+    }
+    
+    public void setPaidLeaveDays(long paidLeaveDays) {
+        this.paidLeaveDays = paidLeaveDays;
+    }
+    
+    public long getUnpaidLeaveDays() {
+        return unpaidLeaveDays;
+    }
+    
+    public void setUnpaidLeaveDays(long unpaidLeaveDays) {
+        this.unpaidLeaveDays = unpaidLeaveDays;
+    }
+}
@@ -0,0 +1,110 @@
+package com.company.stresspayroll.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One row of the HR employee directory, read straight from a users/profiles join.
+ * Profile fields are null for employees that have no profile yet.
+ */
+public class EmployeeDirectoryEntry {
+    
+    private Long id;
+    private String username;
+    private String email;
+    private String fullName;
+    private String phone;
+    private String department;
+    private String position;
+    private BigDecimal baseSalary;
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public EmployeeDirectoryEntry() {}
+    
+    public EmployeeDirectoryEntry(Long id, String username, String email, String fullName, String phone,
+                                  String department, String position, BigDecimal baseSalary, LocalDateTime createdAt) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.fullName = fullName;
+        this.phone = phone;
+        this.department = department;
+        this.position = position;
+        this.baseSalary = baseSalary;
+        this.createdAt = createdAt;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public void setEmail(String email) {
+        this.email = email;
+    }
+    
+    public String getFullName() {
+        return fullName;
+    }
+    
+    public void setFullName(String fullName) {
+        this.fullName = fullName;
+    }
+    
+    public String getPhone() {
+        return phone;
+    }
+    
+    public void setPhone(String phone) {
+        this.phone = phone;
+    }
+    
+    public String getDepartment() {
+        return department;
+    }
+    
+    public void setDepartment(String department) {
+        this.department = department;
+    }
+    
+    public String getPosition() {
+        return position;
+    }
+    
+    public void setPosition(String position) {
+        this.position = position;
+    }
+    
+    public BigDecimal getBaseSalary() {
+        return baseSalary;
+    }
+    
+    public void setBaseSalary(BigDecimal baseSalary) {
+        this.baseSalary = baseSalary;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,45 @@
+package com.company.stresspayroll.dto;
+
+/**
+ * The id and names of the employee a per-employee response is about.
+ */
+public class EmployeeSummary {
+    
+    private Long id;
+    private String username;
+    private String fullName;
+    
+    // Constructors
+    public EmployeeSummary() {}
+    
+    public EmployeeSummary(Long id, String username, String fullName) {
+        this.id = id;
+        this.username = username;
+        this.fullName = fullName;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    
+    public String getFullName() {
+        return fullName;
+    }
+    
+    public void setFullName(String fullName) {
+        this.fullName = fullName;
+    }
+}
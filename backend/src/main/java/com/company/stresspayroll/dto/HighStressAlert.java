@@ -0,0 +1,99 @@
+package com.company.stresspayroll.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A stress record above the high-stress threshold, read together with the
+ * employee's name so the feed does not load each user separately.
+ */
+public class HighStressAlert {
+    
+    private Long id;
+    private Long userId;
+    private String employeeName;
+    private Integer stressLevel;
+    private Integer overtimeHours;
+    private Integer month;
+    private Integer year;
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public HighStressAlert() {}
+    
+    public HighStressAlert(Long id, Long userId, String employeeName, Integer stressLevel, Integer overtimeHours,
+                           Integer month, Integer year, LocalDateTime createdAt) {
+        this.id = id;
+        this.userId = userId;
+        this.employeeName = employeeName;
+        this.stressLevel = stressLevel;
+        this.overtimeHours = overtimeHours;
+        this.month = month;
+        this.year = year;
+        this.createdAt = createdAt;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public String getEmployeeName() {
+        return employeeName;
+    }
+    
+    public void setEmployeeName(String employeeName) {
+        this.employeeName = employeeName;
+    }
+    
+    public Integer getStressLevel() {
+        return stressLevel;
+    }
+    
+    public void setStressLevel(Integer stressLevel) {
+        this.stressLevel = stressLevel;
+    }
+    
+    public Integer getOvertimeHours() {
+        return overtimeHours;
+    }
+    
+    public void setOvertimeHours(Integer overtimeHours) {
+        this.overtimeHours = overtimeHours;
+    }
+    
+    public Integer getMonth() {
+        return month;
+    }
+    
+    public void setMonth(Integer month) {
+        this.month = month;
+    }
+    
+    public Integer getYear() {
+        return year;
+    }
+    
+    public void setYear(Integer year) {
+        this.year = year;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,152 @@
+package com.company.stresspayroll.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One line of the payroll export, projected straight from the payslips, users and
+ * profiles tables so exported rows are never attached to the persistence context.
+ */
+public class PayslipExportRow {
+    
+    private Long payslipId;
+    private Long userId;
+    private String username;
+    private String fullName;
+    private String department;
+    private Integer month;
+    private Integer year;
+    private BigDecimal baseSalary;
+    private BigDecimal unpaidLeaveDeductions;
+    private BigDecimal overtimePay;
+    private BigDecimal stressAllowance;
+    private BigDecimal finalSalary;
+    private LocalDateTime generatedAt;
+    
+    // Constructors
+    public PayslipExportRow() {}
+    
+    public PayslipExportRow(Long payslipId, Long userId, String username, String fullName, String department,
+                            Integer month, Integer year, BigDecimal baseSalary, BigDecimal unpaidLeaveDeductions,
+                            BigDecimal overtimePay, BigDecimal stressAllowance, BigDecimal finalSalary,
+                            LocalDateTime generatedAt) {
+        this.payslipId = payslipId;
+        this.userId = userId;
+        this.username = username;
+        this.fullName = fullName;
+        this.department = department;
+        this.month = month;
+        this.year = year;
+        this.baseSalary = baseSalary;
+        this.unpaidLeaveDeductions = unpaidLeaveDeductions;
+        this.overtimePay = overtimePay;
+        this.stressAllowance = stressAllowance;
+        this.finalSalary = finalSalary;
+        this.generatedAt = generatedAt;
+    }
+    
+    // Getters and Setters
+    public Long getPayslipId() {
+        return payslipId;
+    }
+    
+    public void setPayslipId(Long payslipId) {
+        this.payslipId = payslipId;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    
+    public String getFullName() {
+        return fullName;
+    }
+    
+    public void setFullName(String fullName) {
+        this.fullName = fullName;
+    }
+    
+    public String getDepartment() {
+        return department;
+    }
+    
+    public void setDepartment(String department) {
+        this.department = department;
+    }
+    
+    public Integer getMonth() {
+        return month;
+    }
+    
+    public void setMonth(Integer month) {
+        this.month = month;
+    }
+    
+    public Integer getYear() {
+        return year;
+    }
+    
+    public void setYear(Integer year) {
+        this.year = year;
+    }
+    
+    public BigDecimal getBaseSalary() {
+        return baseSalary;
+    }
+    
+    public void setBaseSalary(BigDecimal baseSalary) {
+        this.baseSalary = baseSalary;
+    }
+    
+    public BigDecimal getUnpaidLeaveDeductions() {
+        return unpaidLeaveDeductions;
+    }
+    
+    public void setUnpaidLeaveDeductions(BigDecimal unpaidLeaveDeductions) {
+        this.unpaidLeaveDeductions = unpaidLeaveDeductions;
+    }
+    
+    public BigDecimal getOvertimePay() {
+        return overtimePay;
+    }
+    
+    public void setOvertimePay(BigDecimal overtimePay) {
+        this.overtimePay = overtimePay;
+    }
+    
+    public BigDecimal getStressAllowance() {
+        return stressAllowance;
+    }
+    
+    public void setStressAllowance(BigDecimal stressAllowance) {
+        this.stressAllowance = stressAllowance;
+    }
+    
+    public BigDecimal getFinalSalary() {
+        return finalSalary;
+    }
+    
+    public void setFinalSalary(BigDecimal finalSalary) {
+        this.finalSalary = finalSalary;
+    }
+    
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+    
+    public void setGeneratedAt(LocalDateTime generatedAt) {
+        this.generatedAt = generatedAt;
+    }
+}
@@ -0,0 +1,68 @@
+package com.company.stresspayroll.dto;
+
+/**
+ * Outcome of recomputing the dirty payslips. {@code revised} payslips got new amounts
+ * and a revision; {@code unchanged} ones recomputed to the same amounts. Failed and
+ * {@code markedAgain} periods, which changed again while being recomputed, stay dirty.
+ */
+public class PayslipRecomputeResult {
+    
+    private long dirtyPeriods;
+    private long revised;
+    private long unchanged;
+    private long failed;
+    private long markedAgain;
+    private long elapsedMillis;
+    
+    // Constructors
+    public PayslipRecomputeResult() {}
+    
+    // Getters and Setters
+    public long getDirtyPeriods() {
+        return dirtyPeriods;
+    }
+    
+    public void setDirtyPeriods(long dirtyPeriods) {
+        this.dirtyPeriods = dirtyPeriods;
+    }
+    
+    public long getRevised() {
+        return revised;
+    }
+    
+    public void setRevised(long revised) {
+        this.revised = revised;
+    }
+    
+    public long getUnchanged() {
+        return unchanged;
+    }
+    
+    public void setUnchanged(long unchanged) {
+        this.unchanged = unchanged;
+    }
+    
+    public long getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+    
+    public long getMarkedAgain() {
+        return markedAgain;
+    }
+    
+    public void setMarkedAgain(long markedAgain) {
+        this.markedAgain = markedAgain;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+}
@@ -9,21 +9,28 @@ public class PayslipResponse {
     private Integer year;
     private BigDecimal baseSalary;
     private BigDecimal unpaidLeaveDeductions;
+    private BigDecimal overtimePay;
+    private BigDecimal stressAllowance;
     private BigDecimal finalSalary;
     private String generatedAt;
+    private Integer revision;
     
     // Constructors
     public PayslipResponse() {}
     
     public PayslipResponse(Long id, Integer month, Integer year, BigDecimal baseSalary, 
-                          BigDecimal unpaidLeaveDeductions, BigDecimal finalSalary, String generatedAt) {
+                          BigDecimal unpaidLeaveDeductions, BigDecimal overtimePay, BigDecimal stressAllowance,
+                          BigDecimal finalSalary, String generatedAt, Integer revision) {
         this.id = id;
         this.month = month;
         this.year = year;
         this.baseSalary = baseSalary;
         this.unpaidLeaveDeductions = unpaidLeaveDeductions;
+        this.overtimePay = overtimePay;
+        this.stressAllowance = stressAllowance;
         this.finalSalary = finalSalary;
         this.generatedAt = generatedAt;
+        this.revision = revision;
     }
     
     // Getters and Setters
@@ -67,6 +74,22 @@ public class PayslipResponse {
         this.unpaidLeaveDeductions = unpaidLeaveDeductions;
     }
     
+    public BigDecimal getOvertimePay() {
+        return overtimePay;
+    }
+    
+    public void setOvertimePay(BigDecimal overtimePay) {
+        this.overtimePay = overtimePay;
+    }
+    
+    public BigDecimal getStressAllowance() {
+        return stressAllowance;
+    }
+    
+    public void setStressAllowance(BigDecimal stressAllowance) {
+        this.stressAllowance = stressAllowance;
+    }
+    
     public BigDecimal getFinalSalary() {
         return finalSalary;
     }
@@ -82,4 +105,12 @@ public class PayslipResponse {
     public void setGeneratedAt(String generatedAt) {
         this.generatedAt = generatedAt;
     }
+    
+    public Integer getRevision() {
+        return revision;
+    }
+    
+    public void setRevision(Integer revision) {
+        this.revision = revision;
+    }
 }
@@ -0,0 +1,89 @@
+package com.company.stresspayroll.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A newly generated payslip as shown in the HR dashboard's recent payslips.
+ */
+public class RecentPayslip {
+    
+    private Long id;
+    private Long userId;
+    private String employeeName;
+    private Integer month;
+    private Integer year;
+    private BigDecimal finalSalary;
+    private LocalDateTime generatedAt;
+    
+    // Constructors
+    public RecentPayslip() {}
+    
+    public RecentPayslip(Long id, Long userId, String employeeName, Integer month, Integer year,
+                         BigDecimal finalSalary, LocalDateTime generatedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.employeeName = employeeName;
+        this.month = month;
+        this.year = year;
+        this.finalSalary = finalSalary;
+        this.generatedAt = generatedAt;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public String getEmployeeName() {
+        return employeeName;
+    }
+    
+    public void setEmployeeName(String employeeName) {
+        this.employeeName = employeeName;
+    }
+    
+    public Integer getMonth() {
+        return month;
+    }
+    
+    public void setMonth(Integer month) {
+        this.month = month;
+    }
+    
+    public Integer getYear() {
+        return year;
+    }
+    
+    public void setYear(Integer year) {
+        this.year = year;
+    }
+    
+    public BigDecimal getFinalSalary() {
+        return finalSalary;
+    }
+    
+    public void setFinalSalary(BigDecimal finalSalary) {
+        this.finalSalary = finalSalary;
+    }
+    
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+    
+    public void setGeneratedAt(LocalDateTime generatedAt) {
+        this.generatedAt = generatedAt;
+    }
+}
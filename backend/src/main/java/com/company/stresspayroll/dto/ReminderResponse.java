@@ -0,0 +1,68 @@
+package com.company.stresspayroll.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A reminder as returned to its owner.
+ */
+public class ReminderResponse {
+    
+    private Long id;
+    private String reminderText;
+    private Boolean isCompleted;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public ReminderResponse() {}
+    
+    public ReminderResponse(Long id, String reminderText, Boolean isCompleted, LocalDateTime createdAt,
+                            LocalDateTime updatedAt) {
+        this.id = id;
+        this.reminderText = reminderText;
+        this.isCompleted = isCompleted;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getReminderText() {
+        return reminderText;
+    }
+    
+    public void setReminderText(String reminderText) {
+        this.reminderText = reminderText;
+    }
+    
+    public Boolean getIsCompleted() {
+        return isCompleted;
+    }
+    
+    public void setIsCompleted(Boolean isCompleted) {
+        this.isCompleted = isCompleted;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
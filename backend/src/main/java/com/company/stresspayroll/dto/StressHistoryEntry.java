@@ -0,0 +1,89 @@
+package com.company.stresspayroll.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One monthly stress record in a stress history response, read as a projection so
+ * the records' users are never loaded. The overtime reason is null when none was given.
+ */
+public class StressHistoryEntry {
+    
+    private Long id;
+    private Integer month;
+    private Integer year;
+    private Integer stressLevel;
+    private Integer overtimeHours;
+    private String overtimeReason;
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public StressHistoryEntry() {}
+    
+    public StressHistoryEntry(Long id, Integer month, Integer year, Integer stressLevel, Integer overtimeHours,
+                              String overtimeReason, LocalDateTime createdAt) {
+        this.id = id;
+        this.month = month;
+        this.year = year;
+        this.stressLevel = stressLevel;
+        this.overtimeHours = overtimeHours;
+        this.overtimeReason = overtimeReason;
+        this.createdAt = createdAt;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Integer getMonth() {
+        return month;
+    }
+    
+    public void setMonth(Integer month) {
+        this.month = month;
+    }
+    
+    public Integer getYear() {
+        return year;
+    }
+    
+    public void setYear(Integer year) {
+        this.year = year;
+    }
+    
+    public Integer getStressLevel() {
+        return stressLevel;
+    }
+    
+    public void setStressLevel(Integer stressLevel) {
+        this.stressLevel = stressLevel;
+    }
+    
+    public Integer getOvertimeHours() {
+        return overtimeHours;
+    }
+    
+    public void setOvertimeHours(Integer overtimeHours) {
+        this.overtimeHours = overtimeHours;
+    }
+    
+    public String getOvertimeReason() {
+        return overtimeReason;
+    }
+    
+    public void setOvertimeReason(String overtimeReason) {
+        this.overtimeReason = overtimeReason;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
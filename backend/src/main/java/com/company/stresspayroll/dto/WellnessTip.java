@@ -0,0 +1,36 @@
+package com.company.stresspayroll.dto;
+
+/**
+ * One entry of the wellness tips response. Its fields are written in declaration
+ * order, so the serialized tips and their ETag are the same on every instance.
+ */
+public class WellnessTip {
+    
+    private String title;
+    private String description;
+    
+    // Constructors
+    public WellnessTip() {}
+    
+    public WellnessTip(String title, String description) {
+        this.title = title;
+        this.description = description;
+    }
+    
+    // Getters and Setters
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+}
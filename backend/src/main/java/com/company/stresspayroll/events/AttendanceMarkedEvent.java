@@ -0,0 +1,34 @@
+package com.company.stresspayroll.events;
+
+import com.company.stresspayroll.model.Attendance;
+
+import java.time.LocalDate;
+
+/**
+ * Published when a single attendance record is added. Imports publish one
+ * {@link DashboardRefreshEvent} instead. Sent to dashboards as is.
+ */
+public class AttendanceMarkedEvent {
+    
+    private final Long userId;
+    private final LocalDate date;
+    private final Attendance.AttendanceStatus status;
+    
+    public AttendanceMarkedEvent(Long userId, LocalDate date, Attendance.AttendanceStatus status) {
+        this.userId = userId;
+        this.date = date;
+        this.status = status;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public LocalDate getDate() {
+        return date;
+    }
+    
+    public Attendance.AttendanceStatus getStatus() {
+        return status;
+    }
+}
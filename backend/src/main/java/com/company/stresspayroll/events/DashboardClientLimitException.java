@@ -0,0 +1,12 @@
+package com.company.stresspayroll.events;
+
+/**
+ * Thrown when a dashboard subscribes to events while the maximum number of dashboards
+ * is already connected. The events endpoint answers with 429 so the dashboard retries.
+ */
+public class DashboardClientLimitException extends RuntimeException {
+    
+    public DashboardClientLimitException(String message) {
+        super(message);
+    }
+}
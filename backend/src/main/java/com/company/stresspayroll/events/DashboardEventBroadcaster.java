@@ -0,0 +1,308 @@
+package com.company.stresspayroll.events;
+
+import com.company.stresspayroll.dto.RecentPayslip;
+import com.company.stresspayroll.model.Payslip;
+import com.company.stresspayroll.model.User;
+import com.company.stresspayroll.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes changes to connected HR dashboards as Server-Sent Events.
+ * <p>
+ * Services publish events through Spring's application event bus. They are picked up
+ * here only once their transaction has committed, serialized once and queued for a
+ * single publisher thread, which copies each event into every dashboard's bounded
+ * buffer and sends heartbeats while nothing else happens. Each buffer is drained by
+ * its own sender task, so a slow connection never holds up the others. A dashboard
+ * whose buffer fills up is evicted and has to reconnect.
+ * <p>
+ * Events are not replayed; a dashboard reloads its data when it connects and applies
+ * events on top. Nothing is serialized while no dashboard is connected.
+ */
+@Component
+public class DashboardEventBroadcaster {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DashboardEventBroadcaster.class);
+    
+    private static final int PUBLISH_QUEUE_CAPACITY = 10_000;
+    private static final String LIMIT_MESSAGE = "Too many dashboards are connected, please retry shortly";
+    
+    // Sent to every dashboard when the publisher has been idle for a heartbeat interval
+    private static final OutboundEvent HEARTBEAT = new OutboundEvent(0, null, null);
+    
+    @Value("${dashboard.events.max-clients:50}")
+    private int maxClients;
+    
+    @Value("${dashboard.events.client-buffer:256}")
+    private int clientBuffer;
+    
+    @Value("${dashboard.events.timeout:30m}")
+    private Duration timeout;
+    
+    @Value("${dashboard.events.heartbeat-interval:15s}")
+    private Duration heartbeatInterval;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private final List<Client> clients = new CopyOnWriteArrayList<>();
+    private final BlockingQueue<OutboundEvent> outbound = new ArrayBlockingQueue<>(PUBLISH_QUEUE_CAPACITY);
+    private final AtomicLong eventIds = new AtomicLong();
+    
+    private Thread publisher;
+    private ExecutorService senders;
+    private Counter evictions;
+    private Counter drops;
+    
+    @PostConstruct
+    public void init() {
+        // At most one sender task runs per dashboard, so the pool never needs a queue
+        AtomicInteger senderIds = new AtomicInteger();
+        senders = new ThreadPoolExecutor(0, maxClients, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-events-sender-" + senderIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        publisher = new Thread(this::publishLoop, "dashboard-events-publisher");
+        publisher.setDaemon(true);
+        publisher.start();
+        
+        Gauge.builder("dashboard.events.clients", clients, List::size)
+                .description("HR dashboards connected to the event stream")
+                .register(meterRegistry);
+        evictions = Counter.builder("dashboard.events.evicted")
+                .description("Dashboards disconnected because they fell a full buffer behind")
+                .register(meterRegistry);
+        drops = Counter.builder("dashboard.events.dropped")
+                .description("Events discarded because the publisher queue was full")
+                .register(meterRegistry);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        publisher.interrupt();
+        senders.shutdownNow();
+        for (Client client : clients) {
+            client.emitter.complete();
+        }
+        clients.clear();
+    }
+    
+    /**
+     * Subscribes a dashboard. Throws {@link DashboardClientLimitException} when
+     * {@code dashboard.events.max-clients} dashboards are already connected.
+     */
+    public SseEmitter connect() {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Client client = new Client(emitter, clientBuffer);
+        synchronized (clients) {
+            if (clients.size() >= maxClients) {
+                throw new DashboardClientLimitException(LIMIT_MESSAGE);
+            }
+            clients.add(client);
+        }
+        emitter.onCompletion(() -> clients.remove(client));
+        emitter.onTimeout(() -> clients.remove(client));
+        emitter.onError(e -> clients.remove(client));
+        
+        // Lets the dashboard know the stream is live before the first change arrives
+        client.buffer.offer(new OutboundEvent(eventIds.incrementAndGet(), "connected", "{}"));
+        schedule(client);
+        return emitter;
+    }
+    
+    public int getClientCount() {
+        return clients.size();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPayslipGenerated(PayslipGeneratedEvent event) {
+        if (clients.isEmpty()) {
+            return;
+        }
+        Payslip payslip = event.getPayslip();
+        User user = payslip.getUser();
+        // Employees generate their payslip through a user reference, which may not be loaded
+        String employeeName = Hibernate.isInitialized(user)
+                ? user.getFullName()
+                : userRepository.findFullNameById(user.getId()).orElse(null);
+        publish("payslip-generated", new RecentPayslip(payslip.getId(), user.getId(), employeeName,
+                payslip.getMonth(), payslip.getYear(), payslip.getFinalSalary(), payslip.getGeneratedAt()));
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHighStressRecorded(HighStressRecordedEvent event) {
+        if (!clients.isEmpty()) {
+            publish("high-stress", event.getAlert());
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendanceMarked(AttendanceMarkedEvent event) {
+        if (!clients.isEmpty()) {
+            publish("attendance-marked", event);
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDashboardRefresh(DashboardRefreshEvent event) {
+        if (!clients.isEmpty()) {
+            publish("refresh", event);
+        }
+    }
+    
+    private void publish(String type, Object payload) {
+        // Runs on the thread that committed the change, which must never fail because of it
+        try {
+            String json = objectMapper.writeValueAsString(payload);
+            if (outbound.offer(new OutboundEvent(eventIds.incrementAndGet(), type, json))) {
+                meterRegistry.counter("dashboard.events.published", "type", type).increment();
+            } else {
+                drops.increment();
+            }
+        } catch (Exception e) {
+            logger.warn("Could not publish {} dashboard event: {}", type, e.getMessage());
+        }
+    }
+    
+    private void publishLoop() {
+        long heartbeatMillis = heartbeatInterval.toMillis();
+        while (!Thread.currentThread().isInterrupted()) {
+            OutboundEvent event;
+            try {
+                event = outbound.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            for (Client client : clients) {
+                if (client.buffer.offer(event == null ? HEARTBEAT : event)) {
+                    schedule(client);
+                } else {
+                    evict(client);
+                }
+            }
+        }
+    }
+    
+    private void schedule(Client client) {
+        if (client.draining.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(client));
+            } catch (RejectedExecutionException e) {
+                client.draining.set(false);
+                evict(client);
+            }
+        }
+    }
+    
+    private void drain(Client client) {
+        try {
+            do {
+                OutboundEvent event;
+                while (!client.evicted && (event = client.buffer.poll()) != null) {
+                    client.emitter.send(event.toSse());
+                }
+                client.draining.set(false);
+                // Recheck, since an event offered just before the flag was cleared has no sender
+            } while (!client.evicted && !client.buffer.isEmpty() && client.draining.compareAndSet(false, true));
+        } catch (IOException | IllegalStateException e) {
+            // The dashboard disconnected; the emitter has already been completed
+            logger.debug("Dashboard event stream closed: {}", e.getMessage());
+            clients.remove(client);
+            client.draining.set(false);
+            return;
+        }
+        if (client.evicted) {
+            client.emitter.complete();
+        }
+    }
+    
+    private void evict(Client client) {
+        if (!clients.remove(client)) {
+            return;
+        }
+        client.evicted = true;
+        client.buffer.clear();
+        evictions.increment();
+        logger.info("Evicted a dashboard that fell {} events behind", clientBuffer);
+        // A sender still blocked on the slow connection completes the emitter when it returns
+        if (client.draining.compareAndSet(false, true)) {
+            try {
+                senders.execute(client.emitter::complete);
+            } catch (RejectedExecutionException e) {
+                client.emitter.complete();
+            }
+        }
+    }
+    
+    private static final class Client {
+        
+        private final SseEmitter emitter;
+        private final BlockingQueue<OutboundEvent> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean evicted;
+        
+        private Client(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+    
+    /**
+     * An event serialized once for every dashboard. A null type is a heartbeat comment.
+     */
+    private static final class OutboundEvent {
+        
+        private final long id;
+        private final String type;
+        private final String json;
+        
+        private OutboundEvent(long id, String type, String json) {
+            this.id = id;
+            this.type = type;
+            this.json = json;
+        }
+        
+        private SseEmitter.SseEventBuilder toSse() {
+            if (type == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event().id(Long.toString(id)).name(type).data(json, MediaType.APPLICATION_JSON);
+        }
+    }
+}
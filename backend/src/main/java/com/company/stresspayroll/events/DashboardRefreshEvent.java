@@ -0,0 +1,19 @@
+package com.company.stresspayroll.events;
+
+/**
+ * Published after a bulk change, such as a payroll run or an attendance import, that
+ * would be too many events to send one by one. Dashboards reload their data when they
+ * receive it. Sent to dashboards as is.
+ */
+public class DashboardRefreshEvent {
+    
+    private final String reason;
+    
+    public DashboardRefreshEvent(String reason) {
+        this.reason = reason;
+    }
+    
+    public String getReason() {
+        return reason;
+    }
+}
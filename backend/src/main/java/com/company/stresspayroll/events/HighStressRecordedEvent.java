@@ -0,0 +1,19 @@
+package com.company.stresspayroll.events;
+
+import com.company.stresspayroll.dto.HighStressAlert;
+
+/**
+ * Published when a stress record above the high-stress threshold is created or changed.
+ */
+public class HighStressRecordedEvent {
+    
+    private final HighStressAlert alert;
+    
+    public HighStressRecordedEvent(HighStressAlert alert) {
+        this.alert = alert;
+    }
+    
+    public HighStressAlert getAlert() {
+        return alert;
+    }
+}
@@ -0,0 +1,20 @@
+package com.company.stresspayroll.events;
+
+import com.company.stresspayroll.model.Payslip;
+
+/**
+ * Published when a single payslip is generated on demand. Payroll runs and recomputes
+ * publish one {@link DashboardRefreshEvent} instead of an event per payslip.
+ */
+public class PayslipGeneratedEvent {
+    
+    private final Payslip payslip;
+    
+    public PayslipGeneratedEvent(Payslip payslip) {
+        this.payslip = payslip;
+    }
+    
+    public Payslip getPayslip() {
+        return payslip;
+    }
+}
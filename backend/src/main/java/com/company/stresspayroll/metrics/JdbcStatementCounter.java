@@ -0,0 +1,49 @@
+package com.company.stresspayroll.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread. Hibernate
+ * creates the inspector itself from {@code hibernate.session_factory.statement_inspector},
+ * so the count lives in a static thread-local that {@link RequestStatementMetricsFilter}
+ * opens and closes around each request. Statements issued through {@code JdbcTemplate}
+ * bypass Hibernate and are not counted.
+ */
+public class JdbcStatementCounter implements StatementInspector {
+    
+    private static final ThreadLocal<RequestStatements> CURRENT = new ThreadLocal<>();
+    
+    @Override
+    public String inspect(String sql) {
+        RequestStatements statements = CURRENT.get();
+        if (statements != null) {
+            statements.record(sql);
+        }
+        return sql;
+    }
+    
+    /**
+     * Starts counting on the current thread.
+     */
+    public static void start() {
+        CURRENT.set(new RequestStatements());
+    }
+    
+    /**
+     * Returns the statements counted on the current thread, or null when counting
+     * is not active.
+     */
+    public static RequestStatements current() {
+        return CURRENT.get();
+    }
+    
+    /**
+     * Stops counting on the current thread and returns the total, or -1 when
+     * counting was not active.
+     */
+    public static int stop() {
+        RequestStatements statements = CURRENT.get();
+        CURRENT.remove();
+        return statements == null ? -1 : statements.getCount();
+    }
+}
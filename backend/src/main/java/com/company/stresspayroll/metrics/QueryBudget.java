@@ -0,0 +1,36 @@
+package com.company.stresspayroll.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the most SQL statements a controller method may issue per request,
+ * including lazy loads while the response is serialized. A budget on the controller
+ * class applies to methods that do not declare their own. Budgets are checked by
+ * {@link QueryBudgetInterceptor} when {@code query-budget.mode} is {@code log} or
+ * {@code fail}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface QueryBudget {
+    
+    /**
+     * Budget for handlers whose statement count grows with the size of the request.
+     */
+    int UNBOUNDED = Integer.MAX_VALUE;
+    
+    /**
+     * Maximum number of statements per request.
+     */
+    int value();
+    
+    /**
+     * How often a single statement may repeat before it is reported as a likely
+     * N+1 query, or -1 to use {@code query-budget.repeat-threshold}.
+     */
+    int maxRepeats() default -1;
+}
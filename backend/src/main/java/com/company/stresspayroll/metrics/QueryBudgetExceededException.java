@@ -0,0 +1,12 @@
+package com.company.stresspayroll.metrics;
+
+/**
+ * Thrown from the statement that takes a handler over its {@link QueryBudget} when
+ * {@code query-budget.mode=fail}, so the offending query shows up in the stack trace.
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+    
+    public QueryBudgetExceededException(String handler, int budget) {
+        super(handler + " exceeded its query budget of " + budget + " SQL statements");
+    }
+}
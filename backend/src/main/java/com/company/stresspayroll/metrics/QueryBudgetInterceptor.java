@@ -0,0 +1,86 @@
+package com.company.stresspayroll.metrics;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Checks each controller method against its {@link QueryBudget} and flags statements
+ * that repeat within one request, the usual sign of an N+1 query.
+ * <p>
+ * With {@code query-budget.mode=log} violations are logged as warnings. With
+ * {@code fail} the statement that exceeds the budget throws
+ * {@link QueryBudgetExceededException}, which fails the request. The default,
+ * {@code off}, only keeps the per-request statement count.
+ */
+@Component
+public class QueryBudgetInterceptor implements HandlerInterceptor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(QueryBudgetInterceptor.class);
+    
+    private static final int MAX_LOGGED_SQL_LENGTH = 300;
+    
+    public enum Mode { OFF, LOG, FAIL }
+    
+    @Value("${query-budget.mode:off}")
+    private Mode mode;
+    
+    @Value("${query-budget.repeat-threshold:5}")
+    private int repeatThreshold;
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestStatements statements = JdbcStatementCounter.current();
+        if (mode == Mode.OFF || statements == null || !(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        
+        HandlerMethod handlerMethod = (HandlerMethod) handler;
+        QueryBudget budget = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), QueryBudget.class);
+        if (budget == null) {
+            budget = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), QueryBudget.class);
+        }
+        String name = handlerMethod.getBeanType().getSimpleName() + "#" + handlerMethod.getMethod().getName();
+        int maxRepeats = budget == null || budget.maxRepeats() < 0 ? repeatThreshold : budget.maxRepeats();
+        statements.watch(name, budget == null ? -1 : budget.value(), maxRepeats, mode == Mode.FAIL);
+        return true;
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestStatements statements = JdbcStatementCounter.current();
+        if (statements == null || !statements.isWatched()) {
+            return;
+        }
+        
+        String handlerName = statements.getHandler();
+        int issued = statements.getHandlerCount();
+        if (statements.isBudgetExceeded()) {
+            logger.warn("{} {} ({}) issued {} SQL statements, over its query budget of {}",
+                    request.getMethod(), request.getRequestURI(), handlerName, issued, statements.getBudget());
+        } else {
+            logger.debug("{} {} ({}) issued {} SQL statements", request.getMethod(), request.getRequestURI(), handlerName, issued);
+        }
+        
+        List<Map.Entry<String, Integer>> repeated = statements.getRepeatedShapes();
+        for (Map.Entry<String, Integer> shape : repeated) {
+            logger.warn("{} ran the same statement {} times in one request, likely an N+1 query: {}",
+                    handlerName, shape.getValue(), abbreviate(shape.getKey()));
+        }
+    }
+    
+    private static String abbreviate(String sql) {
+        String singleLine = sql.replaceAll("\\s+", " ").trim();
+        return singleLine.length() <= MAX_LOGGED_SQL_LENGTH ? singleLine : singleLine.substring(0, MAX_LOGGED_SQL_LENGTH) + "...";
+    }
+}
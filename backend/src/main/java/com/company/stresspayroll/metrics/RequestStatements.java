@@ -0,0 +1,92 @@
+package com.company.stresspayroll.metrics;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The SQL statements issued while serving one request. Counting is always on; the
+ * statement text is only kept once {@link QueryBudgetInterceptor} starts watching
+ * the handler, so repeated shapes can be reported without cost in production.
+ */
+public class RequestStatements {
+    
+    private int count;
+    private String handler;
+    private int watchedFrom;
+    private int budget = -1;
+    private int repeatThreshold;
+    private boolean failOverBudget;
+    private boolean budgetExceeded;
+    private Map<String, Integer> shapes;
+    
+    void record(String sql) {
+        count++;
+        if (shapes == null) {
+            return;
+        }
+        // Hibernate binds every value as a parameter, so the SQL text is the statement shape
+        shapes.merge(sql, 1, Integer::sum);
+        if (budget >= 0 && !budgetExceeded && getHandlerCount() > budget) {
+            budgetExceeded = true;
+            if (failOverBudget) {
+                throw new QueryBudgetExceededException(handler, budget);
+            }
+        }
+    }
+    
+    /**
+     * Starts tracking statement shapes for a handler, with a budget of -1 when the
+     * handler declares none.
+     */
+    void watch(String handler, int budget, int repeatThreshold, boolean failOverBudget) {
+        this.handler = handler;
+        this.watchedFrom = count;
+        this.budget = budget;
+        this.repeatThreshold = repeatThreshold;
+        this.failOverBudget = failOverBudget;
+        this.shapes = new HashMap<>();
+    }
+    
+    public int getCount() {
+        return count;
+    }
+    
+    public boolean isWatched() {
+        return shapes != null;
+    }
+    
+    public String getHandler() {
+        return handler;
+    }
+    
+    /**
+     * Returns the statements issued since the handler started being watched.
+     */
+    public int getHandlerCount() {
+        return count - watchedFrom;
+    }
+    
+    public int getBudget() {
+        return budget;
+    }
+    
+    public boolean isBudgetExceeded() {
+        return budgetExceeded;
+    }
+    
+    /**
+     * Returns the statements that ran more often than the handler allows, most
+     * frequent first.
+     */
+    public List<Map.Entry<String, Integer>> getRepeatedShapes() {
+        if (shapes == null) {
+            return List.of();
+        }
+        return shapes.entrySet().stream()
+                .filter(entry -> entry.getValue() > repeatThreshold)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,115 @@
+package com.company.stresspayroll.model;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+/**
+ * A generated payslip whose inputs changed after it was generated. Attendance, stress
+ * record and compensation writes mark the employee's pay period in the same
+ * transaction, and a recompute rebuilds only the marked payslips.
+ * <p>
+ * Every mark of an already dirty period bumps {@code changes}, so a recompute only
+ * clears a mark if nothing marked it again while the payslip was being rebuilt.
+ */
+@Entity
+@Table(name = "dirty_pay_periods",
+       uniqueConstraints = @UniqueConstraint(name = "uk_dirty_pay_periods_period", columnNames = {"user_id", "period_year", "period_month"}))
+public class DirtyPayPeriod {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+    
+    @Column(name = "period_year", nullable = false)
+    private Integer periodYear;
+    
+    @Column(name = "period_month", nullable = false)
+    private Integer periodMonth;
+    
+    @Column(name = "changes", nullable = false)
+    private Long changes = 1L;
+    
+    /**
+     * Set when the employee's salary or paid leave allowance changed, so the recompute
+     * takes the base salary from the profile instead of keeping the payslip's.
+     */
+    @Column(name = "compensation_changed", nullable = false)
+    private Boolean compensationChanged = false;
+    
+    @Column(name = "marked_at")
+    private LocalDateTime markedAt;
+    
+    // Constructors
+    public DirtyPayPeriod() {}
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public User getUser() {
+        return user;
+    }
+    
+    public void setUser(User user) {
+        this.user = user;
+    }
+    
+    public Integer getPeriodYear() {
+        return periodYear;
+    }
+    
+    public void setPeriodYear(Integer periodYear) {
+        this.periodYear = periodYear;
+    }
+    
+    public Integer getPeriodMonth() {
+        return periodMonth;
+    }
+    
+    public void setPeriodMonth(Integer periodMonth) {
+        this.periodMonth = periodMonth;
+    }
+    
+    public Long getChanges() {
+        return changes;
+    }
+    
+    public void setChanges(Long changes) {
+        this.changes = changes;
+    }
+    
+    public Boolean getCompensationChanged() {
+        return compensationChanged;
+    }
+    
+    public void setCompensationChanged(Boolean compensationChanged) {
+        this.compensationChanged = compensationChanged;
+    }
+    
+    public LocalDateTime getMarkedAt() {
+        return markedAt;
+    }
+    
+    public void setMarkedAt(LocalDateTime markedAt) {
+        this.markedAt = markedAt;
+    }
+}
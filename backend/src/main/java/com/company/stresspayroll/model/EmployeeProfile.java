@@ -3,12 +3,14 @@ package com.company.stresspayroll.model;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.OneToOne;
 import javax.persistence.PrePersist;
@@ -17,14 +19,28 @@ import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
+import com.company.stresspayroll.config.EntityCacheConfig;
+
 @Entity
-@Table(name = "employee_profiles")
+@Table(name = "employee_profiles", indexes = {
+    @Index(name = "idx_employee_profiles_user", columnList = "user_id", unique = true),
+    @Index(name = "idx_employee_profiles_department_position", columnList = "department, position")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.EMPLOYEE_PROFILES_REGION)
+@NaturalIdCache(region = EntityCacheConfig.EMPLOYEE_PROFILES_BY_USER_REGION)
 public class EmployeeProfile {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    @NaturalId
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -0,0 +1,152 @@
+package com.company.stresspayroll.model;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+/**
+ * Precomputed dashboard counters for one calendar month. Attendance counts are per
+ * status for days in that month; employeeCount is the number of employees who
+ * registered in that month. The row for year 0 / month 0 holds all-time totals.
+ */
+@Entity
+@Table(name = "monthly_aggregates",
+       uniqueConstraints = @UniqueConstraint(name = "uk_monthly_aggregates_period", columnNames = {"period_year", "period_month"}))
+public class MonthlyAggregate {
+    
+    public static final int ALL_TIME = 0;
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "period_year", nullable = false)
+    private Integer periodYear;
+    
+    @Column(name = "period_month", nullable = false)
+    private Integer periodMonth;
+    
+    @Column(name = "present_count", nullable = false)
+    private Long presentCount = 0L;
+    
+    @Column(name = "paid_leave_count", nullable = false)
+    private Long paidLeaveCount = 0L;
+    
+    @Column(name = "unpaid_leave_count", nullable = false)
+    private Long unpaidLeaveCount = 0L;
+    
+    @Column(name = "employee_count", nullable = false)
+    private Long employeeCount = 0L;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    // Constructors
+    public MonthlyAggregate() {}
+    
+    public MonthlyAggregate(Integer periodYear, Integer periodMonth) {
+        this.periodYear = periodYear;
+        this.periodMonth = periodMonth;
+    }
+    
+    public boolean isAllTime() {
+        return periodYear == ALL_TIME && periodMonth == ALL_TIME;
+    }
+    
+    public long getTotalAttendance() {
+        return presentCount + paidLeaveCount + unpaidLeaveCount;
+    }
+    
+    public void addAttendance(Attendance.AttendanceStatus status, long delta) {
+        switch (status) {
+            case PRESENT:
+                presentCount += delta;
+                break;
+            case PAID_LEAVE:
+                paidLeaveCount += delta;
+                break;
+            case UNPAID_LEAVE:
+                unpaidLeaveCount += delta;
+                break;
+        }
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Integer getPeriodYear() {
+        return periodYear;
+    }
+    
+    public void setPeriodYear(Integer periodYear) {
+        this.periodYear = periodYear;
+    }
+    
+    public Integer getPeriodMonth() {
+        return periodMonth;
+    }
+    
+    public void setPeriodMonth(Integer periodMonth) {
+        this.periodMonth = periodMonth;
+    }
+    
+    public Long getPresentCount() {
+        return presentCount;
+    }
+    
+    public void setPresentCount(Long presentCount) {
+        this.presentCount = presentCount;
+    }
+    
+    public Long getPaidLeaveCount() {
+        return paidLeaveCount;
+    }
+    
+    public void setPaidLeaveCount(Long paidLeaveCount) {
+        this.paidLeaveCount = paidLeaveCount;
+    }
+    
+    public Long getUnpaidLeaveCount() {
+        return unpaidLeaveCount;
+    }
+    
+    public void setUnpaidLeaveCount(Long unpaidLeaveCount) {
+        this.unpaidLeaveCount = unpaidLeaveCount;
+    }
+    
+    public Long getEmployeeCount() {
+        return employeeCount;
+    }
+    
+    public void setEmployeeCount(Long employeeCount) {
+        this.employeeCount = employeeCount;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -9,15 +9,19 @@ import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.PrePersist;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 
 @Entity
-@Table(name = "payslips")
+@Table(name = "payslips",
+       indexes = @Index(name = "idx_payslips_period", columnList = "payslip_year, payslip_month"),
+       uniqueConstraints = @UniqueConstraint(name = "uk_payslips_period", columnNames = {"user_id", "payslip_month", "payslip_year"}))
 public class Payslip {
     
     @Id
@@ -45,6 +49,12 @@ public class Payslip {
     @Column(name = "unpaid_leave_deductions")
     private BigDecimal unpaidLeaveDeductions = BigDecimal.ZERO;
     
+    @Column(name = "overtime_pay")
+    private BigDecimal overtimePay = BigDecimal.ZERO;
+    
+    @Column(name = "stress_allowance")
+    private BigDecimal stressAllowance = BigDecimal.ZERO;
+    
     @NotNull
     @Column(name = "final_salary")
     private BigDecimal finalSalary;
@@ -52,6 +62,14 @@ public class Payslip {
     @Column(name = "generated_at")
     private LocalDateTime generatedAt;
     
+    /**
+     * Starts at 1 and goes up each time the payslip is recomputed; the replaced
+     * amounts are kept as {@link PayslipRevision}s.
+     */
+    @NotNull
+    @Column(name = "revision")
+    private Integer revision = 1;
+    
     @PrePersist
     protected void onCreate() {
         generatedAt = LocalDateTime.now();
@@ -118,6 +136,22 @@ public class Payslip {
         this.unpaidLeaveDeductions = unpaidLeaveDeductions;
     }
     
+    public BigDecimal getOvertimePay() {
+        return overtimePay;
+    }
+    
+    public void setOvertimePay(BigDecimal overtimePay) {
+        this.overtimePay = overtimePay;
+    }
+    
+    public BigDecimal getStressAllowance() {
+        return stressAllowance;
+    }
+    
+    public void setStressAllowance(BigDecimal stressAllowance) {
+        this.stressAllowance = stressAllowance;
+    }
+    
     public BigDecimal getFinalSalary() {
         return finalSalary;
     }
@@ -133,4 +167,12 @@ public class Payslip {
     public void setGeneratedAt(LocalDateTime generatedAt) {
         this.generatedAt = generatedAt;
     }
+    
+    public Integer getRevision() {
+        return revision;
+    }
+    
+    public void setRevision(Integer revision) {
+        this.revision = revision;
+    }
 }
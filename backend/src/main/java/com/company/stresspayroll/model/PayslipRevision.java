@@ -0,0 +1,141 @@
+package com.company.stresspayroll.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+/**
+ * The amounts of a payslip as they were before a recompute replaced them. Revision n
+ * holds what the payslip said while its own revision was n.
+ */
+@Entity
+@Table(name = "payslip_revisions",
+       uniqueConstraints = @UniqueConstraint(name = "uk_payslip_revisions_revision", columnNames = {"payslip_id", "revision"}))
+public class PayslipRevision {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "payslip_id", nullable = false)
+    private Payslip payslip;
+    
+    @Column(name = "revision", nullable = false)
+    private Integer revision;
+    
+    @Column(name = "base_salary")
+    private BigDecimal baseSalary;
+    
+    @Column(name = "unpaid_leave_deductions")
+    private BigDecimal unpaidLeaveDeductions;
+    
+    @Column(name = "overtime_pay")
+    private BigDecimal overtimePay;
+    
+    @Column(name = "stress_allowance")
+    private BigDecimal stressAllowance;
+    
+    @Column(name = "final_salary")
+    private BigDecimal finalSalary;
+    
+    @Column(name = "generated_at")
+    private LocalDateTime generatedAt;
+    
+    @Column(name = "replaced_at")
+    private LocalDateTime replacedAt;
+    
+    // Constructors
+    public PayslipRevision() {}
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Payslip getPayslip() {
+        return payslip;
+    }
+    
+    public void setPayslip(Payslip payslip) {
+        this.payslip = payslip;
+    }
+    
+    public Integer getRevision() {
+        return revision;
+    }
+    
+    public void setRevision(Integer revision) {
+        this.revision = revision;
+    }
+    
+    public BigDecimal getBaseSalary() {
+        return baseSalary;
+    }
+    
+    public void setBaseSalary(BigDecimal baseSalary) {
+        this.baseSalary = baseSalary;
+    }
+    
+    public BigDecimal getUnpaidLeaveDeductions() {
+        return unpaidLeaveDeductions;
+    }
+    
+    public void setUnpaidLeaveDeductions(BigDecimal unpaidLeaveDeductions) {
+        this.unpaidLeaveDeductions = unpaidLeaveDeductions;
+    }
+    
+    public BigDecimal getOvertimePay() {
+        return overtimePay;
+    }
+    
+    public void setOvertimePay(BigDecimal overtimePay) {
+        this.overtimePay = overtimePay;
+    }
+    
+    public BigDecimal getStressAllowance() {
+        return stressAllowance;
+    }
+    
+    public void setStressAllowance(BigDecimal stressAllowance) {
+        this.stressAllowance = stressAllowance;
+    }
+    
+    public BigDecimal getFinalSalary() {
+        return finalSalary;
+    }
+    
+    public void setFinalSalary(BigDecimal finalSalary) {
+        this.finalSalary = finalSalary;
+    }
+    
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+    
+    public void setGeneratedAt(LocalDateTime generatedAt) {
+        this.generatedAt = generatedAt;
+    }
+    
+    public LocalDateTime getReplacedAt() {
+        return replacedAt;
+    }
+    
+    public void setReplacedAt(LocalDateTime replacedAt) {
+        this.replacedAt = replacedAt;
+    }
+}
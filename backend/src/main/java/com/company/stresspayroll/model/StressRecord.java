@@ -9,17 +9,21 @@ import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.PrePersist;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 
 @Entity
-@Table(name = "stress_records")
+@Table(name = "stress_records",
+       indexes = @Index(name = "idx_stress_records_level_id", columnList = "stress_level, id"),
+       uniqueConstraints = @UniqueConstraint(name = "uk_stress_records_period", columnNames = {"user_id", "record_month", "record_year"}))
 public class StressRecord {
     
     @Id
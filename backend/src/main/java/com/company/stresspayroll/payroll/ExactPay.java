@@ -0,0 +1,37 @@
+package com.company.stresspayroll.payroll;
+
+import java.math.BigDecimal;
+
+import com.company.stresspayroll.service.PayrollCalculator;
+
+/**
+ * Pay inputs and results for one employee whose base salary has too many digits for
+ * minor units in a {@code long}. {@link PayRule}s calculate these employees with the
+ * same formulas on BigDecimal, rounding HALF_UP to the cent at the same steps.
+ */
+public final class ExactPay {
+    
+    private static final BigDecimal ZERO = BigDecimal.valueOf(0, PayrollCalculator.MONEY_SCALE);
+    
+    final BigDecimal baseSalary;
+    final int paidLeavesAllowed;
+    final int totalLeaves;
+    final int overtimeHours;
+    final int stressLevel;
+    
+    BigDecimal unpaidLeaveDeductions = ZERO;
+    BigDecimal overtimePay = ZERO;
+    BigDecimal stressAllowance = ZERO;
+    
+    ExactPay(BigDecimal baseSalary, int paidLeavesAllowed, int totalLeaves, int overtimeHours, int stressLevel) {
+        this.baseSalary = baseSalary;
+        this.paidLeavesAllowed = paidLeavesAllowed;
+        this.totalLeaves = totalLeaves;
+        this.overtimeHours = overtimeHours;
+        this.stressLevel = stressLevel;
+    }
+    
+    BigDecimal getFinalSalary() {
+        return baseSalary.subtract(unpaidLeaveDeductions).add(overtimePay).add(stressAllowance);
+    }
+}
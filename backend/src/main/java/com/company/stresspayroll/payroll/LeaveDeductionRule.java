@@ -0,0 +1,52 @@
+package com.company.stresspayroll.payroll;
+
+import java.math.BigDecimal;
+
+import com.company.stresspayroll.service.PayrollCalculator;
+
+/**
+ * Deducts one day's pay for every leave day beyond the employee's paid allowance. The
+ * day rate is the base salary over the working days per month, rounded HALF_UP to the
+ * cent, which with 22 days is exactly the original payslip calculation.
+ */
+public final class LeaveDeductionRule implements PayRule {
+    
+    private final int workingDaysPerMonth;
+    
+    public LeaveDeductionRule(int workingDaysPerMonth) {
+        this.workingDaysPerMonth = workingDaysPerMonth;
+    }
+    
+    @Override
+    public void apply(PayBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.isFailed(i) || batch.isExact(i)) {
+                continue;
+            }
+            int unpaidLeaves = Math.max(0, batch.totalLeaves[i] - batch.paidLeavesAllowed[i]);
+            if (unpaidLeaves == 0) {
+                continue;
+            }
+            try {
+                long dailySalary = PayrollCalculator.dailySalaryMinor(batch.baseSalary[i], workingDaysPerMonth);
+                batch.unpaidLeaveDeductions[i] = Math.multiplyExact(dailySalary, unpaidLeaves);
+            } catch (ArithmeticException e) {
+                batch.fail(i, "Leave deduction overflows for " + unpaidLeaves + " unpaid leave days");
+            }
+        }
+    }
+    
+    @Override
+    public void applyExact(ExactPay pay) {
+        int unpaidLeaves = Math.max(0, pay.totalLeaves - pay.paidLeavesAllowed);
+        if (unpaidLeaves > 0) {
+            pay.unpaidLeaveDeductions = PayrollCalculator.dailySalary(pay.baseSalary, workingDaysPerMonth)
+                    .multiply(BigDecimal.valueOf(unpaidLeaves));
+        }
+    }
+    
+    @Override
+    public String describe() {
+        return "leave deduction: one day's pay per unpaid leave day, " + workingDaysPerMonth + " working days per month";
+    }
+}
@@ -0,0 +1,73 @@
+package com.company.stresspayroll.payroll;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import com.company.stresspayroll.service.PayrollCalculator;
+
+/**
+ * Pays the overtime hours on the month's stress record beyond a threshold, up to a
+ * cap, at the hourly rate times a multiplier. The hourly rate is the day rate over
+ * the hours in a working day, and the product is rounded HALF_UP to the cent once.
+ */
+public final class OvertimePayRule implements PayRule {
+    
+    private final int workingDaysPerMonth;
+    private final int hoursPerDay;
+    private final int thresholdHours;
+    private final int maxPaidHours;
+    private final long multiplierBasisPoints;
+    private final long divisor;
+    
+    public OvertimePayRule(int workingDaysPerMonth, int hoursPerDay, int thresholdHours, int maxPaidHours,
+                           long multiplierBasisPoints) {
+        this.workingDaysPerMonth = workingDaysPerMonth;
+        this.hoursPerDay = hoursPerDay;
+        this.thresholdHours = thresholdHours;
+        this.maxPaidHours = maxPaidHours;
+        this.multiplierBasisPoints = multiplierBasisPoints;
+        this.divisor = hoursPerDay * PayRules.BASIS_POINTS;
+    }
+    
+    @Override
+    public void apply(PayBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.isFailed(i) || batch.isExact(i)) {
+                continue;
+            }
+            int paidHours = Math.min(maxPaidHours, batch.overtimeHours[i] - thresholdHours);
+            if (paidHours <= 0) {
+                continue;
+            }
+            try {
+                long dailySalary = PayrollCalculator.dailySalaryMinor(batch.baseSalary[i], workingDaysPerMonth);
+                batch.overtimePay[i] = PayrollCalculator.multiplyDivideHalfUp(dailySalary,
+                        Math.multiplyExact(paidHours, multiplierBasisPoints), divisor);
+            } catch (ArithmeticException e) {
+                batch.fail(i, "Overtime pay overflows for " + paidHours + " paid hours");
+            }
+        }
+    }
+    
+    @Override
+    public void applyExact(ExactPay pay) {
+        int paidHours = Math.min(maxPaidHours, pay.overtimeHours - thresholdHours);
+        if (paidHours > 0) {
+            pay.overtimePay = PayrollCalculator.dailySalary(pay.baseSalary, workingDaysPerMonth)
+                    .multiply(BigDecimal.valueOf(paidHours))
+                    .multiply(BigDecimal.valueOf(multiplierBasisPoints))
+                    .divide(BigDecimal.valueOf(divisor), PayrollCalculator.MONEY_SCALE, RoundingMode.HALF_UP);
+        }
+    }
+    
+    @Override
+    public boolean usesStressRecords() {
+        return true;
+    }
+    
+    @Override
+    public String describe() {
+        return "overtime pay: hours over " + thresholdHours + ", at most " + maxPaidHours + ", at "
+                + multiplierBasisPoints / (double) PayRules.BASIS_POINTS + "x the hourly rate, " + hoursPerDay + " hours per day";
+    }
+}
@@ -0,0 +1,155 @@
+package com.company.stresspayroll.payroll;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.company.stresspayroll.model.Payslip;
+import com.company.stresspayroll.model.User;
+import com.company.stresspayroll.service.PayrollCalculator;
+
+/**
+ * Pay inputs and results for a batch of employees, one array slot per employee and
+ * all amounts in minor units. {@link PayRule}s read and write the arrays directly, so
+ * evaluating a batch allocates nothing per employee.
+ * <p>
+ * Base salaries are rounded HALF_UP to the cent, the scale they are stored with. The
+ * rare employee whose salary has too many digits for minor units is held as an
+ * {@link ExactPay} instead and calculated by the rules on BigDecimal.
+ * <p>
+ * An employee whose pay cannot be calculated, for example because an amount would
+ * overflow, is marked failed with a reason and skipped by the remaining rules.
+ */
+public final class PayBatch {
+    
+    final long[] baseSalary;
+    final int[] paidLeavesAllowed;
+    final int[] totalLeaves;
+    final int[] overtimeHours;
+    final int[] stressLevel;
+    
+    final long[] unpaidLeaveDeductions;
+    final long[] overtimePay;
+    final long[] stressAllowance;
+    private final String[] failures;
+    private final ExactPay[] exact;
+    
+    private int size;
+    
+    public PayBatch(int capacity) {
+        baseSalary = new long[capacity];
+        paidLeavesAllowed = new int[capacity];
+        totalLeaves = new int[capacity];
+        overtimeHours = new int[capacity];
+        stressLevel = new int[capacity];
+        unpaidLeaveDeductions = new long[capacity];
+        overtimePay = new long[capacity];
+        stressAllowance = new long[capacity];
+        failures = new String[capacity];
+        exact = new ExactPay[capacity];
+    }
+    
+    /**
+     * Adds an employee and returns their index in the batch. Pass zero overtime hours
+     * and stress level when the employee has no stress record for the month.
+     */
+    public int add(BigDecimal baseSalary, int paidLeavesAllowed, long totalLeaves, int overtimeHours, int stressLevel) {
+        if (size == failures.length) {
+            throw new IllegalStateException("Pay batch is full at " + size + " employees");
+        }
+        Objects.requireNonNull(baseSalary, "Base salary is missing");
+        int i = size++;
+        this.paidLeavesAllowed[i] = paidLeavesAllowed;
+        this.totalLeaves[i] = (int) Math.min(totalLeaves, Integer.MAX_VALUE);
+        this.overtimeHours[i] = overtimeHours;
+        this.stressLevel[i] = stressLevel;
+        // Returns the same instance when the salary already has two decimals
+        BigDecimal roundedSalary = baseSalary.setScale(PayrollCalculator.MONEY_SCALE, RoundingMode.HALF_UP);
+        if (PayrollCalculator.fitsMinorUnits(roundedSalary)) {
+            this.baseSalary[i] = PayrollCalculator.toMinorUnits(roundedSalary);
+        } else {
+            this.baseSalary[i] = 0;
+            exact[i] = new ExactPay(roundedSalary, paidLeavesAllowed, this.totalLeaves[i], overtimeHours, stressLevel);
+        }
+        return i;
+    }
+    
+    public void clear() {
+        Arrays.fill(unpaidLeaveDeductions, 0, size, 0L);
+        Arrays.fill(overtimePay, 0, size, 0L);
+        Arrays.fill(stressAllowance, 0, size, 0L);
+        Arrays.fill(failures, 0, size, null);
+        Arrays.fill(exact, 0, size, null);
+        size = 0;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    void fail(int i, String reason) {
+        failures[i] = reason;
+    }
+    
+    public boolean isFailed(int i) {
+        return failures[i] != null;
+    }
+    
+    public String getFailure(int i) {
+        return failures[i];
+    }
+    
+    /**
+     * Whether the employee is calculated on BigDecimal. The minor unit getters below
+     * do not apply to them.
+     */
+    public boolean isExact(int i) {
+        return exact[i] != null;
+    }
+    
+    ExactPay getExact(int i) {
+        return exact[i];
+    }
+    
+    public long getUnpaidLeaveDeductions(int i) {
+        return unpaidLeaveDeductions[i];
+    }
+    
+    public long getOvertimePay(int i) {
+        return overtimePay[i];
+    }
+    
+    public long getStressAllowance(int i) {
+        return stressAllowance[i];
+    }
+    
+    public long getFinalSalary(int i) {
+        return Math.addExact(Math.subtractExact(baseSalary[i], unpaidLeaveDeductions[i]),
+                Math.addExact(overtimePay[i], stressAllowance[i]));
+    }
+    
+    /**
+     * Builds the payslip for a calculated employee, converting amounts to BigDecimal.
+     * The base salary is rounded to the cent like the one the batch calculated with.
+     */
+    public Payslip toPayslip(int i, User user, Integer month, Integer year, BigDecimal baseSalary) {
+        if (isFailed(i)) {
+            throw new IllegalStateException(failures[i]);
+        }
+        BigDecimal roundedSalary = baseSalary.setScale(PayrollCalculator.MONEY_SCALE, RoundingMode.HALF_UP);
+        ExactPay pay = exact[i];
+        if (pay != null) {
+            Payslip payslip = new Payslip(user, month, year, roundedSalary, pay.unpaidLeaveDeductions, pay.getFinalSalary());
+            payslip.setOvertimePay(pay.overtimePay);
+            payslip.setStressAllowance(pay.stressAllowance);
+            return payslip;
+        }
+        Payslip payslip = new Payslip(user, month, year, roundedSalary,
+                PayrollCalculator.fromMinorUnits(unpaidLeaveDeductions[i]),
+                PayrollCalculator.fromMinorUnits(getFinalSalary(i)));
+        payslip.setOvertimePay(PayrollCalculator.fromMinorUnits(overtimePay[i]));
+        payslip.setStressAllowance(PayrollCalculator.fromMinorUnits(stressAllowance[i]));
+        return payslip;
+    }
+}
@@ -0,0 +1,30 @@
+package com.company.stresspayroll.payroll;
+
+/**
+ * One step of the pay calculation. Rules are built once from the pay rules file with
+ * every parameter resolved to a primitive, and then applied to whole batches: each
+ * rule loops over the batch arrays and writes its own output column.
+ */
+public interface PayRule {
+    
+    /**
+     * Applies the rule to every employee in the batch that has not failed.
+     */
+    void apply(PayBatch batch);
+    
+    /**
+     * Applies the rule on BigDecimal to one employee whose salary is too large for the
+     * batch arrays. The result must equal what {@link #apply} would calculate.
+     */
+    void applyExact(ExactPay pay);
+    
+    /**
+     * Whether the rule reads overtime hours or stress levels, so callers only load
+     * stress records when some rule needs them.
+     */
+    default boolean usesStressRecords() {
+        return false;
+    }
+    
+    String describe();
+}
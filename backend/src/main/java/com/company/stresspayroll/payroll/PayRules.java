@@ -0,0 +1,205 @@
+package com.company.stresspayroll.payroll;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import com.company.stresspayroll.model.EmployeeProfile;
+import com.company.stresspayroll.model.Payslip;
+import com.company.stresspayroll.model.StressRecord;
+import com.company.stresspayroll.model.User;
+
+/**
+ * The pay calculation, compiled once from the pay rules file into an immutable list of
+ * {@link PayRule}s. Every setting is parsed and validated up front, so evaluating a
+ * batch only runs the rules' array loops.
+ * <p>
+ * The final salary is the base salary minus unpaid leave deductions, plus overtime pay
+ * and the stress allowance. With the default settings only leave deductions apply, at
+ * 22 working days per month.
+ */
+public final class PayRules {
+    
+    public static final long BASIS_POINTS = 10_000;
+    
+    private static final Set<String> SETTINGS = new HashSet<>(Arrays.asList(
+            "working-days-per-month",
+            "leave-deduction.enabled",
+            "overtime.enabled", "overtime.hours-per-day", "overtime.threshold-hours", "overtime.max-hours", "overtime.multiplier",
+            "stress-allowance.enabled", "stress-allowance.tiers"));
+    
+    private final PayRule[] rules;
+    private final boolean usesStressRecords;
+    
+    private PayRules(List<PayRule> rules) {
+        this.rules = rules.toArray(new PayRule[0]);
+        this.usesStressRecords = rules.stream().anyMatch(PayRule::usesStressRecords);
+    }
+    
+    public static PayRules of(PayRule... rules) {
+        return new PayRules(Arrays.asList(rules));
+    }
+    
+    /**
+     * Compiles the rules from their settings. Missing settings take their defaults;
+     * unknown or invalid ones fail with an {@link IllegalArgumentException} naming the
+     * setting.
+     */
+    public static PayRules compile(Properties settings) {
+        Set<String> unknown = new TreeSet<>(settings.stringPropertyNames());
+        unknown.removeAll(SETTINGS);
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown pay rule settings " + unknown);
+        }
+        
+        int workingDaysPerMonth = intSetting(settings, "working-days-per-month", 22, 1);
+        List<PayRule> rules = new ArrayList<>();
+        if (booleanSetting(settings, "leave-deduction.enabled", true)) {
+            rules.add(new LeaveDeductionRule(workingDaysPerMonth));
+        }
+        if (booleanSetting(settings, "overtime.enabled", false)) {
+            rules.add(new OvertimePayRule(workingDaysPerMonth,
+                    intSetting(settings, "overtime.hours-per-day", 8, 1),
+                    intSetting(settings, "overtime.threshold-hours", 0, 0),
+                    intSetting(settings, "overtime.max-hours", 100, 0),
+                    fixedPointSetting(settings, "overtime.multiplier", "1.5", 4)));
+        }
+        if (booleanSetting(settings, "stress-allowance.enabled", false)) {
+            rules.add(new StressAllowanceRule(stressTiers(settings.getProperty("stress-allowance.tiers", ""))));
+        }
+        return new PayRules(rules);
+    }
+    
+    public void evaluate(PayBatch batch) {
+        for (PayRule rule : rules) {
+            rule.apply(batch);
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            ExactPay pay = batch.getExact(i);
+            if (pay != null) {
+                for (PayRule rule : rules) {
+                    rule.applyExact(pay);
+                }
+            }
+        }
+    }
+    
+    public boolean usesStressRecords() {
+        return usesStressRecords;
+    }
+    
+    public List<String> describe() {
+        List<String> descriptions = new ArrayList<>(rules.length);
+        for (PayRule rule : rules) {
+            descriptions.add(rule.describe());
+        }
+        return Collections.unmodifiableList(descriptions);
+    }
+    
+    /**
+     * Calculates a single payslip. Pass null when the employee has no stress record
+     * for the month. Throws {@link IllegalStateException} if the pay cannot be
+     * calculated.
+     */
+    public Payslip calculatePayslip(User user, Integer month, Integer year, EmployeeProfile profile,
+                                    long totalLeaves, StressRecord stressRecord) {
+        PayBatch batch = new PayBatch(1);
+        batch.add(profile.getBaseSalary(), profile.getPaidLeavesPerMonth(), totalLeaves,
+                stressRecord == null || stressRecord.getOvertimeHours() == null ? 0 : stressRecord.getOvertimeHours(),
+                stressRecord == null || stressRecord.getStressLevel() == null ? 0 : stressRecord.getStressLevel());
+        evaluate(batch);
+        return batch.toPayslip(0, user, month, year, profile.getBaseSalary());
+    }
+    
+    private static boolean booleanSetting(Properties settings, String name, boolean defaultValue) {
+        String value = settings.getProperty(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        value = value.trim();
+        if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+            throw new IllegalArgumentException(name + " must be true or false, was '" + value + "'");
+        }
+        return Boolean.parseBoolean(value);
+    }
+    
+    private static int intSetting(Properties settings, String name, int defaultValue, int min) {
+        String value = settings.getProperty(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed < min) {
+                throw new IllegalArgumentException(name + " must be at least " + min + ", was " + parsed);
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a whole number, was '" + value + "'");
+        }
+    }
+    
+    /**
+     * Parses a non-negative decimal into an integer with the given number of implied
+     * decimal places, e.g. 1.5 with 4 places is 15000 basis points.
+     */
+    private static long fixedPointSetting(Properties settings, String name, String defaultValue, int places) {
+        return fixedPoint(name, settings.getProperty(name, defaultValue), places);
+    }
+    
+    private static long fixedPoint(String name, String value, int places) {
+        try {
+            BigDecimal parsed = new BigDecimal(value.trim());
+            if (parsed.signum() < 0) {
+                throw new IllegalArgumentException(name + " must not be negative, was " + value.trim());
+            }
+            return parsed.movePointRight(places).longValueExact();
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number, was '" + value + "'");
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(name + " allows at most " + places + " decimal places, was " + value.trim());
+        }
+    }
+    
+    /**
+     * Compiles {@code level:percent} pairs into basis points for every stress level.
+     * Each tier applies from its level up to the next tier.
+     */
+    private static long[] stressTiers(String tiers) {
+        TreeMap<Integer, Long> basisPointsFromLevel = new TreeMap<>();
+        for (String tier : tiers.split(",")) {
+            if (tier.isBlank()) {
+                continue;
+            }
+            String[] parts = tier.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("stress-allowance.tiers entries must be level:percent, was '" + tier.trim() + "'");
+            }
+            int level;
+            try {
+                level = Integer.parseInt(parts[0].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("stress-allowance.tiers level must be a whole number, was '" + parts[0].trim() + "'");
+            }
+            if (level < 1 || level > StressAllowanceRule.MAX_STRESS_LEVEL) {
+                throw new IllegalArgumentException("stress-allowance.tiers level must be 1 to "
+                        + StressAllowanceRule.MAX_STRESS_LEVEL + ", was " + level);
+            }
+            basisPointsFromLevel.put(level, fixedPoint("stress-allowance.tiers percent", parts[1], 2));
+        }
+        
+        long[] basisPointsByLevel = new long[StressAllowanceRule.MAX_STRESS_LEVEL + 1];
+        for (int level = 0; level < basisPointsByLevel.length; level++) {
+            Integer tier = basisPointsFromLevel.floorKey(level);
+            basisPointsByLevel[level] = tier == null ? 0 : basisPointsFromLevel.get(tier);
+        }
+        return basisPointsByLevel;
+    }
+}
@@ -0,0 +1,76 @@
+package com.company.stresspayroll.payroll;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import com.company.stresspayroll.service.PayrollCalculator;
+
+/**
+ * Adds a percentage of the base salary depending on the stress level of the month's
+ * stress record. The tiers are compiled into a table indexed by stress level, so an
+ * employee costs one array read and one multiplication.
+ */
+public final class StressAllowanceRule implements PayRule {
+    
+    public static final int MAX_STRESS_LEVEL = 10;
+    
+    private final long[] basisPointsByLevel;
+    
+    /**
+     * @param basisPointsByLevel allowance in hundredths of a percent for stress levels
+     *                           0 to {@link #MAX_STRESS_LEVEL}
+     */
+    public StressAllowanceRule(long[] basisPointsByLevel) {
+        if (basisPointsByLevel.length != MAX_STRESS_LEVEL + 1) {
+            throw new IllegalArgumentException("Expected an allowance for each stress level from 0 to " + MAX_STRESS_LEVEL);
+        }
+        this.basisPointsByLevel = basisPointsByLevel.clone();
+    }
+    
+    @Override
+    public void apply(PayBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.isFailed(i) || batch.isExact(i)) {
+                continue;
+            }
+            long basisPoints = basisPointsByLevel[Math.max(0, Math.min(MAX_STRESS_LEVEL, batch.stressLevel[i]))];
+            if (basisPoints == 0) {
+                continue;
+            }
+            try {
+                batch.stressAllowance[i] = PayrollCalculator.multiplyDivideHalfUp(batch.baseSalary[i], basisPoints,
+                        PayRules.BASIS_POINTS);
+            } catch (ArithmeticException e) {
+                batch.fail(i, "Stress allowance overflows");
+            }
+        }
+    }
+    
+    @Override
+    public void applyExact(ExactPay pay) {
+        long basisPoints = basisPointsByLevel[Math.max(0, Math.min(MAX_STRESS_LEVEL, pay.stressLevel))];
+        if (basisPoints != 0) {
+            pay.stressAllowance = pay.baseSalary.multiply(BigDecimal.valueOf(basisPoints))
+                    .divide(BigDecimal.valueOf(PayRules.BASIS_POINTS), PayrollCalculator.MONEY_SCALE, RoundingMode.HALF_UP);
+        }
+    }
+    
+    @Override
+    public boolean usesStressRecords() {
+        return true;
+    }
+    
+    @Override
+    public String describe() {
+        StringBuilder tiers = new StringBuilder("stress allowance:");
+        long previous = 0;
+        for (int level = 0; level <= MAX_STRESS_LEVEL; level++) {
+            if (basisPointsByLevel[level] != previous) {
+                tiers.append(" level ").append(level).append("+ ")
+                     .append(basisPointsByLevel[level] / 100.0).append('%');
+                previous = basisPointsByLevel[level];
+            }
+        }
+        return tiers.toString();
+    }
+}
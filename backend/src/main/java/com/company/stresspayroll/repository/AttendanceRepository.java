@@ -1,13 +1,16 @@
 package com.company.stresspayroll.repository;
 
+import com.company.stresspayroll.dto.AttendanceEntry;
 import com.company.stresspayroll.model.Attendance;
 import com.company.stresspayroll.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -23,11 +26,22 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
     @Query("SELECT COUNT(a) FROM Attendance a WHERE a.user = :user AND a.date BETWEEN :startDate AND :endDate AND a.status IN ('PAID_LEAVE', 'UNPAID_LEAVE')")
     long countTotalLeavesByUserAndDateRange(@Param("user") User user, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
     
-    @Query("SELECT a FROM Attendance a WHERE a.user = :user AND EXTRACT(MONTH FROM a.date) = :month AND EXTRACT(YEAR FROM a.date) = :year")
-    List<Attendance> findByUserAndMonthAndYear(@Param("user") User user, @Param("month") Integer month, @Param("year") Integer year);
+    @Query("SELECT a.user.id, COUNT(a) FROM Attendance a WHERE a.user.id IN :userIds AND a.date BETWEEN :startDate AND :endDate AND a.status IN ('PAID_LEAVE', 'UNPAID_LEAVE') GROUP BY a.user.id")
+    List<Object[]> countTotalLeavesByUserIdsAndDateRange(@Param("userIds") Collection<Long> userIds, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
     
     List<Attendance> findByUserAndDateAfterOrderByDateDesc(User user, LocalDate date);
     
+    @Query("SELECT new com.company.stresspayroll.dto.AttendanceEntry(a.id, a.date, a.status, a.createdAt) "
+         + "FROM Attendance a WHERE a.user = :user AND a.date BETWEEN :startDate AND :endDate ORDER BY a.date DESC")
+    @Transactional(readOnly = true)
+    List<AttendanceEntry> findEntriesByUserAndDateBetween(@Param("user") User user, @Param("startDate") LocalDate startDate,
+                                                          @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT new com.company.stresspayroll.dto.AttendanceEntry(a.id, a.date, a.status, a.createdAt) "
+         + "FROM Attendance a WHERE a.user = :user AND a.date > :date ORDER BY a.date DESC")
+    @Transactional(readOnly = true)
+    List<AttendanceEntry> findEntriesByUserAndDateAfter(@Param("user") User user, @Param("date") LocalDate date);
+    
     boolean existsByUserAndDate(User user, LocalDate date);
     
     @Query("SELECT COUNT(a) FROM Attendance a WHERE EXTRACT(MONTH FROM a.date) = :month AND EXTRACT(YEAR FROM a.date) = :year")
@@ -35,4 +49,7 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
     
     @Query("SELECT COUNT(a) FROM Attendance a WHERE a.status = :status AND EXTRACT(MONTH FROM a.date) = :month AND EXTRACT(YEAR FROM a.date) = :year")
     long countByStatusAndMonthAndYear(@Param("status") Attendance.AttendanceStatus status, @Param("month") Integer month, @Param("year") Integer year);
+    
+    @Query("SELECT EXTRACT(YEAR FROM a.date), EXTRACT(MONTH FROM a.date), a.status, COUNT(a) FROM Attendance a GROUP BY EXTRACT(YEAR FROM a.date), EXTRACT(MONTH FROM a.date), a.status")
+    List<Object[]> countGroupedByMonthAndStatus();
 }
@@ -0,0 +1,22 @@
+package com.company.stresspayroll.repository;
+
+import com.company.stresspayroll.model.DirtyPayPeriod;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DirtyPayPeriodRepository extends JpaRepository<DirtyPayPeriod, Long> {
+    
+    /**
+     * Keyset page of dirty pay periods as [id, userId, year, month, changes,
+     * compensationChanged] rows. Pass the last id of the previous page, or 0.
+     */
+    @Query("SELECT d.id, d.user.id, d.periodYear, d.periodMonth, d.changes, d.compensationChanged FROM DirtyPayPeriod d "
+         + "WHERE d.id > :afterId ORDER BY d.id")
+    List<Object[]> findChunkAfterId(@Param("afterId") Long afterId, Pageable pageable);
+}
@@ -2,15 +2,28 @@ package com.company.stresspayroll.repository;
 
 import com.company.stresspayroll.model.EmployeeProfile;
 import com.company.stresspayroll.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface EmployeeProfileRepository extends JpaRepository<EmployeeProfile, Long> {
+public interface EmployeeProfileRepository extends JpaRepository<EmployeeProfile, Long>, EmployeeProfileRepositoryCustom {
     
     Optional<EmployeeProfile> findByUser(User user);
     
     Optional<EmployeeProfile> findByUserId(Long userId);
+    
+    long countByUserRole(User.Role role);
+    
+    @Query("SELECT p FROM EmployeeProfile p JOIN FETCH p.user u WHERE u.role = :role AND u.id > :afterUserId ORDER BY u.id")
+    List<EmployeeProfile> findChunkByRoleAfterUserId(@Param("role") User.Role role, @Param("afterUserId") Long afterUserId, Pageable pageable);
+    
+    @Query("SELECT p.user.id, p.baseSalary, p.paidLeavesPerMonth FROM EmployeeProfile p WHERE p.user.id IN :userIds")
+    List<Object[]> findPayInputsByUserIds(@Param("userIds") Collection<Long> userIds);
 }
@@ -0,0 +1,16 @@
+package com.company.stresspayroll.repository;
+
+import com.company.stresspayroll.model.EmployeeProfile;
+import com.company.stresspayroll.model.User;
+
+import java.util.Optional;
+
+public interface EmployeeProfileRepositoryCustom {
+    
+    /**
+     * Looks the profile up by its natural id, the user, so both the resolution and the
+     * profile itself are served from the second-level cache when present. The user
+     * may be an unloaded reference.
+     */
+    Optional<EmployeeProfile> findCachedByUser(User user);
+}
@@ -0,0 +1,22 @@
+package com.company.stresspayroll.repository;
+
+import com.company.stresspayroll.model.EmployeeProfile;
+import com.company.stresspayroll.model.User;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Optional;
+
+public class EmployeeProfileRepositoryImpl implements EmployeeProfileRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<EmployeeProfile> findCachedByUser(User user) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(EmployeeProfile.class).loadOptional(user);
+    }
+}
@@ -0,0 +1,154 @@
+package com.company.stresspayroll.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Single-statement upserts over JDBC in the dialect of the database in use.
+ * <p>
+ * The dialect is detected at startup: H2 gets {@code MERGE ... USING}, MySQL
+ * {@code INSERT ... ON DUPLICATE KEY UPDATE} and PostgreSQL {@code INSERT ... ON CONFLICT}.
+ * MySQL and PostgreSQL never reject these for a duplicate key, but H2 does when another
+ * transaction inserts the same key first. Statements that may be retried run under a
+ * savepoint, because a failed statement aborts the whole transaction on PostgreSQL;
+ * rolling back to the savepoint undoes only the failed statement and keeps the
+ * caller's transaction usable.
+ */
+@Component
+public class JdbcUpserts {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JdbcUpserts.class);
+    
+    public enum Dialect {
+        H2, MYSQL, POSTGRESQL
+    }
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Dialect dialect;
+    
+    @PostConstruct
+    public void init() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        if ("H2".equalsIgnoreCase(product)) {
+            dialect = Dialect.H2;
+        } else if ("MySQL".equalsIgnoreCase(product) || "MariaDB".equalsIgnoreCase(product)) {
+            dialect = Dialect.MYSQL;
+        } else if ("PostgreSQL".equalsIgnoreCase(product)) {
+            dialect = Dialect.POSTGRESQL;
+        } else {
+            throw new IllegalStateException("No upsert syntax for database " + product);
+        }
+        logger.info("Using {} upserts", dialect);
+    }
+    
+    public Dialect getDialect() {
+        return dialect;
+    }
+    
+    /**
+     * SQL that inserts one row of {@code columns}, bound in that order. If a row with the
+     * same {@code keyColumns} exists, the bound values of {@code incremented} are added to
+     * it and {@code replaced} are overwritten; its other columns keep their stored values.
+     */
+    public String upsertSql(String table, List<String> keyColumns, List<String> columns,
+                            List<String> incremented, List<String> replaced) {
+        String columnList = String.join(", ", columns);
+        String parameters = String.join(", ", Collections.nCopies(columns.size(), "?"));
+        List<String> assignments = new ArrayList<>();
+        switch (dialect) {
+            case MYSQL:
+                for (String column : incremented) {
+                    assignments.add(column + " = " + column + " + VALUES(" + column + ")");
+                }
+                for (String column : replaced) {
+                    assignments.add(column + " = VALUES(" + column + ")");
+                }
+                return "INSERT INTO " + table + " (" + columnList + ") VALUES (" + parameters + ") "
+                        + "ON DUPLICATE KEY UPDATE " + String.join(", ", assignments);
+            case POSTGRESQL:
+                for (String column : incremented) {
+                    assignments.add(column + " = t." + column + " + EXCLUDED." + column);
+                }
+                for (String column : replaced) {
+                    assignments.add(column + " = EXCLUDED." + column);
+                }
+                return "INSERT INTO " + table + " AS t (" + columnList + ") VALUES (" + parameters + ") "
+                        + "ON CONFLICT (" + String.join(", ", keyColumns) + ") DO UPDATE SET " + String.join(", ", assignments);
+            default:
+                List<String> keyMatches = new ArrayList<>();
+                for (String column : keyColumns) {
+                    keyMatches.add("t." + column + " = s." + column);
+                }
+                for (String column : incremented) {
+                    assignments.add(column + " = t." + column + " + s." + column);
+                }
+                for (String column : replaced) {
+                    assignments.add(column + " = s." + column);
+                }
+                List<String> sourceColumns = new ArrayList<>();
+                for (String column : columns) {
+                    sourceColumns.add("s." + column);
+                }
+                return "MERGE INTO " + table + " t USING (VALUES (" + parameters + ")) s(" + columnList + ") "
+                        + "ON " + String.join(" AND ", keyMatches) + " "
+                        + "WHEN MATCHED THEN UPDATE SET " + String.join(", ", assignments) + " "
+                        + "WHEN NOT MATCHED THEN INSERT (" + columnList + ") VALUES (" + String.join(", ", sourceColumns) + ")";
+        }
+    }
+    
+    /**
+     * Runs an upsert built by {@link #upsertSql}. If a concurrent transaction inserted the
+     * same key first, the statement waited for it to commit, so running it once more
+     * updates that row. Retries are counted in {@code jdbc.upsert.retries}.
+     */
+    public int upsert(String operation, String sql, Object... args) {
+        try {
+            return inSavepoint(() -> jdbcTemplate.update(sql, args));
+        } catch (DuplicateKeyException e) {
+            meterRegistry.counter("jdbc.upsert.retries", "operation", operation).increment();
+            return inSavepoint(() -> jdbcTemplate.update(sql, args));
+        }
+    }
+    
+    /**
+     * Runs work under a savepoint of the current transaction. If the work throws, its
+     * statements are rolled back and the transaction can carry on. Without a transaction
+     * every statement commits on its own, so the work simply runs.
+     */
+    public <T> T inSavepoint(Supplier<T> work) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+        return jdbcTemplate.execute((ConnectionCallback<T>) con -> {
+            Savepoint savepoint = con.setSavepoint();
+            T result;
+            try {
+                result = work.get();
+            } catch (RuntimeException e) {
+                con.rollback(savepoint);
+                throw e;
+            }
+            con.releaseSavepoint(savepoint);
+            return result;
+        });
+    }
+}
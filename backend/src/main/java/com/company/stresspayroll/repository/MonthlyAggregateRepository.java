@@ -0,0 +1,21 @@
+package com.company.stresspayroll.repository;
+
+import com.company.stresspayroll.model.MonthlyAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MonthlyAggregateRepository extends JpaRepository<MonthlyAggregate, Long> {
+    
+    @Query("SELECT m FROM MonthlyAggregate m WHERE (m.periodYear = :year AND m.periodMonth = :month) OR (m.periodYear = 0 AND m.periodMonth = 0)")
+    List<MonthlyAggregate> findPeriodAndAllTime(@Param("year") Integer year, @Param("month") Integer month);
+    
+    @Modifying
+    @Query("DELETE FROM MonthlyAggregate m")
+    int deleteAllRows();
+}
@@ -1,24 +1,68 @@
 package com.company.stresspayroll.repository;
 
+import com.company.stresspayroll.dto.PayslipExportRow;
 import com.company.stresspayroll.model.Payslip;
 import com.company.stresspayroll.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
 public interface PayslipRepository extends JpaRepository<Payslip, Long> {
     
     List<Payslip> findByUserOrderByYearDescMonthDesc(User user);
     
+    /**
+     * One [count, max id, revision total, latest generatedAt] row that changes whenever
+     * a payslip of the employee is added, recomputed or removed.
+     */
+    @Query("SELECT COUNT(p), MAX(p.id), SUM(p.revision), MAX(p.generatedAt) FROM Payslip p WHERE p.user = :user")
+    List<Object[]> findHistoryVersionByUser(@Param("user") User user);
+    
     Optional<Payslip> findByUserAndMonthAndYear(User user, Integer month, Integer year);
     
     @Query("SELECT COUNT(p) FROM Payslip p WHERE p.user = :user AND p.month = :month AND p.year = :year")
     long countByUserAndMonthAndYear(@Param("user") User user, @Param("month") Integer month, @Param("year") Integer year);
     
-    List<Payslip> findTop10ByOrderByGeneratedAtDesc();
+    @Query("SELECT p.user.id FROM Payslip p WHERE p.user.id IN :userIds AND p.month = :month AND p.year = :year")
+    List<Long> findUserIdsWithPayslip(@Param("userIds") Collection<Long> userIds, @Param("month") Integer month, @Param("year") Integer year);
+    
+    @Query("SELECT p FROM Payslip p WHERE p.user.id IN :userIds AND p.month = :month AND p.year = :year")
+    List<Payslip> findByUserIdsAndPeriod(@Param("userIds") Collection<Long> userIds, @Param("month") Integer month, @Param("year") Integer year);
+    
+    /**
+     * Returns the most recently generated payslips with their employee fetched in the
+     * same query, so listing employee names does not load each user separately.
+     */
+    @Query("SELECT p FROM Payslip p JOIN FETCH p.user ORDER BY p.generatedAt DESC")
+    @Transactional(readOnly = true)
+    List<Payslip> findRecentWithUser(Pageable pageable);
+    
+    /**
+     * Streams every payslip of a pay period in id order. Must be consumed inside a
+     * transaction and closed afterwards; the fetch size lets the driver page rows
+     * instead of buffering the whole result.
+     */
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("SELECT new com.company.stresspayroll.dto.PayslipExportRow(p.id, u.id, u.username, u.fullName, ep.department, "
+         + "p.month, p.year, p.baseSalary, p.unpaidLeaveDeductions, p.overtimePay, p.stressAllowance, p.finalSalary, p.generatedAt) "
+         + "FROM Payslip p JOIN p.user u LEFT JOIN EmployeeProfile ep ON ep.user = u "
+         + "WHERE p.month = :month AND p.year = :year ORDER BY p.id")
+    Stream<PayslipExportRow> streamExportRows(@Param("month") Integer month, @Param("year") Integer year);
 }
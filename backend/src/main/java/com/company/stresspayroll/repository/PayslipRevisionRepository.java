@@ -0,0 +1,16 @@
+package com.company.stresspayroll.repository;
+
+import com.company.stresspayroll.model.PayslipRevision;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PayslipRevisionRepository extends JpaRepository<PayslipRevision, Long> {
+    
+    @Query("SELECT r FROM PayslipRevision r WHERE r.payslip.id = :payslipId AND r.payslip.user.id = :userId ORDER BY r.revision DESC")
+    List<PayslipRevision> findByPayslipAndUser(@Param("payslipId") Long payslipId, @Param("userId") Long userId);
+}
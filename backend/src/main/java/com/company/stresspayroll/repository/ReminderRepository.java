@@ -1,9 +1,13 @@
 package com.company.stresspayroll.repository;
 
+import com.company.stresspayroll.dto.ReminderResponse;
 import com.company.stresspayroll.model.Reminder;
 import com.company.stresspayroll.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,6 +17,11 @@ public interface ReminderRepository extends JpaRepository<Reminder, Long> {
     
     List<Reminder> findByUserOrderByCreatedAtDesc(User user);
     
+    @Query("SELECT new com.company.stresspayroll.dto.ReminderResponse(r.id, r.reminderText, r.isCompleted, r.createdAt, r.updatedAt) "
+         + "FROM Reminder r WHERE r.user = :user ORDER BY r.createdAt DESC")
+    @Transactional(readOnly = true)
+    List<ReminderResponse> findResponsesByUser(@Param("user") User user);
+    
     List<Reminder> findByUserAndIsCompletedOrderByCreatedAtDesc(User user, Boolean isCompleted);
     
     Optional<Reminder> findByIdAndUser(Long id, User user);
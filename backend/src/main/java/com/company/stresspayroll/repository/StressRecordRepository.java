@@ -1,12 +1,17 @@
 package com.company.stresspayroll.repository;
 
+import com.company.stresspayroll.dto.HighStressAlert;
+import com.company.stresspayroll.dto.StressHistoryEntry;
 import com.company.stresspayroll.model.StressRecord;
 import com.company.stresspayroll.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,5 +25,30 @@ public interface StressRecordRepository extends JpaRepository<StressRecord, Long
     @Query("SELECT sr FROM StressRecord sr WHERE sr.user = :user ORDER BY sr.year DESC, sr.month DESC")
     List<StressRecord> findLatestStressRecordsByUser(@Param("user") User user);
     
-    List<StressRecord> findByStressLevelGreaterThanOrderByCreatedAtDesc(int stressLevel);
+    @Query("SELECT new com.company.stresspayroll.dto.StressHistoryEntry(sr.id, sr.month, sr.year, sr.stressLevel, "
+         + "sr.overtimeHours, sr.overtimeReason, sr.createdAt) "
+         + "FROM StressRecord sr WHERE sr.user = :user ORDER BY sr.year DESC, sr.month DESC")
+    List<StressHistoryEntry> findHistoryByUser(@Param("user") User user);
+    
+    @Query("SELECT sr.user.id, sr.overtimeHours, sr.stressLevel FROM StressRecord sr WHERE sr.user.id IN :userIds AND sr.month = :month AND sr.year = :year")
+    List<Object[]> findPayInputsByUserIds(@Param("userIds") Collection<Long> userIds, @Param("month") Integer month, @Param("year") Integer year);
+    
+    /**
+     * Keyset page of stress records above the threshold, newest first. Pass the last id
+     * of the previous page as {@code beforeId}, or null for the first page.
+     */
+    @Query("SELECT new com.company.stresspayroll.dto.HighStressAlert(sr.id, u.id, u.fullName, sr.stressLevel, "
+         + "sr.overtimeHours, sr.month, sr.year, sr.createdAt) "
+         + "FROM StressRecord sr JOIN sr.user u "
+         + "WHERE sr.stressLevel > :threshold AND (:beforeId IS NULL OR sr.id < :beforeId) "
+         + "ORDER BY sr.id DESC")
+    @Transactional(readOnly = true)
+    List<HighStressAlert> findHighStressPage(@Param("threshold") int threshold,
+                                             @Param("beforeId") Long beforeId,
+                                             Pageable pageable);
+    
+    @Query("SELECT new com.company.stresspayroll.dto.HighStressAlert(sr.id, u.id, u.fullName, sr.stressLevel, "
+         + "sr.overtimeHours, sr.month, sr.year, sr.createdAt) "
+         + "FROM StressRecord sr JOIN sr.user u WHERE sr.id = :id")
+    Optional<HighStressAlert> findAlertById(@Param("id") Long id);
 }
@@ -1,14 +1,26 @@
 package com.company.stresspayroll.repository;
 
+import com.company.stresspayroll.dto.EmployeeDirectoryEntry;
 import com.company.stresspayroll.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     
     Optional<User> findByUsername(String username);
     
@@ -21,4 +33,43 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByRole(User.Role role);
     
     long countByRole(User.Role role);
+    
+    @Query("SELECT u.fullName FROM User u WHERE u.id = :id")
+    Optional<String> findFullNameById(@Param("id") Long id);
+    
+    @Query("SELECT u.username, u.id FROM User u WHERE u.role = :role AND u.username IN :usernames")
+    List<Object[]> findIdsByRoleAndUsernameIn(@Param("role") User.Role role, @Param("usernames") Collection<String> usernames);
+    
+    @Query("SELECT EXTRACT(YEAR FROM u.createdAt), EXTRACT(MONTH FROM u.createdAt), COUNT(u) FROM User u WHERE u.role = :role GROUP BY EXTRACT(YEAR FROM u.createdAt), EXTRACT(MONTH FROM u.createdAt)")
+    List<Object[]> countByRoleGroupedByCreatedMonth(@Param("role") User.Role role);
+    
+    /**
+     * Keyset page of the employee directory ordered by user id. Pass the last id of
+     * the previous page as {@code afterId}; null department or position means no filter.
+     */
+    @Query("SELECT new com.company.stresspayroll.dto.EmployeeDirectoryEntry(u.id, u.username, u.email, u.fullName, "
+         + "p.phone, p.department, p.position, p.baseSalary, u.createdAt) "
+         + "FROM User u LEFT JOIN EmployeeProfile p ON p.user = u "
+         + "WHERE u.role = :role AND u.id > :afterId "
+         + "AND (:department IS NULL OR p.department = :department) "
+         + "AND (:position IS NULL OR p.position = :position) "
+         + "ORDER BY u.id")
+    @Transactional(readOnly = true)
+    List<EmployeeDirectoryEntry> findDirectoryPage(@Param("role") User.Role role, @Param("afterId") Long afterId,
+                                                   @Param("department") String department, @Param("position") String position,
+                                                   Pageable pageable);
+    
+    /**
+     * Streams the whole employee directory in user id order. Must be consumed inside a
+     * transaction and closed afterwards.
+     */
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("SELECT new com.company.stresspayroll.dto.EmployeeDirectoryEntry(u.id, u.username, u.email, u.fullName, "
+         + "p.phone, p.department, p.position, p.baseSalary, u.createdAt) "
+         + "FROM User u LEFT JOIN EmployeeProfile p ON p.user = u "
+         + "WHERE u.role = :role ORDER BY u.id")
+    Stream<EmployeeDirectoryEntry> streamDirectory(@Param("role") User.Role role);
 }
@@ -0,0 +1,14 @@
+package com.company.stresspayroll.repository;
+
+import com.company.stresspayroll.model.User;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+    
+    /**
+     * Looks the user up by its natural id, so both the username resolution and the
+     * user itself are served from the second-level cache when present.
+     */
+    Optional<User> findCachedByUsername(String username);
+}
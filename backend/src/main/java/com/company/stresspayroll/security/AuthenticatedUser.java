@@ -0,0 +1,55 @@
+package com.company.stresspayroll.security;
+
+import com.company.stresspayroll.model.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Immutable security principal built from verified JWT claims. It carries just
+ * enough to authorize a request; controllers load the full {@link User} entity
+ * only when they need its fields.
+ */
+public final class AuthenticatedUser implements Principal {
+    
+    private final Long id;
+    private final String username;
+    private final User.Role role;
+    private final Collection<? extends GrantedAuthority> authorities;
+    
+    public AuthenticatedUser(Long id, String username, User.Role role) {
+        this.id = id;
+        this.username = username;
+        this.role = role;
+        this.authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public User.Role getRole() {
+        return role;
+    }
+    
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+    
+    @Override
+    public String getName() {
+        return username;
+    }
+    
+    @Override
+    public String toString() {
+        return "AuthenticatedUser{id=" + id + ", username=" + username + ", role=" + role + "}";
+    }
+}
@@ -0,0 +1,169 @@
+package com.company.stresspayroll.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * BCrypt password encoder that runs every hash and password check on a small,
+ * dedicated thread pool with a bounded queue. A login storm can then only keep that
+ * many cores busy; once the queue is full further attempts fail straight away with
+ * {@link PasswordHashingRejectedException} instead of tying up request threads that
+ * payslip and dashboard traffic needs.
+ * <p>
+ * The calling thread still waits for its own hash, but never longer than
+ * {@code auth.hashing.timeout}. Queue depth and pool usage are published as the
+ * {@code executor.*} metrics tagged {@code name=password-hashing}.
+ */
+@Component
+public class BoundedPasswordEncoder implements PasswordEncoder {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+    
+    private static final String EXECUTOR_NAME = "password-hashing";
+    private static final String REJECTED_MESSAGE = "Too many sign-in attempts right now, please retry shortly";
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${auth.hashing.threads:0}")
+    private int threads;
+    
+    @Value("${auth.hashing.queue-capacity:32}")
+    private int queueCapacity;
+    
+    @Value("${auth.hashing.timeout:5s}")
+    private Duration timeout;
+    
+    private final PasswordEncoder delegate = new BCryptPasswordEncoder();
+    private ThreadPoolExecutor executor;
+    
+    private Timer encodeTimer;
+    private Timer matchesTimer;
+    private Timer queueWaitTimer;
+    private Counter saturatedRejections;
+    private Counter timeoutRejections;
+    
+    @PostConstruct
+    public void start() {
+        // Leave at least half of the cores to the rest of the API
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, EXECUTOR_NAME, Tags.empty()).bindTo(meterRegistry);
+        
+        encodeTimer = hashTimer("encode");
+        matchesTimer = hashTimer("matches");
+        queueWaitTimer = Timer.builder("auth.password.queue.wait")
+                .description("Time a password hash or check waited for a hashing thread")
+                .register(meterRegistry);
+        saturatedRejections = rejectionCounter("saturated");
+        timeoutRejections = rejectionCounter("timeout");
+        logger.info("Password hashing on {} threads with a queue of {}", poolSize, queueCapacity);
+    }
+    
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+    
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+    
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+    
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+    
+    private <T> T run(Timer timer, Supplier<T> hash) {
+        long submitted = System.nanoTime();
+        Future<T> result;
+        try {
+            result = executor.submit(() -> {
+                long started = System.nanoTime();
+                queueWaitTimer.record(started - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    return hash.get();
+                } finally {
+                    timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            saturatedRejections.increment();
+            throw new PasswordHashingRejectedException(REJECTED_MESSAGE);
+        }
+        
+        try {
+            return result.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            timeoutRejections.increment();
+            throw new PasswordHashingRejectedException(REJECTED_MESSAGE);
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException(REJECTED_MESSAGE);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+    
+    private Timer hashTimer(String operation) {
+        return Timer.builder("auth.password.hash")
+                .description("Time spent hashing or checking a password on the hashing pool")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+    
+    private Counter rejectionCounter(String reason) {
+        return Counter.builder("auth.password.rejected")
+                .description("Password hashes and checks refused because the hashing pool was saturated")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+    
+    private static class HashingThreadFactory implements ThreadFactory {
+        
+        private final AtomicInteger count = new AtomicInteger();
+        
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, EXECUTOR_NAME + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.company.stresspayroll.security;
+
+/**
+ * Thrown when the password hashing executor is saturated and a hash or password check
+ * cannot be started in time. Callers answer with 429 so clients back off and retry.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+    
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
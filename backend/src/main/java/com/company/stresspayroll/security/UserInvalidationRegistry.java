@@ -0,0 +1,41 @@
+package com.company.stresspayroll.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records users whose role changed, so tokens issued to them before that moment stop
+ * authenticating. An entry only has to outlive the tokens it covers, so entries older
+ * than the token lifetime are discarded.
+ * <p>
+ * {@code UserService.changeUserRole}, behind {@code PUT /api/hr/employee/{userId}/role},
+ * records role changes once they commit. There is no way to remove or deactivate a
+ * user yet; whatever adds one must call {@link #invalidate} the same way.
+ */
+@Component
+public class UserInvalidationRegistry {
+    
+    @Value("${jwt.expiration}")
+    private Long expiration;
+    
+    private final Map<Long, Long> invalidatedAt = new ConcurrentHashMap<>();
+    
+    public void invalidate(Long userId) {
+        long now = System.currentTimeMillis();
+        invalidatedAt.put(userId, now);
+        invalidatedAt.values().removeIf(at -> at < now - expiration);
+    }
+    
+    public boolean isInvalidated(Long userId, Date issuedAt) {
+        Long at = invalidatedAt.get(userId);
+        if (at == null) {
+            return false;
+        }
+        // JWT issue times have second precision, so a token from the same second is rejected too
+        return issuedAt == null || issuedAt.getTime() <= at;
+    }
+}
@@ -0,0 +1,146 @@
+package com.company.stresspayroll.security;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded cache of JWTs whose signature has already been verified, keyed by the raw
+ * token string. Entries are dropped once the token expires, so a hit is always a
+ * token that would still pass validation.
+ */
+@Component
+public class VerifiedTokenCache implements MeterBinder {
+    
+    @Value("${jwt.cache.max-size:10000}")
+    private int maxSize;
+    
+    private final Map<String, CachedClaims> entries = new ConcurrentHashMap<>();
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expiredEvictions = new LongAdder();
+    private final LongAdder sizeEvictions = new LongAdder();
+    
+    public Claims get(String token) {
+        CachedClaims cached = entries.get(token);
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+        if (cached.isExpired(System.currentTimeMillis())) {
+            if (entries.remove(token, cached)) {
+                expiredEvictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return cached.claims;
+    }
+    
+    public void put(String token, Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            // Never cache tokens that do not expire
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evict();
+        }
+        entries.put(token, new CachedClaims(claims, expiration.getTime()));
+    }
+    
+    public void invalidate(String token) {
+        entries.remove(token);
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    private synchronized void evict() {
+        if (entries.size() < maxSize) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        entries.entrySet().removeIf(entry -> {
+            if (entry.getValue().isExpired(now)) {
+                expiredEvictions.increment();
+                return true;
+            }
+            return false;
+        });
+        
+        // Still full: drop the tokens closest to expiry, a tenth of the cache at a time
+        int excess = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        if (excess > 0) {
+            List<String> victims = entries.entrySet().stream()
+                    .sorted(Comparator.comparingLong(entry -> entry.getValue().expiresAtMillis))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+            for (String token : victims) {
+                if (entries.remove(token) != null) {
+                    sizeEvictions.increment();
+                }
+            }
+        }
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("jwt.token.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("Verified-token cache lookups")
+                .register(registry);
+        FunctionCounter.builder("jwt.token.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("Verified-token cache lookups")
+                .register(registry);
+        FunctionCounter.builder("jwt.token.cache.evictions", expiredEvictions, LongAdder::sum)
+                .tag("cause", "expired")
+                .description("Tokens removed from the verified-token cache")
+                .register(registry);
+        FunctionCounter.builder("jwt.token.cache.evictions", sizeEvictions, LongAdder::sum)
+                .tag("cause", "size")
+                .description("Tokens removed from the verified-token cache")
+                .register(registry);
+        Gauge.builder("jwt.token.cache.size", entries, Map::size)
+                .description("Tokens currently held in the verified-token cache")
+                .register(registry);
+        Gauge.builder("jwt.token.cache.hit.ratio", this, cache -> {
+                    double total = cache.hits.sum() + cache.misses.sum();
+                    return total == 0 ? 0.0 : cache.hits.sum() / total;
+                })
+                .description("Share of verified-token cache lookups that were hits")
+                .register(registry);
+    }
+    
+    private static final class CachedClaims {
+        
+        private final Claims claims;
+        private final long expiresAtMillis;
+        
+        private CachedClaims(Claims claims, long expiresAtMillis) {
+            this.claims = claims;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+        
+        private boolean isExpired(long nowMillis) {
+            return expiresAtMillis <= nowMillis;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.company.stresspayroll.service;
+
+import com.company.stresspayroll.model.Attendance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory copy of the attendance table packed as one {@code long} per employee-month.
+ * <p>
+ * Each day of the month takes two bits, day 1 in the lowest pair: {@code 00} no record,
+ * {@code 01} present, {@code 10} paid leave and {@code 11} unpaid leave. Counting a
+ * status is a mask and a popcount, so leave totals never touch the database. Each
+ * employee's words sit in one primitive array indexed by month, covering whole years.
+ * <p>
+ * The index is built from the table once the application is ready and is then kept in
+ * sync after each attendance write commits. Until it is ready, {@link #isReady()} is
+ * false and callers fall back to repository queries.
+ */
+@Service
+public class AttendanceBitmapIndex {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceBitmapIndex.class);
+    
+    // Low bit of every two-bit day slot
+    private static final long LOW_BITS = 0x5555555555555555L;
+    
+    private static final int CODE_PRESENT = 1;
+    private static final int CODE_PAID_LEAVE = 2;
+    private static final int CODE_UNPAID_LEAVE = 3;
+    
+    private static final int MONTHS_PER_YEAR = 12;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private volatile Map<Long, MonthWords> words = new ConcurrentHashMap<>();
+    
+    private volatile boolean ready;
+    
+    // Writes applied while a rebuild is reading the table; replayed onto the rebuilt map. Guarded by this
+    private List<Runnable> rebuildJournal;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+    
+    /**
+     * Reloads the whole index from the attendance table.
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            rebuildJournal = new ArrayList<>();
+        }
+        
+        Map<Long, MonthWords> rebuilt = new ConcurrentHashMap<>();
+        jdbcTemplate.query("SELECT user_id, date, status FROM attendance", rs -> {
+            LocalDate date = rs.getDate(2).toLocalDate();
+            int code = code(Attendance.AttendanceStatus.valueOf(rs.getString(3)));
+            set(rebuilt, rs.getLong(1), date, code);
+        });
+        
+        synchronized (this) {
+            words = rebuilt;
+            for (Runnable write : rebuildJournal) {
+                write.run();
+            }
+            rebuildJournal = null;
+            ready = true;
+            logger.info("Built attendance bitmap index: {} employees in {} ms",
+                    rebuilt.size(), System.currentTimeMillis() - start);
+        }
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    /**
+     * Records a status once the surrounding transaction commits, or immediately when
+     * there is no transaction.
+     */
+    public void recordAfterCommit(Long userId, LocalDate date, Attendance.AttendanceStatus status) {
+        afterCommit(() -> record(userId, date, status));
+    }
+    
+    public synchronized void record(Long userId, LocalDate date, Attendance.AttendanceStatus status) {
+        int code = code(status);
+        apply(() -> set(words, userId, date, code));
+    }
+    
+    /**
+     * Paid plus unpaid leave days for one employee-month.
+     */
+    public long countLeaves(Long userId, int year, int month) {
+        MonthWords months = words.get(userId);
+        long word = months == null ? 0L : months.get(monthIndex(year, month));
+        return Long.bitCount((word >>> 1) & LOW_BITS);
+    }
+    
+    /**
+     * Present, paid leave and unpaid leave days between two dates inclusive, indexed by
+     * {@link Attendance.AttendanceStatus#ordinal()}.
+     */
+    public long[] countByStatus(Long userId, LocalDate startDate, LocalDate endDate) {
+        long[] counts = new long[3];
+        MonthWords months = words.get(userId);
+        if (months == null) {
+            return counts;
+        }
+        YearMonth last = YearMonth.from(endDate);
+        for (YearMonth month = YearMonth.from(startDate); !month.isAfter(last); month = month.plusMonths(1)) {
+            int fromDay = month.equals(YearMonth.from(startDate)) ? startDate.getDayOfMonth() : 1;
+            int toDay = month.equals(last) ? endDate.getDayOfMonth() : month.lengthOfMonth();
+            long word = months.get(monthIndex(month.getYear(), month.getMonthValue())) & dayRangeMask(fromDay, toDay);
+            long low = word & LOW_BITS;
+            long high = (word >>> 1) & LOW_BITS;
+            counts[0] += Long.bitCount(low & ~high);
+            counts[1] += Long.bitCount(high & ~low);
+            counts[2] += Long.bitCount(high & low);
+        }
+        return counts;
+    }
+    
+    private void apply(Runnable write) {
+        write.run();
+        if (rebuildJournal != null) {
+            rebuildJournal.add(write);
+        }
+    }
+    
+    private void afterCommit(Runnable write) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    write.run();
+                }
+            });
+        } else {
+            write.run();
+        }
+    }
+    
+    private static long dayRangeMask(int fromDay, int toDay) {
+        long upTo = (1L << shift(toDay + 1)) - 1;
+        long below = (1L << shift(fromDay)) - 1;
+        return upTo & ~below;
+    }
+    
+    private static int shift(int dayOfMonth) {
+        return (dayOfMonth - 1) * 2;
+    }
+    
+    private static int monthIndex(int year, int month) {
+        return year * MONTHS_PER_YEAR + month - 1;
+    }
+    
+    // Callers hold the lock, or own the map during a rebuild
+    private static void set(Map<Long, MonthWords> words, long userId, LocalDate date, int code) {
+        int index = monthIndex(date.getYear(), date.getMonthValue());
+        MonthWords months = words.get(userId);
+        if (months == null || !months.covers(index)) {
+            months = MonthWords.covering(months, index);
+            words.put(userId, months);
+        }
+        int shift = shift(date.getDayOfMonth());
+        long word = months.get(index);
+        months.set(index, (word & ~(3L << shift)) | ((long) code << shift));
+    }
+    
+    private static int code(Attendance.AttendanceStatus status) {
+        switch (status) {
+            case PAID_LEAVE:
+                return CODE_PAID_LEAVE;
+            case UNPAID_LEAVE:
+                return CODE_UNPAID_LEAVE;
+            default:
+                return CODE_PRESENT;
+        }
+    }
+    
+    /**
+     * One employee's month words from {@code firstMonth}, in whole years. Readers need
+     * no lock, so the words are volatile; a range that grows is copied into a new
+     * instance.
+     */
+    private static final class MonthWords {
+        
+        private final int firstMonth;
+        private final AtomicLongArray words;
+        
+        private MonthWords(int firstMonth, int length) {
+            this.firstMonth = firstMonth;
+            this.words = new AtomicLongArray(length);
+        }
+        
+        static MonthWords covering(MonthWords existing, int index) {
+            int from = index - Math.floorMod(index, MONTHS_PER_YEAR);
+            int to = from + MONTHS_PER_YEAR;
+            if (existing != null) {
+                from = Math.min(from, existing.firstMonth);
+                to = Math.max(to, existing.firstMonth + existing.words.length());
+            }
+            MonthWords grown = new MonthWords(from, to - from);
+            if (existing != null) {
+                for (int i = 0; i < existing.words.length(); i++) {
+                    grown.words.set(existing.firstMonth - from + i, existing.words.get(i));
+                }
+            }
+            return grown;
+        }
+        
+        boolean covers(int index) {
+            return index >= firstMonth && index < firstMonth + words.length();
+        }
+        
+        long get(int index) {
+            return covers(index) ? words.get(index - firstMonth) : 0L;
+        }
+        
+        void set(int index, long word) {
+            words.set(index - firstMonth, word);
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.company.stresspayroll.service;
+
+import com.company.stresspayroll.dto.AttendanceImportResult;
+import com.company.stresspayroll.events.DashboardRefreshEvent;
+import com.company.stresspayroll.model.Attendance;
+import com.company.stresspayroll.model.User;
+import com.company.stresspayroll.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Streams attendance rows from CSV ({@code username,date,status}) or NDJSON
+ * ({@code {"username":..,"date":..,"status":..}}) into the attendance table.
+ * <p>
+ * Rows are read line by line and written in batches, so memory use does not grow with
+ * the upload size. Each batch resolves unknown usernames in one query, loads the
+ * existing rows for exactly its employee and date pairs, then inserts new days
+ * and updates changed ones with JDBC batches in a single transaction together with
+ * the dashboard aggregates. A row for an existing employee and date replaces its status.
+ */
+@Service
+public class AttendanceImportService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceImportService.class);
+    
+    public enum Format {
+        CSV, NDJSON
+    }
+    
+    private static final int MAX_REPORTED_REJECTS = 100;
+    
+    private static final int MAX_CACHED_USERNAMES = 100_000;
+    
+    // Marks a username that does not belong to an employee
+    private static final Long UNKNOWN_USER = -1L;
+    
+    private static final String INSERT_ATTENDANCE_SQL =
+            "INSERT INTO attendance (user_id, date, status, created_at) VALUES (?, ?, ?, ?)";
+    
+    private static final String UPDATE_ATTENDANCE_SQL =
+            "UPDATE attendance SET status = ? WHERE user_id = ? AND date = ?";
+    
+    private static final String SELECT_STATUSES_SQL =
+            "SELECT user_id, date, status FROM attendance WHERE (user_id, date) IN (%s)";
+    
+    // Keeps each status lookup well under the bind parameter limits of the supported databases
+    private static final int MAX_KEYS_PER_LOOKUP = 500;
+    
+    @Value("${attendance.import.batch-size:1000}")
+    private int batchSize;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private DashboardAggregateService dashboardAggregateService;
+    
+    @Autowired
+    private AttendanceBitmapIndex attendanceBitmapIndex;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PayslipRecomputeService payslipRecomputeService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    public AttendanceImportResult importRows(Reader source, Format format) throws IOException {
+        long start = System.nanoTime();
+        AttendanceImportResult result = new AttendanceImportResult();
+        Map<String, Long> userIds = new LinkedHashMap<String, Long>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > MAX_CACHED_USERNAMES;
+            }
+        };
+        
+        BufferedReader reader = new BufferedReader(source);
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || (format == Format.CSV && lineNumber == 1 && line.trim().toLowerCase().startsWith("username"))) {
+                continue;
+            }
+            result.setRowsRead(result.getRowsRead() + 1);
+            try {
+                batch.add(format == Format.CSV ? parseCsv(line, lineNumber) : parseJson(line, lineNumber));
+            } catch (IllegalArgumentException | DateTimeParseException | JsonProcessingException e) {
+                reject(result, lineNumber, e.getMessage());
+            }
+            if (batch.size() >= batchSize) {
+                flush(batch, userIds, result);
+                batch.clear();
+            }
+        }
+        flush(batch, userIds, result);
+        
+        long elapsedNanos = System.nanoTime() - start;
+        result.setElapsedMillis(elapsedNanos / 1_000_000);
+        result.setRowsPerSecond(elapsedNanos > 0 ? result.getRowsRead() * 1_000_000_000L / elapsedNanos : 0);
+        logger.info("Attendance import: {} rows read, {} inserted, {} updated, {} unchanged, {} rejected in {} ms ({} rows/s)",
+                result.getRowsRead(), result.getInserted(), result.getUpdated(), result.getUnchanged(),
+                result.getRejected(), result.getElapsedMillis(), result.getRowsPerSecond());
+        if (result.getInserted() + result.getUpdated() > 0) {
+            eventPublisher.publishEvent(new DashboardRefreshEvent("attendance-import"));
+        }
+        return result;
+    }
+    
+    private void flush(List<ImportRow> batch, Map<String, Long> userIds, AttendanceImportResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        resolveUsers(batch, userIds);
+        
+        List<ImportRow> rows = new ArrayList<>(batch.size());
+        for (ImportRow row : batch) {
+            Long userId = userIds.get(row.username);
+            if (userId == null || UNKNOWN_USER.equals(userId)) {
+                reject(result, row.line, "Unknown employee: " + row.username);
+            } else {
+                row.userId = userId;
+                rows.add(row);
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        
+        BatchOutcome outcome;
+        try {
+            outcome = transactionTemplate.execute(status -> writeBatch(rows));
+        } catch (DataIntegrityViolationException e) {
+            // Another writer inserted one of these days after we read them; reload and retry once
+            logger.debug("Attendance import batch conflicted with a concurrent write, retrying", e);
+            outcome = transactionTemplate.execute(status -> writeBatch(rows));
+        }
+        result.setInserted(result.getInserted() + outcome.inserted);
+        result.setUpdated(result.getUpdated() + outcome.updated);
+        result.setUnchanged(result.getUnchanged() + outcome.unchanged);
+    }
+    
+    private void resolveUsers(List<ImportRow> batch, Map<String, Long> userIds) {
+        Set<String> missing = new HashSet<>();
+        for (ImportRow row : batch) {
+            if (!userIds.containsKey(row.username)) {
+                missing.add(row.username);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        for (Object[] row : userRepository.findIdsByRoleAndUsernameIn(User.Role.EMPLOYEE, missing)) {
+            userIds.put((String) row[0], (Long) row[1]);
+            missing.remove(row[0]);
+        }
+        for (String username : missing) {
+            userIds.put(username, UNKNOWN_USER);
+        }
+    }
+    
+    private BatchOutcome writeBatch(List<ImportRow> rows) {
+        Set<AttendanceKey> batchKeys = new LinkedHashSet<>();
+        for (ImportRow row : rows) {
+            batchKeys.add(new AttendanceKey(row.userId, row.date));
+        }
+        Map<AttendanceKey, Attendance.AttendanceStatus> original = findStatuses(new ArrayList<>(batchKeys));
+        
+        // Later rows for the same employee and day win
+        BatchOutcome outcome = new BatchOutcome();
+        Map<AttendanceKey, Attendance.AttendanceStatus> current = new HashMap<>(original);
+        Map<AttendanceKey, Attendance.AttendanceStatus> inserts = new LinkedHashMap<>();
+        Map<AttendanceKey, Attendance.AttendanceStatus> updates = new LinkedHashMap<>();
+        for (ImportRow row : rows) {
+            AttendanceKey key = new AttendanceKey(row.userId, row.date);
+            Attendance.AttendanceStatus previous = current.put(key, row.status);
+            if (previous == row.status) {
+                outcome.unchanged++;
+            } else if (previous == null) {
+                inserts.put(key, row.status);
+                outcome.inserted++;
+            } else {
+                (inserts.containsKey(key) ? inserts : updates).put(key, row.status);
+                outcome.updated++;
+            }
+        }
+        
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Map.Entry<AttendanceKey, Attendance.AttendanceStatus>> insertRows = new ArrayList<>(inserts.entrySet());
+        jdbcTemplate.batchUpdate(INSERT_ATTENDANCE_SQL, insertRows, batchSize, (ps, entry) -> {
+            ps.setLong(1, entry.getKey().userId);
+            ps.setDate(2, Date.valueOf(entry.getKey().date));
+            ps.setString(3, entry.getValue().name());
+            ps.setTimestamp(4, createdAt);
+        });
+        List<Map.Entry<AttendanceKey, Attendance.AttendanceStatus>> updateRows = new ArrayList<>(updates.entrySet());
+        jdbcTemplate.batchUpdate(UPDATE_ATTENDANCE_SQL, updateRows, batchSize, (ps, entry) -> {
+            ps.setString(1, entry.getValue().name());
+            ps.setLong(2, entry.getKey().userId);
+            ps.setDate(3, Date.valueOf(entry.getKey().date));
+        });
+        
+        applyDerivedChanges(original, current);
+        return outcome;
+    }
+    
+    /**
+     * Loads the stored status of each employee and date pair. Matching whole pairs reads
+     * at most one row per key, however many employees and dates the batch spans.
+     */
+    private Map<AttendanceKey, Attendance.AttendanceStatus> findStatuses(List<AttendanceKey> keys) {
+        Map<AttendanceKey, Attendance.AttendanceStatus> statuses = new HashMap<>();
+        for (int from = 0; from < keys.size(); from += MAX_KEYS_PER_LOOKUP) {
+            List<AttendanceKey> chunk = keys.subList(from, Math.min(from + MAX_KEYS_PER_LOOKUP, keys.size()));
+            Object[] args = new Object[chunk.size() * 2];
+            for (int i = 0; i < chunk.size(); i++) {
+                args[2 * i] = chunk.get(i).userId;
+                args[2 * i + 1] = Date.valueOf(chunk.get(i).date);
+            }
+            String sql = String.format(SELECT_STATUSES_SQL, String.join(", ", Collections.nCopies(chunk.size(), "(?, ?)")));
+            jdbcTemplate.query(sql, rs -> {
+                statuses.put(new AttendanceKey(rs.getLong(1), rs.getDate(2).toLocalDate()),
+                             Attendance.AttendanceStatus.valueOf(rs.getString(3)));
+            }, args);
+        }
+        return statuses;
+    }
+    
+    private void applyDerivedChanges(Map<AttendanceKey, Attendance.AttendanceStatus> original,
+                                     Map<AttendanceKey, Attendance.AttendanceStatus> current) {
+        Map<YearMonth, long[]> deltas = new HashMap<>();
+        Map<YearMonth, Set<Long>> changedUserIds = new HashMap<>();
+        for (Map.Entry<AttendanceKey, Attendance.AttendanceStatus> entry : current.entrySet()) {
+            AttendanceKey key = entry.getKey();
+            Attendance.AttendanceStatus before = original.get(key);
+            Attendance.AttendanceStatus after = entry.getValue();
+            if (before == after) {
+                continue;
+            }
+            long[] delta = deltas.computeIfAbsent(YearMonth.from(key.date), month -> new long[3]);
+            if (before != null) {
+                delta[before.ordinal()]--;
+            }
+            delta[after.ordinal()]++;
+            changedUserIds.computeIfAbsent(YearMonth.from(key.date), month -> new HashSet<>()).add(key.userId);
+            attendanceBitmapIndex.recordAfterCommit(key.userId, key.date, after);
+        }
+        for (Map.Entry<YearMonth, long[]> entry : deltas.entrySet()) {
+            dashboardAggregateService.recordAttendanceDeltas(entry.getKey().getYear(), entry.getKey().getMonthValue(), entry.getValue());
+        }
+        payslipRecomputeService.markDirty(changedUserIds);
+    }
+    
+    private ImportRow parseCsv(String line, long lineNumber) {
+        String[] fields = line.split(",", -1);
+        if (fields.length != 3) {
+            throw new IllegalArgumentException("Expected 3 columns (username,date,status) but found " + fields.length);
+        }
+        return newRow(lineNumber, unquote(fields[0]), unquote(fields[1]), unquote(fields[2]));
+    }
+    
+    private ImportRow parseJson(String line, long lineNumber) throws JsonProcessingException {
+        JsonNode node = objectMapper.readTree(line);
+        return newRow(lineNumber, node.path("username").asText(null), node.path("date").asText(null),
+                      node.path("status").asText(null));
+    }
+    
+    private ImportRow newRow(long lineNumber, String username, String date, String status) {
+        if (username == null || username.isEmpty() || date == null || status == null) {
+            throw new IllegalArgumentException("Username, date and status are required");
+        }
+        Attendance.AttendanceStatus parsedStatus;
+        try {
+            parsedStatus = Attendance.AttendanceStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid status: " + status);
+        }
+        return new ImportRow(lineNumber, username, LocalDate.parse(date), parsedStatus);
+    }
+    
+    private static String unquote(String field) {
+        String value = field.trim();
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1).trim();
+        }
+        return value;
+    }
+    
+    private static void reject(AttendanceImportResult result, long lineNumber, String reason) {
+        result.setRejected(result.getRejected() + 1);
+        if (result.getRejects().size() < MAX_REPORTED_REJECTS) {
+            result.getRejects().add(new AttendanceImportResult.RowReject(lineNumber, reason));
+        }
+    }
+    
+    private static final class ImportRow {
+        
+        private final long line;
+        private final String username;
+        private final LocalDate date;
+        private final Attendance.AttendanceStatus status;
+        private Long userId;
+        
+        private ImportRow(long line, String username, LocalDate date, Attendance.AttendanceStatus status) {
+            this.line = line;
+            this.username = username;
+            this.date = date;
+            this.status = status;
+        }
+    }
+    
+    private static final class AttendanceKey {
+        
+        private final long userId;
+        private final LocalDate date;
+        
+        private AttendanceKey(long userId, LocalDate date) {
+            this.userId = userId;
+            this.date = date;
+        }
+        
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof AttendanceKey)) {
+                return false;
+            }
+            AttendanceKey key = (AttendanceKey) other;
+            return userId == key.userId && date.equals(key.date);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, date);
+        }
+    }
+    
+    private static final class BatchOutcome {
+        
+        private long inserted;
+        private long updated;
+        private long unchanged;
+    }
+}
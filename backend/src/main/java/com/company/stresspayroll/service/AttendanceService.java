@@ -0,0 +1,63 @@
+package com.company.stresspayroll.service;
+
+import com.company.stresspayroll.dto.AttendanceEntry;
+import com.company.stresspayroll.events.AttendanceMarkedEvent;
+import com.company.stresspayroll.model.Attendance;
+import com.company.stresspayroll.model.User;
+import com.company.stresspayroll.repository.AttendanceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+public class AttendanceService {
+    
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+    
+    @Autowired
+    private DashboardAggregateService dashboardAggregateService;
+    
+    @Autowired
+    private AttendanceBitmapIndex attendanceBitmapIndex;
+    
+    @Autowired
+    private PayslipRecomputeService payslipRecomputeService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Transactional
+    public Attendance markAttendance(User employee, LocalDate date, Attendance.AttendanceStatus status) {
+        if (attendanceRepository.existsByUserAndDate(employee, date)) {
+            throw new RuntimeException("Attendance record already exists for this date");
+        }
+        
+        Attendance attendance = attendanceRepository.save(new Attendance(employee, date, status));
+        dashboardAggregateService.recordAttendanceChange(date, null, status);
+        attendanceBitmapIndex.recordAfterCommit(employee.getId(), date, status);
+        payslipRecomputeService.markDirty(employee.getId(), date.getYear(), date.getMonthValue());
+        eventPublisher.publishEvent(new AttendanceMarkedEvent(employee.getId(), date, status));
+        return attendance;
+    }
+    
+    /**
+     * Present, paid leave and unpaid leave days for an employee between two dates,
+     * indexed by status ordinal. Reads the bitmap index, or counts the given records
+     * while the index is still loading.
+     */
+    public long[] countByStatus(User employee, LocalDate startDate, LocalDate endDate, List<AttendanceEntry> records) {
+        if (attendanceBitmapIndex.isReady()) {
+            return attendanceBitmapIndex.countByStatus(employee.getId(), startDate, endDate);
+        }
+        long[] counts = new long[3];
+        for (AttendanceEntry record : records) {
+            counts[record.getStatus().ordinal()]++;
+        }
+        return counts;
+    }
+}
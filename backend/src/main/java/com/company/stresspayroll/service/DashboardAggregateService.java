@@ -0,0 +1,150 @@
+package com.company.stresspayroll.service;
+
+import com.company.stresspayroll.dto.DashboardCounts;
+import com.company.stresspayroll.model.Attendance;
+import com.company.stresspayroll.model.MonthlyAggregate;
+import com.company.stresspayroll.model.User;
+import com.company.stresspayroll.repository.AttendanceRepository;
+import com.company.stresspayroll.repository.JdbcUpserts;
+import com.company.stresspayroll.repository.MonthlyAggregateRepository;
+import com.company.stresspayroll.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the monthly dashboard counters. Every change is applied as an atomic
+ * increment inside the caller's transaction, so the counters commit or roll back
+ * together with the attendance or user write that caused them. A month's row is
+ * created by the same statement that increments it, so no writer has to wait for
+ * a separate transaction to insert it.
+ */
+@Service
+public class DashboardAggregateService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DashboardAggregateService.class);
+    
+    @Autowired
+    private MonthlyAggregateRepository monthlyAggregateRepository;
+    
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private JdbcUpserts jdbcUpserts;
+    
+    private String applyDeltaSql;
+    
+    @PostConstruct
+    public void init() {
+        applyDeltaSql = jdbcUpserts.upsertSql("monthly_aggregates",
+                List.of("period_year", "period_month"),
+                List.of("period_year", "period_month", "present_count", "paid_leave_count", "unpaid_leave_count",
+                        "employee_count", "updated_at"),
+                List.of("present_count", "paid_leave_count", "unpaid_leave_count", "employee_count"),
+                List.of("updated_at"));
+    }
+    
+    @Transactional
+    public void recordAttendanceChange(LocalDate date, Attendance.AttendanceStatus oldStatus,
+                                       Attendance.AttendanceStatus newStatus) {
+        if (oldStatus == newStatus) {
+            return;
+        }
+        long[] delta = new long[3];
+        if (oldStatus != null) {
+            delta[oldStatus.ordinal()]--;
+        }
+        if (newStatus != null) {
+            delta[newStatus.ordinal()]++;
+        }
+        applyDelta(date.getYear(), date.getMonthValue(), delta[0], delta[1], delta[2], 0);
+    }
+    
+    /**
+     * Adjusts the counters for a batch of attendance changes in one month, e.g. from a
+     * bulk import. Deltas are indexed by {@link Attendance.AttendanceStatus#ordinal()}.
+     */
+    @Transactional
+    public void recordAttendanceDeltas(int year, int month, long[] deltas) {
+        applyDelta(year, month, deltas[0], deltas[1], deltas[2], 0);
+    }
+    
+    @Transactional
+    public void recordEmployeeCountChange(LocalDateTime registeredAt, long delta) {
+        applyDelta(registeredAt.getYear(), registeredAt.getMonthValue(), 0, 0, 0, delta);
+    }
+    
+    @Transactional(readOnly = true)
+    public DashboardCounts getDashboardCounts(int year, int month) {
+        long totalEmployees = 0;
+        MonthlyAggregate period = new MonthlyAggregate(year, month);
+        for (MonthlyAggregate aggregate : monthlyAggregateRepository.findPeriodAndAllTime(year, month)) {
+            if (aggregate.isAllTime()) {
+                totalEmployees = aggregate.getEmployeeCount();
+            } else {
+                period = aggregate;
+            }
+        }
+        return new DashboardCounts(totalEmployees, period.getTotalAttendance(), period.getPresentCount(),
+                                   period.getPaidLeaveCount(), period.getUnpaidLeaveCount());
+    }
+    
+    /**
+     * Recomputes every counter from the attendance and users tables.
+     */
+    @Transactional
+    public int rebuild() {
+        monthlyAggregateRepository.deleteAllRows();
+        
+        Map<Integer, MonthlyAggregate> aggregates = new HashMap<>();
+        MonthlyAggregate allTime = new MonthlyAggregate(MonthlyAggregate.ALL_TIME, MonthlyAggregate.ALL_TIME);
+        aggregates.put(0, allTime);
+        
+        for (Object[] row : attendanceRepository.countGroupedByMonthAndStatus()) {
+            MonthlyAggregate aggregate = aggregateFor(aggregates, (Number) row[0], (Number) row[1]);
+            aggregate.addAttendance((Attendance.AttendanceStatus) row[2], ((Number) row[3]).longValue());
+        }
+        for (Object[] row : userRepository.countByRoleGroupedByCreatedMonth(User.Role.EMPLOYEE)) {
+            long count = ((Number) row[2]).longValue();
+            MonthlyAggregate aggregate = aggregateFor(aggregates, (Number) row[0], (Number) row[1]);
+            aggregate.setEmployeeCount(aggregate.getEmployeeCount() + count);
+            allTime.setEmployeeCount(allTime.getEmployeeCount() + count);
+        }
+        
+        List<MonthlyAggregate> saved = monthlyAggregateRepository.saveAll(aggregates.values());
+        logger.info("Rebuilt {} monthly dashboard aggregates", saved.size());
+        return saved.size();
+    }
+    
+    private MonthlyAggregate aggregateFor(Map<Integer, MonthlyAggregate> aggregates, Number year, Number month) {
+        int y = year.intValue();
+        int m = month.intValue();
+        return aggregates.computeIfAbsent(y * 100 + m, key -> new MonthlyAggregate(y, m));
+    }
+    
+    private void applyDelta(int year, int month, long present, long paidLeave, long unpaidLeave, long employees) {
+        upsert(year, month, present, paidLeave, unpaidLeave, employees);
+        if (employees != 0) {
+            upsert(MonthlyAggregate.ALL_TIME, MonthlyAggregate.ALL_TIME, 0, 0, 0, employees);
+        }
+    }
+    
+    private void upsert(int year, int month, long present, long paidLeave, long unpaidLeave, long employees) {
+        jdbcUpserts.upsert("monthly-aggregate", applyDeltaSql, year, month, present, paidLeave, unpaidLeave, employees,
+                           Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
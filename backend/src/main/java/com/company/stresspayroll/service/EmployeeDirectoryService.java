@@ -0,0 +1,103 @@
+package com.company.stresspayroll.service;
+
+import com.company.stresspayroll.dto.EmployeeDirectoryEntry;
+import com.company.stresspayroll.model.User;
+import com.company.stresspayroll.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the full employee directory to an output stream as a JSON array.
+ * <p>
+ * Rows come from a forward-only query stream of DTO projections and each one is
+ * written field by field with a {@link JsonGenerator}, so neither the list nor a tree
+ * of the response is ever held in memory. The output matches what Jackson writes for
+ * a {@code List<EmployeeDirectoryEntry>}.
+ */
+@Service
+public class EmployeeDirectoryService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeDirectoryService.class);
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private TransactionTemplate readOnlyTemplate;
+    
+    @PostConstruct
+    public void init() {
+        readOnlyTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate.setReadOnly(true);
+    }
+    
+    public long writeDirectory(OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        
+        Long rows;
+        try {
+            rows = readOnlyTemplate.execute(status -> {
+                try (Stream<EmployeeDirectoryEntry> stream = userRepository.streamDirectory(User.Role.EMPLOYEE)) {
+                    return writeEntries(stream.iterator(), json);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        json.flush();
+        
+        logger.debug("Wrote {} directory entries in {} ms", rows, System.currentTimeMillis() - start);
+        return rows;
+    }
+    
+    /**
+     * Writes the entries as a JSON array. Public so the output can be benchmarked and
+     * compared without a database.
+     */
+    public static long writeEntries(Iterator<EmployeeDirectoryEntry> entries, JsonGenerator json) throws IOException {
+        json.writeStartArray();
+        long count = 0;
+        while (entries.hasNext()) {
+            EmployeeDirectoryEntry entry = entries.next();
+            json.writeStartObject();
+            json.writeNumberField("id", entry.getId());
+            json.writeStringField("username", entry.getUsername());
+            json.writeStringField("email", entry.getEmail());
+            json.writeStringField("fullName", entry.getFullName());
+            json.writeStringField("phone", entry.getPhone());
+            json.writeStringField("department", entry.getDepartment());
+            json.writeStringField("position", entry.getPosition());
+            json.writeNumberField("baseSalary", entry.getBaseSalary());
+            // Same format as Jackson's LocalDateTimeSerializer, which always writes seconds
+            json.writeStringField("createdAt", entry.getCreatedAt() == null
+                    ? null : DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(entry.getCreatedAt()));
+            json.writeEndObject();
+            count++;
+        }
+        json.writeEndArray();
+        return count;
+    }
+}
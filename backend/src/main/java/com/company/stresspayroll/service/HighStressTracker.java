@@ -0,0 +1,167 @@
+package com.company.stresspayroll.service;
+
+import com.company.stresspayroll.dto.HighStressAlert;
+import com.company.stresspayroll.events.HighStressRecordedEvent;
+import com.company.stresspayroll.model.StressRecord;
+import com.company.stresspayroll.repository.StressRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the most recent high-stress alert of the last {@code stress.high.top-k}
+ * employees in memory so the HR dashboard never queries stress records.
+ * <p>
+ * Entries are ordered by when they were recorded, one per employee. The list is
+ * seeded from the database at startup and then maintained as stress records are saved,
+ * once the transaction saving them commits.
+ */
+@Service
+public class HighStressTracker {
+    
+    private static final Logger logger = LoggerFactory.getLogger(HighStressTracker.class);
+    
+    @Value("${stress.high.threshold:7}")
+    private int threshold;
+    
+    @Value("${stress.high.top-k:10}")
+    private int topK;
+    
+    @Autowired
+    private StressRecordRepository stressRecordRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    // Oldest first, keyed by user id; guarded by this
+    private final LinkedHashMap<Long, HighStressAlert> recentByUser = new LinkedHashMap<>();
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        Map<Long, HighStressAlert> newestFirst = new LinkedHashMap<>();
+        Long cursor = null;
+        PageRequest page = PageRequest.of(0, Math.max(topK, 1) * 4);
+        while (newestFirst.size() < topK) {
+            List<HighStressAlert> alerts = stressRecordRepository.findHighStressPage(threshold, cursor, page);
+            for (HighStressAlert alert : alerts) {
+                if (newestFirst.size() < topK) {
+                    newestFirst.putIfAbsent(alert.getUserId(), alert);
+                }
+            }
+            if (alerts.size() < page.getPageSize()) {
+                break;
+            }
+            cursor = alerts.get(alerts.size() - 1).getId();
+        }
+        
+        List<HighStressAlert> seeded = new ArrayList<>(newestFirst.values());
+        Collections.reverse(seeded);
+        synchronized (this) {
+            // Alerts recorded while seeding are newer than anything read from the database
+            List<HighStressAlert> live = new ArrayList<>(recentByUser.values());
+            recentByUser.clear();
+            for (HighStressAlert alert : seeded) {
+                recentByUser.put(alert.getUserId(), alert);
+            }
+            for (HighStressAlert alert : live) {
+                append(alert);
+            }
+            trim();
+        }
+        logger.info("Seeded high-stress tracker with {} employees above level {}", seeded.size(), threshold);
+    }
+    
+    /**
+     * Updates the tracker once the transaction that created or changed a stress record
+     * commits, or immediately when there is no transaction. A rolled back save leaves
+     * the tracker untouched.
+     */
+    public void onStressRecordSaved(StressRecord record) {
+        Long recordId = record.getId();
+        afterCommit(() -> refresh(recordId));
+    }
+    
+    public synchronized void record(HighStressAlert alert) {
+        append(alert);
+        trim();
+    }
+    
+    /**
+     * Returns the tracked alerts, newest first.
+     */
+    public synchronized List<HighStressAlert> getRecent() {
+        List<HighStressAlert> alerts = new ArrayList<>(recentByUser.values());
+        Collections.reverse(alerts);
+        return alerts;
+    }
+    
+    public int getThreshold() {
+        return threshold;
+    }
+    
+    private void refresh(Long recordId) {
+        // Concurrent saves of one record can commit in one order and get here in the
+        // other, so the committed row is read again under the lock; the last refresh
+        // to run then always applies the latest commit
+        HighStressAlert alert;
+        synchronized (this) {
+            alert = stressRecordRepository.findAlertById(recordId)
+                    .filter(found -> found.getStressLevel() > threshold)
+                    .orElse(null);
+            if (alert == null) {
+                discardRecord(recordId);
+            } else {
+                record(alert);
+            }
+        }
+        if (alert != null) {
+            eventPublisher.publishEvent(new HighStressRecordedEvent(alert));
+        }
+    }
+    
+    private synchronized void discardRecord(Long recordId) {
+        recentByUser.values().removeIf(alert -> alert.getId().equals(recordId));
+    }
+    
+    private void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+    
+    private void append(HighStressAlert alert) {
+        // Re-inserting moves the employee to the newest position
+        recentByUser.remove(alert.getUserId());
+        recentByUser.put(alert.getUserId(), alert);
+    }
+    
+    private void trim() {
+        Iterator<Long> oldest = recentByUser.keySet().iterator();
+        while (recentByUser.size() > topK && oldest.hasNext()) {
+            oldest.next();
+            oldest.remove();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.company.stresspayroll.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs at most one computation per key at a time in this JVM. Callers that arrive
+ * while a computation for their key is in flight wait for it and share its result or
+ * exception instead of repeating the work. Keys for different pay periods never
+ * contend, as the map locks per bin rather than globally.
+ * <p>
+ * This only removes duplicate work within one instance; the database's unique
+ * constraints still decide between concurrent writers.
+ */
+public final class InFlightCoalescer<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    public InFlightCoalescer(MeterRegistry meterRegistry, String operation) {
+        this.coalesced = Counter.builder("payroll.requests.coalesced")
+                .description("Requests that waited for an identical in-flight request instead of computing again")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    public V run(K key, Supplier<V> computation) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+        try {
+            V result = computation.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
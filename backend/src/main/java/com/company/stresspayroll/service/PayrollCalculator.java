@@ -0,0 +1,84 @@
+package com.company.stresspayroll.service;
+
+import com.company.stresspayroll.model.Payslip;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Pure payroll arithmetic shared by the pay rules. Nothing in here touches the
+ * database, so it is safe to call from worker threads.
+ * <p>
+ * The rules calculate on {@code long} minor units (cents) and only turn amounts into
+ * {@link BigDecimal} for the {@link Payslip} itself. The daily salary is rounded
+ * HALF_UP to the cent exactly as {@code BigDecimal.divide(22, 2, HALF_UP)} does, so
+ * the amounts equal the BigDecimal methods below, scale included. Salaries with too
+ * many digits for a {@code long} use those methods.
+ */
+public final class PayrollCalculator {
+    
+    public static final int WORKING_DAYS_PER_MONTH = 22;
+    
+    public static final int MONEY_SCALE = 2;
+    
+    // Keeps cents times a month of unpaid leave, and the rounding below, far from overflow
+    private static final int MAX_MINOR_UNIT_DIGITS = 16;
+    
+    private PayrollCalculator() {}
+    
+    public static int unpaidLeaves(long totalLeaves, int paidLeavesAllowed) {
+        return Math.max(0, (int) totalLeaves - paidLeavesAllowed);
+    }
+    
+    public static BigDecimal dailySalary(BigDecimal baseSalary) {
+        return dailySalary(baseSalary, WORKING_DAYS_PER_MONTH);
+    }
+    
+    public static BigDecimal dailySalary(BigDecimal baseSalary, int workingDaysPerMonth) {
+        return baseSalary.divide(BigDecimal.valueOf(workingDaysPerMonth), MONEY_SCALE, RoundingMode.HALF_UP);
+    }
+    
+    public static BigDecimal unpaidLeaveDeductions(BigDecimal baseSalary, int unpaidLeaves) {
+        return dailySalary(baseSalary).multiply(BigDecimal.valueOf(unpaidLeaves));
+    }
+    
+    public static boolean fitsMinorUnits(BigDecimal amount) {
+        return amount.scale() <= MONEY_SCALE
+                && amount.precision() - amount.scale() + MONEY_SCALE <= MAX_MINOR_UNIT_DIGITS;
+    }
+    
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.scaleByPowerOfTen(MONEY_SCALE).longValueExact();
+    }
+    
+    public static BigDecimal fromMinorUnits(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, MONEY_SCALE);
+    }
+    
+    public static long dailySalaryMinor(long baseSalaryMinor) {
+        return dailySalaryMinor(baseSalaryMinor, WORKING_DAYS_PER_MONTH);
+    }
+    
+    public static long dailySalaryMinor(long baseSalaryMinor, int workingDaysPerMonth) {
+        return multiplyDivideHalfUp(baseSalaryMinor, 1, workingDaysPerMonth);
+    }
+    
+    /**
+     * {@code value * multiplier / divisor} rounded HALF_UP, like BigDecimal, for a
+     * positive divisor. Throws {@link ArithmeticException} instead of overflowing.
+     */
+    public static long multiplyDivideHalfUp(long value, long multiplier, long divisor) {
+        long product = Math.multiplyExact(value, multiplier);
+        // HALF_UP: add half the divisor to the magnitude, then truncate
+        long magnitude = Math.addExact(Math.multiplyExact(2, Math.abs(product)), divisor) / (2 * divisor);
+        return product < 0 ? -magnitude : magnitude;
+    }
+    
+    public static long unpaidLeaveDeductionsMinor(long baseSalaryMinor, int unpaidLeaves) {
+        return Math.multiplyExact(dailySalaryMinor(baseSalaryMinor), (long) unpaidLeaves);
+    }
+    
+    public static int stressLevel(int overtimeHours) {
+        return Math.min(10, Math.max(1, overtimeHours / 10 + 1));
+    }
+}
@@ -0,0 +1,150 @@
+package com.company.stresspayroll.service;
+
+import com.company.stresspayroll.dto.PayslipExportRow;
+import com.company.stresspayroll.repository.PayslipRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes every payslip of a pay period to an output stream as CSV or NDJSON.
+ * <p>
+ * Rows come from a forward-only query stream of DTO projections, so heap use stays
+ * flat however many payslips the period has, and bytes reach the client as soon as
+ * the first buffer fills.
+ */
+@Service
+public class PayrollExportService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PayrollExportService.class);
+    
+    public enum Format {
+        CSV, NDJSON
+    }
+    
+    private static final String CSV_HEADER =
+            "payslipId,userId,username,fullName,department,month,year,baseSalary,unpaidLeaveDeductions,overtimePay,stressAllowance,finalSalary,generatedAt";
+    
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    
+    @Autowired
+    private PayslipRepository payslipRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private TransactionTemplate readOnlyTemplate;
+    
+    @PostConstruct
+    public void init() {
+        readOnlyTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate.setReadOnly(true);
+    }
+    
+    public long exportPayslips(Integer month, Integer year, Format format, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        
+        Long rows;
+        try {
+            rows = readOnlyTemplate.execute(status -> {
+                try (Stream<PayslipExportRow> stream = payslipRepository.streamExportRows(month, year)) {
+                    return format == Format.CSV ? writeCsv(stream.iterator(), writer) : writeNdjson(stream.iterator(), writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        
+        logger.info("Exported {} payslips for {}/{} as {} in {} ms", rows, month, year, format, System.currentTimeMillis() - start);
+        return rows;
+    }
+    
+    private long writeCsv(Iterator<PayslipExportRow> rows, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        long count = 0;
+        while (rows.hasNext()) {
+            PayslipExportRow row = rows.next();
+            writer.write(String.valueOf(row.getPayslipId()));
+            writer.write(',');
+            writer.write(String.valueOf(row.getUserId()));
+            writer.write(',');
+            writer.write(csvField(row.getUsername()));
+            writer.write(',');
+            writer.write(csvField(row.getFullName()));
+            writer.write(',');
+            writer.write(csvField(row.getDepartment()));
+            writer.write(',');
+            writer.write(String.valueOf(row.getMonth()));
+            writer.write(',');
+            writer.write(String.valueOf(row.getYear()));
+            writer.write(',');
+            writer.write(row.getBaseSalary().toPlainString());
+            writer.write(',');
+            writer.write(row.getUnpaidLeaveDeductions() == null ? "" : row.getUnpaidLeaveDeductions().toPlainString());
+            writer.write(',');
+            writer.write(row.getOvertimePay() == null ? "" : row.getOvertimePay().toPlainString());
+            writer.write(',');
+            writer.write(row.getStressAllowance() == null ? "" : row.getStressAllowance().toPlainString());
+            writer.write(',');
+            writer.write(row.getFinalSalary().toPlainString());
+            writer.write(',');
+            writer.write(row.getGeneratedAt() == null ? "" : row.getGeneratedAt().toString());
+            writer.write('\n');
+            count++;
+        }
+        return count;
+    }
+    
+    private long writeNdjson(Iterator<PayslipExportRow> rows, Writer writer) throws IOException {
+        // The writer is buffered, so do not flush after every value
+        SequenceWriter json = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n")
+                .writeValues(writer);
+        long count = 0;
+        while (rows.hasNext()) {
+            json.write(rows.next());
+            count++;
+        }
+        if (count > 0) {
+            writer.write('\n');
+        }
+        json.flush();
+        return count;
+    }
+    
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
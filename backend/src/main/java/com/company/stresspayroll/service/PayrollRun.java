@@ -0,0 +1,143 @@
+package com.company.stresspayroll.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress of a bulk payroll run. Counters are updated concurrently by the chunk
+ * workers and read by the status endpoint while the run is in flight.
+ */
+public class PayrollRun {
+    
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+    
+    private final String id;
+    private final Integer month;
+    private final Integer year;
+    private final AtomicInteger processed = new AtomicInteger();
+    private final AtomicInteger generated = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    
+    private volatile Status status = Status.PENDING;
+    private volatile long totalEmployees;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile long startNanos;
+    private volatile long finishNanos;
+    private volatile String error;
+    
+    public PayrollRun(String id, Integer month, Integer year) {
+        this.id = id;
+        this.month = month;
+        this.year = year;
+    }
+    
+    void start(long totalEmployees) {
+        this.totalEmployees = totalEmployees;
+        this.startedAt = LocalDateTime.now();
+        this.startNanos = System.nanoTime();
+        this.status = Status.RUNNING;
+    }
+    
+    void complete() {
+        finish(Status.COMPLETED);
+    }
+    
+    void fail(String error) {
+        this.error = error;
+        finish(Status.FAILED);
+    }
+    
+    private void finish(Status status) {
+        this.finishNanos = System.nanoTime();
+        this.finishedAt = LocalDateTime.now();
+        this.status = status;
+    }
+    
+    void recordChunk(int generated, int skipped, int failed) {
+        this.generated.addAndGet(generated);
+        this.skipped.addAndGet(skipped);
+        this.failed.addAndGet(failed);
+        this.processed.addAndGet(generated + skipped + failed);
+    }
+    
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+    
+    // Getters
+    public String getId() {
+        return id;
+    }
+    
+    public Integer getMonth() {
+        return month;
+    }
+    
+    public Integer getYear() {
+        return year;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public long getTotalEmployees() {
+        return totalEmployees;
+    }
+    
+    public int getProcessed() {
+        return processed.get();
+    }
+    
+    public int getGenerated() {
+        return generated.get();
+    }
+    
+    public int getSkipped() {
+        return skipped.get();
+    }
+    
+    public int getFailed() {
+        return failed.get();
+    }
+    
+    public double getPercentComplete() {
+        if (totalEmployees == 0) {
+            return isFinished() ? 100.0 : 0.0;
+        }
+        return Math.round(getProcessed() * 10000.0 / totalEmployees) / 100.0;
+    }
+    
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+    
+    public long getElapsedMillis() {
+        if (startedAt == null) {
+            return 0;
+        }
+        long end = isFinished() ? finishNanos : System.nanoTime();
+        return Duration.ofNanos(end - startNanos).toMillis();
+    }
+    
+    public double getEmployeesPerSecond() {
+        long elapsedMillis = getElapsedMillis();
+        if (elapsedMillis == 0) {
+            return 0.0;
+        }
+        return Math.round(getProcessed() * 100000.0 / elapsedMillis) / 100.0;
+    }
+    
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,311 @@
+package com.company.stresspayroll.service;
+
+import com.company.stresspayroll.events.DashboardRefreshEvent;
+import com.company.stresspayroll.model.EmployeeProfile;
+import com.company.stresspayroll.model.Payslip;
+import com.company.stresspayroll.model.User;
+import com.company.stresspayroll.payroll.PayBatch;
+import com.company.stresspayroll.payroll.PayRules;
+import com.company.stresspayroll.repository.AttendanceRepository;
+import com.company.stresspayroll.repository.EmployeeProfileRepository;
+import com.company.stresspayroll.repository.PayslipRepository;
+import com.company.stresspayroll.repository.StressRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Generates payslips for every employee in a pay period.
+ * <p>
+ * A single coordinator thread pages through employee profiles by user id and hands
+ * each chunk to a worker pool sized to the available cores. Workers load leave counts,
+ * existing payslips and, when the pay rules need them, stress records for the whole
+ * chunk in one query each, evaluate the pay rules over the chunk as one
+ * {@link PayBatch} and insert the payslips with a JDBC batch.
+ */
+@Service
+public class PayrollRunService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PayrollRunService.class);
+    
+    private static final int MAX_RETAINED_RUNS = 100;
+    
+    private static final String INSERT_PAYSLIP_SQL =
+            "INSERT INTO payslips (user_id, payslip_month, payslip_year, base_salary, unpaid_leave_deductions, "
+            + "overtime_pay, stress_allowance, final_salary, generated_at, revision) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 1)";
+    
+    @Autowired
+    private EmployeeProfileRepository employeeProfileRepository;
+    
+    @Autowired
+    private AttendanceBitmapIndex attendanceBitmapIndex;
+    
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+    
+    @Autowired
+    private PayslipRepository payslipRepository;
+    
+    @Autowired
+    private StressRecordRepository stressRecordRepository;
+    
+    @Autowired
+    private PayRules payRules;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${payroll.run.chunk-size:500}")
+    private int chunkSize;
+    
+    @Value("${payroll.run.parallelism:0}")
+    private int parallelism;
+    
+    private final Map<String, PayrollRun> runs = new ConcurrentHashMap<>();
+    
+    private ExecutorService coordinator;
+    
+    private ExecutorService workers;
+    
+    private int workerCount;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        workerCount = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger workerIds = new AtomicInteger();
+        coordinator = Executors.newSingleThreadExecutor(runnable -> daemon(runnable, "payroll-run-coordinator"));
+        workers = Executors.newFixedThreadPool(workerCount,
+                runnable -> daemon(runnable, "payroll-run-worker-" + workerIds.incrementAndGet()));
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+    
+    public synchronized PayrollRun startRun(Integer month, Integer year) {
+        YearMonth.of(year, month);
+        for (PayrollRun run : runs.values()) {
+            if (!run.isFinished() && run.getMonth().equals(month) && run.getYear().equals(year)) {
+                throw new RuntimeException("A payroll run for " + month + "/" + year + " is already in progress");
+            }
+        }
+        pruneFinishedRuns();
+        
+        PayrollRun run = new PayrollRun(UUID.randomUUID().toString(), month, year);
+        runs.put(run.getId(), run);
+        coordinator.submit(() -> execute(run));
+        return run;
+    }
+    
+    public PayrollRun getRun(String runId) {
+        PayrollRun run = runs.get(runId);
+        if (run == null) {
+            throw new RuntimeException("Payroll run not found: " + runId);
+        }
+        return run;
+    }
+    
+    private void execute(PayrollRun run) {
+        try {
+            run.start(employeeProfileRepository.countByUserRole(User.Role.EMPLOYEE));
+            
+            // Keep at most two chunks per worker in flight so memory stays bounded
+            Deque<Future<?>> inFlight = new ArrayDeque<>();
+            long afterUserId = 0L;
+            while (true) {
+                List<EmployeeProfile> chunk = employeeProfileRepository.findChunkByRoleAfterUserId(
+                        User.Role.EMPLOYEE, afterUserId, PageRequest.of(0, chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                afterUserId = chunk.get(chunk.size() - 1).getUser().getId();
+                inFlight.add(workers.submit(() -> processChunk(run, chunk)));
+                if (inFlight.size() >= workerCount * 2) {
+                    inFlight.poll().get();
+                }
+            }
+            for (Future<?> future : inFlight) {
+                future.get();
+            }
+            
+            run.complete();
+            logger.info("Payroll run {} for {}/{} finished: {} generated, {} skipped, {} failed in {} ms ({} employees/s)",
+                    run.getId(), run.getMonth(), run.getYear(), run.getGenerated(), run.getSkipped(),
+                    run.getFailed(), run.getElapsedMillis(), run.getEmployeesPerSecond());
+            if (run.getGenerated() > 0) {
+                eventPublisher.publishEvent(new DashboardRefreshEvent("payroll-run"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.fail("Payroll run interrupted");
+        } catch (Exception e) {
+            logger.error("Payroll run {} for {}/{} failed", run.getId(), run.getMonth(), run.getYear(), e);
+            run.fail(e.getMessage());
+        }
+    }
+    
+    private void processChunk(PayrollRun run, List<EmployeeProfile> chunk) {
+        YearMonth yearMonth = YearMonth.of(run.getYear(), run.getMonth());
+        LocalDate startDate = yearMonth.atDay(1);
+        LocalDate endDate = yearMonth.atEndOfMonth();
+        
+        List<Long> userIds = chunk.stream()
+                .map(profile -> profile.getUser().getId())
+                .collect(Collectors.toList());
+        
+        Set<Long> alreadyGenerated = new HashSet<>(
+                payslipRepository.findUserIdsWithPayslip(userIds, run.getMonth(), run.getYear()));
+        
+        Map<Long, Long> leavesByUser = new HashMap<>();
+        if (attendanceBitmapIndex.isReady()) {
+            for (Long userId : userIds) {
+                leavesByUser.put(userId, attendanceBitmapIndex.countLeaves(userId, run.getYear(), run.getMonth()));
+            }
+        } else {
+            for (Object[] row : attendanceRepository.countTotalLeavesByUserIdsAndDateRange(userIds, startDate, endDate)) {
+                leavesByUser.put((Long) row[0], (Long) row[1]);
+            }
+        }
+        
+        Map<Long, Object[]> stressByUser = new HashMap<>();
+        if (payRules.usesStressRecords()) {
+            for (Object[] row : stressRecordRepository.findPayInputsByUserIds(userIds, run.getMonth(), run.getYear())) {
+                stressByUser.put((Long) row[0], row);
+            }
+        }
+        
+        List<EmployeeProfile> pending = new ArrayList<>(chunk.size());
+        PayBatch batch = new PayBatch(chunk.size());
+        int skipped = 0;
+        int failed = 0;
+        for (EmployeeProfile profile : chunk) {
+            Long userId = profile.getUser().getId();
+            if (alreadyGenerated.contains(userId)) {
+                skipped++;
+                continue;
+            }
+            try {
+                Object[] stress = stressByUser.get(userId);
+                batch.add(profile.getBaseSalary(), profile.getPaidLeavesPerMonth(), leavesByUser.getOrDefault(userId, 0L),
+                        stress == null || stress[1] == null ? 0 : (Integer) stress[1],
+                        stress == null || stress[2] == null ? 0 : (Integer) stress[2]);
+                pending.add(profile);
+            } catch (RuntimeException e) {
+                logger.warn("Payroll run {} could not compute payslip for user {}: {}", run.getId(), userId, e.getMessage());
+                failed++;
+            }
+        }
+        payRules.evaluate(batch);
+        
+        List<Payslip> payslips = new ArrayList<>(pending.size());
+        for (int i = 0; i < pending.size(); i++) {
+            EmployeeProfile profile = pending.get(i);
+            User user = profile.getUser();
+            if (batch.isFailed(i)) {
+                logger.warn("Payroll run {} could not compute payslip for user {}: {}", run.getId(), user.getId(), batch.getFailure(i));
+                failed++;
+                continue;
+            }
+            payslips.add(batch.toPayslip(i, user, run.getMonth(), run.getYear(), profile.getBaseSalary()));
+        }
+        
+        int generated = 0;
+        if (!payslips.isEmpty()) {
+            Timestamp generatedAt = Timestamp.valueOf(LocalDateTime.now());
+            try {
+                transactionTemplate.executeWithoutResult(status -> insertPayslips(payslips, generatedAt));
+                generated = payslips.size();
+            } catch (DataIntegrityViolationException e) {
+                // Some employee generated their payslip since the chunk was checked, so
+                // insert one at a time and skip the ones that now exist
+                logger.debug("Payroll run {}: payslips were generated concurrently, inserting chunk row by row", run.getId());
+                for (Payslip payslip : payslips) {
+                    try {
+                        insertPayslips(Collections.singletonList(payslip), generatedAt);
+                        generated++;
+                    } catch (DataIntegrityViolationException duplicate) {
+                        skipped++;
+                    }
+                }
+            }
+        }
+        
+        run.recordChunk(generated, skipped, failed);
+        logger.debug("Payroll run {}: {}/{} employees processed", run.getId(), run.getProcessed(), run.getTotalEmployees());
+    }
+    
+    private void insertPayslips(List<Payslip> payslips, Timestamp generatedAt) {
+        jdbcTemplate.batchUpdate(INSERT_PAYSLIP_SQL, payslips, payslips.size(), (ps, payslip) -> {
+            ps.setLong(1, payslip.getUser().getId());
+            ps.setInt(2, payslip.getMonth());
+            ps.setInt(3, payslip.getYear());
+            ps.setBigDecimal(4, payslip.getBaseSalary());
+            ps.setBigDecimal(5, payslip.getUnpaidLeaveDeductions());
+            ps.setBigDecimal(6, payslip.getOvertimePay());
+            ps.setBigDecimal(7, payslip.getStressAllowance());
+            ps.setBigDecimal(8, payslip.getFinalSalary());
+            ps.setTimestamp(9, generatedAt);
+        });
+    }
+    
+    private void pruneFinishedRuns() {
+        if (runs.size() < MAX_RETAINED_RUNS) {
+            return;
+        }
+        runs.values().stream()
+                .filter(PayrollRun::isFinished)
+                .sorted((a, b) -> a.getFinishedAt().compareTo(b.getFinishedAt()))
+                .limit(runs.size() - MAX_RETAINED_RUNS + 1)
+                .map(PayrollRun::getId)
+                .collect(Collectors.toList())
+                .forEach(runs::remove);
+    }
+    
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
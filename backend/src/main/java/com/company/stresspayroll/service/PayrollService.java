@@ -1,15 +1,29 @@
 package com.company.stresspayroll.service;
 
+import com.company.stresspayroll.dto.StressHistoryEntry;
+import com.company.stresspayroll.events.PayslipGeneratedEvent;
 import com.company.stresspayroll.model.*;
+import com.company.stresspayroll.payroll.PayRules;
 import com.company.stresspayroll.repository.*;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import javax.annotation.PostConstruct;
+import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -27,6 +41,52 @@ public class PayrollService {
     @Autowired
     private StressRecordRepository stressRecordRepository;
     
+    @Autowired
+    private HighStressTracker highStressTracker;
+    
+    @Autowired
+    private AttendanceBitmapIndex attendanceBitmapIndex;
+    
+    @Autowired
+    private PayRules payRules;
+    
+    @Autowired
+    private PayslipRecomputeService payslipRecomputeService;
+    
+    @Autowired
+    private JdbcUpserts jdbcUpserts;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    private InFlightCoalescer<List<Object>, Payslip> payslipGenerations;
+    
+    private InFlightCoalescer<List<Object>, StressRecord> stressRecordWrites;
+    
+    private String upsertStressRecordSql;
+    
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        payslipGenerations = new InFlightCoalescer<>(meterRegistry, "payslip-generate");
+        stressRecordWrites = new InFlightCoalescer<>(meterRegistry, "stress-record-create");
+        upsertStressRecordSql = jdbcUpserts.upsertSql("stress_records",
+                List.of("user_id", "record_month", "record_year"),
+                List.of("user_id", "record_month", "record_year", "overtime_hours", "overtime_reason", "stress_level",
+                        "created_at"),
+                List.of(),
+                List.of("overtime_hours", "overtime_reason", "stress_level"));
+    }
+    
+    @Timed(value = "payroll.payslip.generate", description = "Time to generate or fetch an employee's payslip for a month")
     public Payslip generatePayslip(User user, Integer month, Integer year) {
         // Check if payslip already exists for this month/year
         Optional<Payslip> existingPayslip = payslipRepository.findByUserAndMonthAndYear(user, month, year);
@@ -34,8 +94,14 @@ public class PayrollService {
             return existingPayslip.get();
         }
         
+        // Concurrent requests for the same pay period share one calculation
+        return payslipGenerations.run(Arrays.asList(user.getId(), month, year),
+                () -> calculateAndSavePayslip(user, month, year));
+    }
+    
+    private Payslip calculateAndSavePayslip(User user, Integer month, Integer year) {
         // Get employee profile
-        EmployeeProfile profile = employeeProfileRepository.findByUser(user)
+        EmployeeProfile profile = employeeProfileRepository.findCachedByUser(user)
                 .orElseThrow(() -> new RuntimeException("Employee profile not found"));
         
         // Calculate date range for the month
@@ -43,57 +109,83 @@ public class PayrollService {
         LocalDate startDate = yearMonth.atDay(1);
         LocalDate endDate = yearMonth.atEndOfMonth();
         
-        // Count total leaves taken
-        long totalLeaves = attendanceRepository.countTotalLeavesByUserAndDateRange(user, startDate, endDate);
-        
-        // Calculate unpaid leaves
-        int paidLeavesAllowed = profile.getPaidLeavesPerMonth();
-        int unpaidLeaves = Math.max(0, (int) totalLeaves - paidLeavesAllowed);
-        
-        // Calculate daily salary (assuming 22 working days per month)
-        BigDecimal dailySalary = profile.getBaseSalary().divide(BigDecimal.valueOf(22), 2, RoundingMode.HALF_UP);
+        // Count total leaves taken, from the bitmap index once it has loaded
+        long totalLeaves = attendanceBitmapIndex.isReady()
+                ? attendanceBitmapIndex.countLeaves(user.getId(), year, month)
+                : attendanceRepository.countTotalLeavesByUserAndDateRange(user, startDate, endDate);
         
-        // Calculate deductions
-        BigDecimal unpaidLeaveDeductions = dailySalary.multiply(BigDecimal.valueOf(unpaidLeaves));
+        // Overtime and stress level only matter when a pay rule uses them
+        StressRecord stressRecord = payRules.usesStressRecords()
+                ? stressRecordRepository.findByUserAndMonthAndYear(user, month, year).orElse(null)
+                : null;
         
-        // Calculate final salary
-        BigDecimal finalSalary = profile.getBaseSalary().subtract(unpaidLeaveDeductions);
+        // Apply the pay rules, then save
+        Payslip payslip = payRules.calculatePayslip(user, month, year, profile, totalLeaves, stressRecord);
         
-        // Create and save payslip
-        Payslip payslip = new Payslip(user, month, year, profile.getBaseSalary(), 
-                                    unpaidLeaveDeductions, finalSalary);
-        
-        return payslipRepository.save(payslip);
+        try {
+            payslip = payslipRepository.save(payslip);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance or a payroll run saved this pay period first; read it back
+            // in a read-write transaction, as a replica may not have it yet
+            return transactionTemplate.execute(status -> payslipRepository.findByUserAndMonthAndYear(user, month, year))
+                    .orElseThrow(() -> e);
+        }
+        eventPublisher.publishEvent(new PayslipGeneratedEvent(payslip));
+        return payslip;
     }
     
+    @Transactional(readOnly = true)
     public List<Payslip> getPayslipsByUser(User user) {
         return payslipRepository.findByUserOrderByYearDescMonthDesc(user);
     }
     
+    /**
+     * A strong ETag for the employee's payslip history, read with one aggregate query
+     * so an unchanged history can be answered with 304 without loading it.
+     */
+    @Transactional(readOnly = true)
+    public String getPayslipHistoryETag(User user) {
+        Object[] version = payslipRepository.findHistoryVersionByUser(user).get(0);
+        long generatedAt = version[3] == null ? 0 : ((LocalDateTime) version[3]).toInstant(ZoneOffset.UTC).toEpochMilli();
+        return "\"" + version[0] + "-" + Objects.toString(version[1], "0") + "-" + Objects.toString(version[2], "0")
+                + "-" + generatedAt + "\"";
+    }
+    
+    @Timed(value = "stress.record.create", description = "Time to create or update a monthly stress record")
     public StressRecord createStressRecord(User user, Integer month, Integer year, 
                                          Integer overtimeHours, String overtimeReason) {
-        // Calculate stress level based on overtime hours
-        int stressLevel = Math.min(10, Math.max(1, overtimeHours / 10 + 1));
-        
-        // Check if stress record already exists
-        Optional<StressRecord> existingRecord = stressRecordRepository.findByUserAndMonthAndYear(user, month, year);
-        if (existingRecord.isPresent()) {
-            StressRecord record = existingRecord.get();
-            record.setOvertimeHours(overtimeHours);
-            record.setOvertimeReason(overtimeReason);
-            record.setStressLevel(stressLevel);
-            return stressRecordRepository.save(record);
-        }
-        
-        StressRecord stressRecord = new StressRecord(user, month, year, overtimeHours, overtimeReason, stressLevel);
-        return stressRecordRepository.save(stressRecord);
+        // Identical concurrent submissions share one write; different ones each upsert
+        return stressRecordWrites.run(Arrays.asList(user.getId(), month, year, overtimeHours, overtimeReason),
+                () -> upsertStressRecord(user, month, year, overtimeHours, overtimeReason));
     }
     
-    public List<StressRecord> getStressRecordsByUser(User user) {
-        return stressRecordRepository.findByUserOrderByYearDescMonthDesc(user);
+    private StressRecord upsertStressRecord(User user, Integer month, Integer year,
+                                            Integer overtimeHours, String overtimeReason) {
+        // The upsert bypasses the entity's bean validation, so check its constraints here
+        if (month <= 0 || year <= 0) {
+            throw new RuntimeException("Month and year must be positive");
+        }
+        return transactionTemplate.execute(status -> {
+            // Calculate stress level based on overtime hours
+            int stressLevel = PayrollCalculator.stressLevel(overtimeHours);
+            
+            // A generated payslip only changes if some pay rule reads overtime or stress
+            if (payRules.usesStressRecords()) {
+                payslipRecomputeService.markDirty(user.getId(), year, month);
+            }
+            
+            jdbcUpserts.upsert("stress-record", upsertStressRecordSql, user.getId(), month, year, overtimeHours,
+                               overtimeReason, stressLevel, Timestamp.valueOf(LocalDateTime.now()));
+            
+            StressRecord record = stressRecordRepository.findByUserAndMonthAndYear(user, month, year)
+                    .orElseThrow(() -> new IllegalStateException("Stress record missing after upsert"));
+            highStressTracker.onStressRecordSaved(record);
+            return record;
+        });
     }
     
-    public List<StressRecord> getLatestStressRecordsByUser(User user) {
-        return stressRecordRepository.findLatestStressRecordsByUser(user);
+    @Transactional(readOnly = true)
+    public List<StressHistoryEntry> getStressHistory(User user) {
+        return stressRecordRepository.findHistoryByUser(user);
     }
 }
@@ -0,0 +1,448 @@
+package com.company.stresspayroll.service;
+
+import com.company.stresspayroll.dto.PayslipRecomputeResult;
+import com.company.stresspayroll.events.DashboardRefreshEvent;
+import com.company.stresspayroll.model.Payslip;
+import com.company.stresspayroll.model.PayslipRevision;
+import com.company.stresspayroll.payroll.PayBatch;
+import com.company.stresspayroll.payroll.PayRules;
+import com.company.stresspayroll.repository.AttendanceRepository;
+import com.company.stresspayroll.repository.DirtyPayPeriodRepository;
+import com.company.stresspayroll.repository.EmployeeProfileRepository;
+import com.company.stresspayroll.repository.JdbcUpserts;
+import com.company.stresspayroll.repository.PayslipRepository;
+import com.company.stresspayroll.repository.PayslipRevisionRepository;
+import com.company.stresspayroll.repository.StressRecordRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps generated payslips in step with later changes to their inputs.
+ * <p>
+ * Writers mark the affected pay periods dirty in their own transaction, but only where
+ * a payslip already exists; periods without one are calculated fresh when generated.
+ * {@link #recompute()} then pages through the marks, rebuilds the marked payslips one
+ * pay period at a time as a {@link PayBatch}, and in one transaction per period keeps
+ * the replaced amounts as a revision, updates the payslip and clears the mark. A mark
+ * is only cleared if its change counter still matches, so a write that lands while
+ * its period is being recomputed leaves the period dirty for the next recompute. A
+ * payslip is only updated if its revision still matches; one rewritten elsewhere in
+ * the meantime gets no revision row and is marked dirty again.
+ * <p>
+ * Leave counts are read from the attendance table rather than the bitmap index, which
+ * is only updated after the writer's transaction commits.
+ */
+@Service
+public class PayslipRecomputeService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PayslipRecomputeService.class);
+    
+    private static final int MAX_MARK_ATTEMPTS = 3;
+    
+    // Open end of the range marked after a compensation change
+    private static final YearMonth LAST_PERIOD = YearMonth.of(9999, 12);
+    
+    // The period range is compared column by column, so the (user, year, month) index applies
+    private static final String MARK_UPDATE_SQL =
+            "UPDATE dirty_pay_periods SET changes = changes + 1, compensation_changed = compensation_changed OR ?, marked_at = ? "
+            + "WHERE user_id = ? AND period_year BETWEEN ? AND ? "
+            + "AND (period_year > ? OR period_month >= ?) AND (period_year < ? OR period_month <= ?)";
+    
+    private static final String MARK_INSERT_SQL =
+            "INSERT INTO dirty_pay_periods (user_id, period_year, period_month, changes, compensation_changed, marked_at) "
+            + "SELECT p.user_id, p.payslip_year, p.payslip_month, 1, ?, ? FROM payslips p "
+            + "WHERE p.user_id = ? AND p.payslip_year BETWEEN ? AND ? "
+            + "AND (p.payslip_year > ? OR p.payslip_month >= ?) AND (p.payslip_year < ? OR p.payslip_month <= ?) "
+            + "AND NOT EXISTS (SELECT 1 FROM dirty_pay_periods d WHERE d.user_id = p.user_id "
+            + "AND d.period_year = p.payslip_year AND d.period_month = p.payslip_month)";
+    
+    private static final String CLEAR_MARK_SQL = "DELETE FROM dirty_pay_periods WHERE id = ? AND changes = ?";
+    
+    private static final String INSERT_REVISION_SQL =
+            "INSERT INTO payslip_revisions (payslip_id, revision, base_salary, unpaid_leave_deductions, overtime_pay, "
+            + "stress_allowance, final_salary, generated_at, replaced_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final String UPDATE_PAYSLIP_SQL =
+            "UPDATE payslips SET base_salary = ?, unpaid_leave_deductions = ?, overtime_pay = ?, stress_allowance = ?, "
+            + "final_salary = ?, generated_at = ?, revision = revision + 1 WHERE id = ? AND revision = ?";
+    
+    @Autowired
+    private DirtyPayPeriodRepository dirtyPayPeriodRepository;
+    
+    @Autowired
+    private PayslipRepository payslipRepository;
+    
+    @Autowired
+    private PayslipRevisionRepository payslipRevisionRepository;
+    
+    @Autowired
+    private EmployeeProfileRepository employeeProfileRepository;
+    
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+    
+    @Autowired
+    private StressRecordRepository stressRecordRepository;
+    
+    @Autowired
+    private PayRules payRules;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private JdbcUpserts jdbcUpserts;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${payroll.run.chunk-size:500}")
+    private int chunkSize;
+    
+    private final ReentrantLock recomputeLock = new ReentrantLock();
+    
+    private TransactionTemplate transactionTemplate;
+    
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * Marks an employee's payslip for the month dirty, if one has been generated.
+     */
+    @Transactional
+    public void markDirty(Long userId, int year, int month) {
+        YearMonth period = YearMonth.of(year, month);
+        mark(userId, period, period, false);
+    }
+    
+    /**
+     * Marks the payslips of several employees and months dirty, e.g. after a bulk
+     * attendance import.
+     */
+    @Transactional
+    public void markDirty(Map<YearMonth, Set<Long>> userIdsByMonth) {
+        Timestamp markedAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>();
+        for (Map.Entry<YearMonth, Set<Long>> entry : userIdsByMonth.entrySet()) {
+            for (Long userId : entry.getValue()) {
+                args.add(markArgs(userId, entry.getKey(), entry.getKey(), false, markedAt));
+            }
+        }
+        if (args.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcUpserts.inSavepoint(() -> {
+                jdbcTemplate.batchUpdate(MARK_UPDATE_SQL, args);
+                return jdbcTemplate.batchUpdate(MARK_INSERT_SQL, args);
+            });
+        } catch (DuplicateKeyException e) {
+            // A concurrent writer got in first and both batches were rolled back to the
+            // savepoint; fall back to marking one period at a time
+            for (Map.Entry<YearMonth, Set<Long>> entry : userIdsByMonth.entrySet()) {
+                for (Long userId : entry.getValue()) {
+                    mark(userId, entry.getKey(), entry.getKey(), false);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Marks every generated payslip of the employee from the given month on dirty after
+     * a salary or paid leave change; earlier payslips keep the old compensation.
+     */
+    @Transactional
+    public void markCompensationChanged(Long userId, YearMonth from) {
+        mark(userId, from, LAST_PERIOD, true);
+    }
+    
+    public long countDirty() {
+        return dirtyPayPeriodRepository.count();
+    }
+    
+    public List<PayslipRevision> getRevisions(Long userId, Long payslipId) {
+        return payslipRevisionRepository.findByPayslipAndUser(payslipId, userId);
+    }
+    
+    @Timed(value = "payroll.payslip.recompute", description = "Time to recompute every dirty payslip")
+    public PayslipRecomputeResult recompute() {
+        if (!recomputeLock.tryLock()) {
+            throw new RuntimeException("A payslip recompute is already in progress");
+        }
+        try {
+            long start = System.nanoTime();
+            PayslipRecomputeResult result = new PayslipRecomputeResult();
+            long afterId = 0L;
+            while (true) {
+                List<Object[]> marks = dirtyPayPeriodRepository.findChunkAfterId(afterId, PageRequest.of(0, chunkSize));
+                if (marks.isEmpty()) {
+                    break;
+                }
+                afterId = (Long) marks.get(marks.size() - 1)[0];
+                result.setDirtyPeriods(result.getDirtyPeriods() + marks.size());
+                
+                Map<YearMonth, List<Object[]>> marksByMonth = new LinkedHashMap<>();
+                for (Object[] mark : marks) {
+                    marksByMonth.computeIfAbsent(YearMonth.of((Integer) mark[2], (Integer) mark[3]), month -> new ArrayList<>())
+                            .add(mark);
+                }
+                for (Map.Entry<YearMonth, List<Object[]>> entry : marksByMonth.entrySet()) {
+                    recomputeMonth(entry.getKey(), entry.getValue(), result);
+                }
+            }
+            result.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+            logger.info("Payslip recompute finished: {} dirty, {} revised, {} unchanged, {} failed, {} marked again in {} ms",
+                    result.getDirtyPeriods(), result.getRevised(), result.getUnchanged(), result.getFailed(),
+                    result.getMarkedAgain(), result.getElapsedMillis());
+            if (result.getRevised() > 0) {
+                eventPublisher.publishEvent(new DashboardRefreshEvent("payslip-recompute"));
+            }
+            return result;
+        } finally {
+            recomputeLock.unlock();
+        }
+    }
+    
+    private void mark(Long userId, YearMonth from, YearMonth to, boolean compensationChanged) {
+        for (int attempt = 1; ; attempt++) {
+            Object[] args = markArgs(userId, from, to, compensationChanged, Timestamp.valueOf(LocalDateTime.now()));
+            try {
+                // A rejected insert rolls back to the savepoint, so the transaction stays usable
+                jdbcUpserts.inSavepoint(() -> jdbcTemplate.update(MARK_UPDATE_SQL, args) + jdbcTemplate.update(MARK_INSERT_SQL, args));
+                return;
+            } catch (DuplicateKeyException e) {
+                // Another writer created the mark first; count this change against it
+                if (attempt == MAX_MARK_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+    
+    private static Object[] markArgs(Long userId, YearMonth from, YearMonth to, boolean compensationChanged,
+                                     Timestamp markedAt) {
+        return new Object[] {compensationChanged, markedAt, userId, from.getYear(), to.getYear(),
+                             from.getYear(), from.getMonthValue(), to.getYear(), to.getMonthValue()};
+    }
+    
+    private void recomputeMonth(YearMonth yearMonth, List<Object[]> marks, PayslipRecomputeResult result) {
+        int month = yearMonth.getMonthValue();
+        int year = yearMonth.getYear();
+        List<Long> userIds = new ArrayList<>(marks.size());
+        for (Object[] mark : marks) {
+            userIds.add((Long) mark[1]);
+        }
+        
+        Map<Long, Payslip> payslipsByUser = new HashMap<>();
+        for (Payslip payslip : payslipRepository.findByUserIdsAndPeriod(userIds, month, year)) {
+            payslipsByUser.put(payslip.getUser().getId(), payslip);
+        }
+        Map<Long, Object[]> profilesByUser = new HashMap<>();
+        for (Object[] row : employeeProfileRepository.findPayInputsByUserIds(userIds)) {
+            profilesByUser.put((Long) row[0], row);
+        }
+        Map<Long, Long> leavesByUser = new HashMap<>();
+        LocalDate startDate = yearMonth.atDay(1);
+        LocalDate endDate = yearMonth.atEndOfMonth();
+        for (Object[] row : attendanceRepository.countTotalLeavesByUserIdsAndDateRange(userIds, startDate, endDate)) {
+            leavesByUser.put((Long) row[0], (Long) row[1]);
+        }
+        Map<Long, Object[]> stressByUser = new HashMap<>();
+        if (payRules.usesStressRecords()) {
+            for (Object[] row : stressRecordRepository.findPayInputsByUserIds(userIds, month, year)) {
+                stressByUser.put((Long) row[0], row);
+            }
+        }
+        
+        List<Recomputation> recomputations = new ArrayList<>(marks.size());
+        List<Recomputation> pending = new ArrayList<>(marks.size());
+        PayBatch batch = new PayBatch(marks.size());
+        for (Object[] mark : marks) {
+            Long userId = (Long) mark[1];
+            Payslip payslip = payslipsByUser.get(userId);
+            Object[] profile = profilesByUser.get(userId);
+            if (payslip == null) {
+                // Nothing left to recompute, so the mark is simply cleared
+                recomputations.add(new Recomputation(mark, null, null));
+                continue;
+            }
+            if (profile == null) {
+                logger.warn("Cannot recompute payslip {} for user {}: employee profile not found", payslip.getId(), userId);
+                result.setFailed(result.getFailed() + 1);
+                continue;
+            }
+            try {
+                Object[] stress = stressByUser.get(userId);
+                BigDecimal baseSalary = (Boolean) mark[5] ? (BigDecimal) profile[1] : payslip.getBaseSalary();
+                batch.add(baseSalary, (Integer) profile[2], leavesByUser.getOrDefault(userId, 0L),
+                        stress == null || stress[1] == null ? 0 : (Integer) stress[1],
+                        stress == null || stress[2] == null ? 0 : (Integer) stress[2]);
+                pending.add(new Recomputation(mark, payslip, baseSalary));
+            } catch (RuntimeException e) {
+                logger.warn("Cannot recompute payslip {} for user {}: {}", payslip.getId(), userId, e.getMessage());
+                result.setFailed(result.getFailed() + 1);
+            }
+        }
+        payRules.evaluate(batch);
+        
+        for (int i = 0; i < pending.size(); i++) {
+            Recomputation recomputation = pending.get(i);
+            Payslip current = recomputation.current;
+            if (batch.isFailed(i)) {
+                logger.warn("Cannot recompute payslip {} for user {}: {}", current.getId(), recomputation.mark[1], batch.getFailure(i));
+                result.setFailed(result.getFailed() + 1);
+                continue;
+            }
+            Payslip recomputed = batch.toPayslip(i, current.getUser(), month, year, recomputation.baseSalary);
+            recomputation.recomputed = sameAmounts(current, recomputed) ? null : recomputed;
+            recomputations.add(recomputation);
+        }
+        if (recomputations.isEmpty()) {
+            return;
+        }
+        
+        WriteOutcome outcome = transactionTemplate.execute(status -> writeRecomputations(recomputations));
+        result.setMarkedAgain(result.getMarkedAgain() + outcome.markedAgain);
+        result.setUnchanged(result.getUnchanged() + outcome.unchanged);
+        result.setRevised(result.getRevised() + outcome.revised);
+    }
+    
+    private WriteOutcome writeRecomputations(List<Recomputation> recomputations) {
+        WriteOutcome outcome = new WriteOutcome();
+        List<Object[]> clearArgs = new ArrayList<>(recomputations.size());
+        for (Recomputation recomputation : recomputations) {
+            clearArgs.add(new Object[] {recomputation.mark[0], recomputation.mark[4]});
+        }
+        int[] clearedCounts = jdbcTemplate.batchUpdate(CLEAR_MARK_SQL, clearArgs);
+        
+        // Only rewrite payslips whose mark was still unchanged; the others stay dirty
+        List<Recomputation> toWrite = new ArrayList<>(recomputations.size());
+        for (int i = 0; i < recomputations.size(); i++) {
+            Recomputation recomputation = recomputations.get(i);
+            if (clearedCounts[i] == 0) {
+                outcome.markedAgain++;
+            } else if (recomputation.recomputed != null) {
+                toWrite.add(recomputation);
+            } else if (recomputation.current != null) {
+                outcome.unchanged++;
+            }
+        }
+        if (toWrite.isEmpty()) {
+            return outcome;
+        }
+        
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] updatedCounts = jdbcTemplate.batchUpdate(UPDATE_PAYSLIP_SQL, toWrite, toWrite.size(), (ps, recomputation) -> {
+            Payslip recomputed = recomputation.recomputed;
+            ps.setBigDecimal(1, recomputed.getBaseSalary());
+            ps.setBigDecimal(2, recomputed.getUnpaidLeaveDeductions());
+            ps.setBigDecimal(3, recomputed.getOvertimePay());
+            ps.setBigDecimal(4, recomputed.getStressAllowance());
+            ps.setBigDecimal(5, recomputed.getFinalSalary());
+            ps.setTimestamp(6, now);
+            ps.setLong(7, recomputation.current.getId());
+            ps.setInt(8, recomputation.current.getRevision());
+        })[0];
+        
+        // A payslip rewritten since it was read keeps its new amounts and gets no revision
+        // row; its mark was cleared above, so mark it again for the next recompute
+        List<Recomputation> revised = new ArrayList<>(toWrite.size());
+        for (int i = 0; i < toWrite.size(); i++) {
+            Recomputation recomputation = toWrite.get(i);
+            if (updatedCounts[i] == 0) {
+                Object[] mark = recomputation.mark;
+                YearMonth period = YearMonth.of((Integer) mark[2], (Integer) mark[3]);
+                mark((Long) mark[1], period, period, (Boolean) mark[5]);
+                outcome.markedAgain++;
+            } else {
+                revised.add(recomputation);
+            }
+        }
+        if (revised.isEmpty()) {
+            return outcome;
+        }
+        
+        jdbcTemplate.batchUpdate(INSERT_REVISION_SQL, revised, revised.size(), (ps, recomputation) -> {
+            Payslip current = recomputation.current;
+            ps.setLong(1, current.getId());
+            ps.setInt(2, current.getRevision());
+            ps.setBigDecimal(3, current.getBaseSalary());
+            ps.setBigDecimal(4, current.getUnpaidLeaveDeductions());
+            ps.setBigDecimal(5, current.getOvertimePay());
+            ps.setBigDecimal(6, current.getStressAllowance());
+            ps.setBigDecimal(7, current.getFinalSalary());
+            ps.setTimestamp(8, current.getGeneratedAt() == null ? null : Timestamp.valueOf(current.getGeneratedAt()));
+            ps.setTimestamp(9, now);
+        });
+        outcome.revised = revised.size();
+        return outcome;
+    }
+    
+    private static boolean sameAmounts(Payslip a, Payslip b) {
+        return a.getBaseSalary().compareTo(b.getBaseSalary()) == 0
+                && amount(a.getUnpaidLeaveDeductions()).compareTo(amount(b.getUnpaidLeaveDeductions())) == 0
+                && amount(a.getOvertimePay()).compareTo(amount(b.getOvertimePay())) == 0
+                && amount(a.getStressAllowance()).compareTo(amount(b.getStressAllowance())) == 0
+                && a.getFinalSalary().compareTo(b.getFinalSalary()) == 0;
+    }
+    
+    private static BigDecimal amount(BigDecimal value) {
+        return value == null ? BigDecimal.ZERO : value;
+    }
+    
+    /**
+     * One marked payslip: the payslip as stored and, if its amounts changed, as
+     * recomputed. Both are null when the payslip no longer exists.
+     */
+    private static final class Recomputation {
+        
+        private final Object[] mark;
+        private final Payslip current;
+        private final BigDecimal baseSalary;
+        private Payslip recomputed;
+        
+        private Recomputation(Object[] mark, Payslip current, BigDecimal baseSalary) {
+            this.mark = mark;
+            this.current = current;
+            this.baseSalary = baseSalary;
+        }
+    }
+    
+    /** What one month's write transaction did, added to the result once it commits. */
+    private static final class WriteOutcome {
+        
+        private int markedAgain;
+        private int unchanged;
+        private int revised;
+    }
+}
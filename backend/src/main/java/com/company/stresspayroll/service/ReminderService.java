@@ -5,6 +5,7 @@ import com.company.stresspayroll.model.User;
 import com.company.stresspayroll.repository.ReminderRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -14,6 +15,7 @@ public class ReminderService {
     @Autowired
     private ReminderRepository reminderRepository;
     
+    @Transactional(readOnly = true)
     public List<Reminder> getRemindersByUser(User user) {
         return reminderRepository.findByUserOrderByCreatedAtDesc(user);
     }
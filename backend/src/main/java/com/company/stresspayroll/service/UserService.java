@@ -6,11 +6,23 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.company.stresspayroll.model.EmployeeProfile;
 import com.company.stresspayroll.model.User;
 import com.company.stresspayroll.repository.EmployeeProfileRepository;
 import com.company.stresspayroll.repository.UserRepository;
+import com.company.stresspayroll.security.UserInvalidationRegistry;
+
+import io.micrometer.core.annotation.Timed;
+
+import javax.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.time.YearMonth;
 
 @Service
 public class UserService implements UserDetailsService {
@@ -24,13 +36,39 @@ public class UserService implements UserDetailsService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private UserInvalidationRegistry invalidationRegistry;
+    
+    @Autowired
+    private DashboardAggregateService dashboardAggregateService;
+    
+    @Autowired
+    private PayslipRecomputeService payslipRecomputeService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
     @Override
+    @Timed(value = "auth.user.load", description = "Time to load a user for password authentication")
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        User user = userRepository.findCachedByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
         return user;
     }
     
+    /**
+     * Registers an employee. The password is hashed before the transaction starts, so
+     * a registration waiting for the hashing pool does not hold a database connection;
+     * the unique username and email columns still reject a concurrent duplicate.
+     */
     public User registerUser(String username, String email, String password, String fullName) {
         if (userRepository.existsByUsername(username)) {
             throw new RuntimeException("Username already exists");
@@ -39,22 +77,57 @@ public class UserService implements UserDetailsService {
             throw new RuntimeException("Email already exists");
         }
         
-        User user = new User(username, email, passwordEncoder.encode(password), fullName, User.Role.EMPLOYEE);
-        return userRepository.save(user);
+        String encodedPassword = passwordEncoder.encode(password);
+        return transactionTemplate.execute(status -> {
+            User user = userRepository.save(new User(username, email, encodedPassword, fullName, User.Role.EMPLOYEE));
+            dashboardAggregateService.recordEmployeeCountChange(user.getCreatedAt(), 1);
+            return user;
+        });
     }
     
+    @Transactional(readOnly = true)
     public User getUserByUsername(String username) {
-        return userRepository.findByUsername(username)
+        return userRepository.findCachedByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
     }
     
+    @Transactional(readOnly = true)
     public User getUserById(Long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
     }
     
+    /**
+     * Returns a lazy reference for the user without querying the database. Use it
+     * for ownership checks and as a query parameter; touching any field other than
+     * the id loads the row.
+     */
+    public User getUserReference(Long id) {
+        return userRepository.getReferenceById(id);
+    }
+    
+    /**
+     * Changes a user's role. Tokens issued to them before the change stop
+     * authenticating, so they have to log in again to act with the new role.
+     */
+    @Transactional
+    public User changeUserRole(Long id, User.Role role) {
+        User user = getUserById(id);
+        User.Role previousRole = user.getRole();
+        user.setRole(role);
+        user = userRepository.save(user);
+        if (previousRole != role) {
+            dashboardAggregateService.recordEmployeeCountChange(user.getCreatedAt(), role == User.Role.EMPLOYEE ? 1 : -1);
+            // Only once committed: a login before then still reads the old role, so its
+            // token has to be rejected as well, and a rolled back change rejects nothing
+            afterCommit(() -> invalidationRegistry.invalidate(id));
+        }
+        return user;
+    }
+    
+    @Transactional(readOnly = true)
     public EmployeeProfile getEmployeeProfile(User user) {
-        return employeeProfileRepository.findByUser(user)
+        return employeeProfileRepository.findCachedByUser(user)
                 .orElseThrow(() -> new RuntimeException("Employee profile not found for user: " + user.getUsername()));
     }
     
@@ -71,4 +144,55 @@ public class UserService implements UserDetailsService {
         profile.setPosition(position);
         return employeeProfileRepository.save(profile);
     }
+    
+    /**
+     * Changes an employee's base salary and paid leave allowance, either of which may be
+     * null to keep it. Payslips already generated for this month or later are marked
+     * dirty so the next recompute applies the new compensation.
+     */
+    @Transactional
+    public EmployeeProfile updateCompensation(User user, BigDecimal baseSalary, Integer paidLeavesPerMonth) {
+        if (baseSalary != null && baseSalary.signum() <= 0) {
+            throw new RuntimeException("Base salary must be positive");
+        }
+        if (baseSalary != null && baseSalary.stripTrailingZeros().scale() > PayrollCalculator.MONEY_SCALE) {
+            throw new RuntimeException("Base salary must not have more than " + PayrollCalculator.MONEY_SCALE + " decimal places");
+        }
+        if (baseSalary != null) {
+            // Same scale as the stored column, so the cached profile matches the row
+            baseSalary = baseSalary.setScale(PayrollCalculator.MONEY_SCALE);
+        }
+        if (paidLeavesPerMonth != null && paidLeavesPerMonth < 0) {
+            throw new RuntimeException("Paid leaves per month must not be negative");
+        }
+        EmployeeProfile profile = getEmployeeProfile(user);
+        boolean changed = false;
+        if (baseSalary != null && baseSalary.compareTo(profile.getBaseSalary()) != 0) {
+            profile.setBaseSalary(baseSalary);
+            changed = true;
+        }
+        if (paidLeavesPerMonth != null && !paidLeavesPerMonth.equals(profile.getPaidLeavesPerMonth())) {
+            profile.setPaidLeavesPerMonth(paidLeavesPerMonth);
+            changed = true;
+        }
+        if (!changed) {
+            return profile;
+        }
+        profile = employeeProfileRepository.save(profile);
+        payslipRecomputeService.markCompensationChanged(user.getId(), YearMonth.now());
+        return profile;
+    }
+    
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
 }
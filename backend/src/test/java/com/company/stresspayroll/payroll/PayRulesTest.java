@@ -0,0 +1,168 @@
+package com.company.stresspayroll.payroll;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Properties;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.company.stresspayroll.model.EmployeeProfile;
+import com.company.stresspayroll.model.Payslip;
+import com.company.stresspayroll.model.StressRecord;
+import com.company.stresspayroll.model.User;
+import com.company.stresspayroll.service.PayrollCalculator;
+
+/**
+ * Checks that the shipped pay rules, which calculate on minor units, produce payslips
+ * identical to the BigDecimal formulas, scale included. Also checks that the BigDecimal
+ * lane used for oversized salaries agrees with minor units when every rule is enabled.
+ */
+class PayRulesTest {
+    
+    // Every remainder of the daily-salary division is covered many times over
+    private static final int SWEEP_MINOR_UNITS = PayrollCalculator.WORKING_DAYS_PER_MONTH * 10_000;
+    private static final int MAX_LEAVES = 31;
+    private static final int SAMPLES = 1024;
+    
+    private static PayRules defaultRules;
+    
+    private final User user = new User("test", "test@company.com", "hash", "Test User", User.Role.EMPLOYEE);
+    
+    @BeforeAll
+    static void loadDefaultRules() throws IOException {
+        Properties settings = new Properties();
+        try (InputStream in = PayRules.class.getResourceAsStream("/payroll-rules.properties")) {
+            settings.load(in);
+        }
+        defaultRules = PayRules.compile(settings);
+    }
+    
+    @Test
+    void everyCentUpTo2200MatchesBigDecimal() {
+        for (int minorUnits = 1; minorUnits <= SWEEP_MINOR_UNITS; minorUnits++) {
+            assertSamePayslip(BigDecimal.valueOf(minorUnits, 2), minorUnits % (MAX_LEAVES + 1));
+        }
+    }
+    
+    @Test
+    void salariesAtScalesZeroToTwoMatchBigDecimal() {
+        Random random = new Random(42);
+        for (int i = 0; i < SAMPLES; i++) {
+            BigDecimal salary = BigDecimal.valueOf(3_000_000 + random.nextInt(12_000_000), 2);
+            for (int leaves = 0; leaves <= MAX_LEAVES; leaves++) {
+                assertSamePayslip(salary, leaves);
+                assertSamePayslip(salary.setScale(1, RoundingMode.DOWN), leaves);
+                assertSamePayslip(salary.setScale(0, RoundingMode.DOWN), leaves);
+            }
+        }
+    }
+    
+    @Test
+    void salariesWithThreeDecimalsAreRoundedToTheCent() {
+        Random random = new Random(42);
+        for (int i = 0; i < SAMPLES; i++) {
+            BigDecimal salary = BigDecimal.valueOf(random.nextInt(100_000_000), 3);
+            for (int leaves = 0; leaves <= MAX_LEAVES; leaves++) {
+                assertSamePayslip(salary, leaves);
+            }
+        }
+    }
+    
+    @Test
+    void salariesTooLargeForMinorUnitsFallBackToBigDecimal() {
+        BigDecimal oversized = new BigDecimal(Long.MAX_VALUE).add(new BigDecimal("12345.67"));
+        for (int leaves = 0; leaves <= MAX_LEAVES; leaves++) {
+            assertSamePayslip(oversized, leaves);
+        }
+    }
+    
+    @Test
+    void bigDecimalLaneMatchesMinorUnitsWithEveryRule() {
+        long[] tiers = {0, 0, 50, 50, 100, 100, 250, 250, 525, 525, 525};
+        PayRule[] rules = {
+            new LeaveDeductionRule(22),
+            new OvertimePayRule(22, 8, 10, 100, 17_500),
+            new StressAllowanceRule(tiers)
+        };
+        PayRules allRules = PayRules.of(rules);
+        
+        Random random = new Random(42);
+        PayBatch batch = new PayBatch(SAMPLES);
+        ExactPay[] exact = new ExactPay[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            BigDecimal salary = BigDecimal.valueOf(random.nextInt(20_000_000), 2);
+            int leaves = random.nextInt(MAX_LEAVES + 1);
+            int overtimeHours = random.nextInt(150);
+            int stressLevel = PayrollCalculator.stressLevel(overtimeHours);
+            batch.add(salary, 2, leaves, overtimeHours, stressLevel);
+            exact[i] = new ExactPay(salary, 2, leaves, overtimeHours, stressLevel);
+        }
+        allRules.evaluate(batch);
+        for (int i = 0; i < SAMPLES; i++) {
+            ExactPay pay = exact[i];
+            for (PayRule rule : rules) {
+                rule.applyExact(pay);
+            }
+            String inputs = "base salary " + pay.baseSalary + " with " + pay.totalLeaves + " leaves and "
+                    + pay.overtimeHours + " overtime hours";
+            assertFalse(batch.isFailed(i) || batch.isExact(i), inputs);
+            assertEquals(PayrollCalculator.fromMinorUnits(batch.getUnpaidLeaveDeductions(i)), pay.unpaidLeaveDeductions, inputs);
+            assertEquals(PayrollCalculator.fromMinorUnits(batch.getOvertimePay(i)), pay.overtimePay, inputs);
+            assertEquals(PayrollCalculator.fromMinorUnits(batch.getStressAllowance(i)), pay.stressAllowance, inputs);
+            assertEquals(PayrollCalculator.fromMinorUnits(batch.getFinalSalary(i)), pay.getFinalSalary(), inputs);
+        }
+    }
+    
+    @Test
+    void oversizedSalariesAreCalculatedWithEveryRule() {
+        PayRules allRules = PayRules.of(new LeaveDeductionRule(22), new OvertimePayRule(22, 8, 10, 100, 15_000),
+                new StressAllowanceRule(new long[] {0, 0, 0, 0, 0, 0, 0, 0, 500, 500, 500}));
+        EmployeeProfile profile = new EmployeeProfile(user, "+100000000", "Engineering", "Developer",
+                new BigDecimal("100000000000000000"), 2);
+        StressRecord stressRecord = new StressRecord(user, 6, 2024, 20, "Release", 8);
+        
+        Payslip payslip = allRules.calculatePayslip(user, 6, 2024, profile, 3, stressRecord);
+        
+        // One unpaid day at 4545454545454545.45, and 10 paid hours at 1.5 times an eighth of it
+        assertEquals(new BigDecimal("100000000000000000.00"), payslip.getBaseSalary());
+        assertEquals(new BigDecimal("4545454545454545.45"), payslip.getUnpaidLeaveDeductions());
+        assertEquals(new BigDecimal("8522727272727272.72"), payslip.getOvertimePay());
+        assertEquals(new BigDecimal("5000000000000000.00"), payslip.getStressAllowance());
+        assertEquals(new BigDecimal("108977272727272727.27"), payslip.getFinalSalary());
+    }
+    
+    private void assertSamePayslip(BigDecimal baseSalary, int totalLeaves) {
+        // Salaries are stored with two decimals, so the reference uses the stored value
+        BigDecimal storedSalary = baseSalary.setScale(PayrollCalculator.MONEY_SCALE, RoundingMode.HALF_UP);
+        EmployeeProfile stored = new EmployeeProfile(user, "+100000000", "Engineering", "Developer", storedSalary, 2);
+        EmployeeProfile profile = new EmployeeProfile(user, "+100000000", "Engineering", "Developer", baseSalary, 2);
+        Payslip expected = bigDecimalPayslip(stored, totalLeaves);
+        Payslip actual = defaultRules.calculatePayslip(user, 6, 2024, profile, totalLeaves, null);
+        String inputs = "base salary " + baseSalary + " with " + totalLeaves + " leaves";
+        // BigDecimal.equals compares the scale too, so 10.5 and 10.50 differ
+        assertEquals(expected.getBaseSalary(), actual.getBaseSalary(), inputs);
+        assertEquals(expected.getUnpaidLeaveDeductions(), actual.getUnpaidLeaveDeductions(), inputs);
+        assertEquals(expected.getFinalSalary(), actual.getFinalSalary(), inputs);
+        assertEquals(BigDecimal.valueOf(0, 2), actual.getOvertimePay(), inputs);
+        assertEquals(BigDecimal.valueOf(0, 2), actual.getStressAllowance(), inputs);
+    }
+    
+    /**
+     * The original payslip formula, leave deductions at 22 working days, calculated
+     * entirely with BigDecimal and independently of the code under test.
+     */
+    private Payslip bigDecimalPayslip(EmployeeProfile profile, long totalLeaves) {
+        long unpaidLeaves = Math.max(0, totalLeaves - profile.getPaidLeavesPerMonth());
+        BigDecimal dailySalary = profile.getBaseSalary().divide(BigDecimal.valueOf(22), 2, RoundingMode.HALF_UP);
+        BigDecimal unpaidLeaveDeductions = dailySalary.multiply(BigDecimal.valueOf(unpaidLeaves));
+        BigDecimal finalSalary = profile.getBaseSalary().subtract(unpaidLeaveDeductions);
+        return new Payslip(user, 6, 2024, profile.getBaseSalary(), unpaidLeaveDeductions, finalSalary);
+    }
+}
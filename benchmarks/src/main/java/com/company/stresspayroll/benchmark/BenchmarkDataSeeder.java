@@ -0,0 +1,115 @@
+package com.company.stresspayroll.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Seeds employees, profiles and one month of attendance with JDBC batches so
+ * repository-backed benchmarks can run against a realistically sized table.
+ */
+final class BenchmarkDataSeeder {
+
+    static final String USERNAME_PREFIX = "bench_emp_";
+    static final int SEED_MONTH = 6;
+    static final int SEED_YEAR = 2024;
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String[] DEPARTMENTS = {"Engineering", "Finance", "Operations", "Sales", "Support"};
+
+    private BenchmarkDataSeeder() {}
+
+    /**
+     * Inserts {@code employees} employees and returns their user ids in ascending order.
+     */
+    static List<Long> seed(JdbcTemplate jdbcTemplate, int employees, String passwordHash) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        for (int start = 0; start < employees; start += BATCH_SIZE) {
+            int from = start;
+            int size = Math.min(BATCH_SIZE, employees - start);
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO users (username, email, password_hash, full_name, role, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        int n = from + i;
+                        ps.setString(1, USERNAME_PREFIX + n);
+                        ps.setString(2, USERNAME_PREFIX + n + "@company.com");
+                        ps.setString(3, passwordHash);
+                        ps.setString(4, "Bench Employee " + n);
+                        ps.setString(5, "EMPLOYEE");
+                        ps.setTimestamp(6, now);
+                        ps.setTimestamp(7, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return size;
+                    }
+                });
+        }
+
+        List<Long> userIds = jdbcTemplate.queryForList(
+            "SELECT id FROM users WHERE username LIKE '" + USERNAME_PREFIX + "%' ORDER BY id", Long.class);
+
+        Random random = new Random(42);
+        for (int start = 0; start < userIds.size(); start += BATCH_SIZE) {
+            List<Long> batch = userIds.subList(start, Math.min(start + BATCH_SIZE, userIds.size()));
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO employee_profiles (user_id, phone, department, position, base_salary, paid_leaves_per_month, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setLong(1, batch.get(i));
+                        ps.setString(2, "+1000000000");
+                        ps.setString(3, DEPARTMENTS[random.nextInt(DEPARTMENTS.length)]);
+                        ps.setString(4, "Analyst");
+                        ps.setBigDecimal(5, BigDecimal.valueOf(3_000_000 + random.nextInt(12_000_000), 2));
+                        ps.setInt(6, 2);
+                        ps.setTimestamp(7, now);
+                        ps.setTimestamp(8, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                });
+        }
+
+        YearMonth month = YearMonth.of(SEED_YEAR, SEED_MONTH);
+        int days = month.lengthOfMonth();
+        for (Long userId : userIds) {
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO attendance (user_id, date, status, created_at) VALUES (?, ?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        int roll = random.nextInt(20);
+                        ps.setLong(1, userId);
+                        ps.setDate(2, Date.valueOf(LocalDate.of(SEED_YEAR, SEED_MONTH, i + 1)));
+                        ps.setString(3, roll == 0 ? "UNPAID_LEAVE" : roll == 1 ? "PAID_LEAVE" : "PRESENT");
+                        ps.setTimestamp(4, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return days;
+                    }
+                });
+        }
+
+        return userIds;
+    }
+}
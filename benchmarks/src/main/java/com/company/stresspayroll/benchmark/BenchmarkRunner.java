@@ -0,0 +1,37 @@
+package com.company.stresspayroll.benchmark;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point for running the benchmarks. Accepts the regular JMH command line and
+ * defaults to writing a timestamped JSON result file under {@code results/} so runs
+ * can be kept and compared over time.
+ */
+public class BenchmarkRunner {
+
+    private static final DateTimeFormatter RESULT_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            File resultsDir = new File("results");
+            resultsDir.mkdirs();
+            options.result(new File(resultsDir, "jmh-" + LocalDateTime.now().format(RESULT_TIMESTAMP) + ".json").getPath());
+        }
+
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,87 @@
+package com.company.stresspayroll.benchmark;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+
+import com.company.stresspayroll.model.User;
+import com.company.stresspayroll.security.JwtUtil;
+import com.company.stresspayroll.security.VerifiedTokenCache;
+
+/**
+ * JWT signing and parsing as done by {@code AuthController.login} and
+ * {@code JwtRequestFilter} on every authenticated request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private VerifiedTokenCache tokenCache;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenCache = new VerifiedTokenCache();
+        setField(tokenCache, "maxSize", 10000);
+        jwtUtil = new JwtUtil();
+        setField(jwtUtil, "secret", "mySecretKey123456789012345678901234567890");
+        setField(jwtUtil, "expiration", 86400000L);
+        setField(jwtUtil, "tokenCache", tokenCache);
+        jwtUtil.init();
+        user = new User("john_doe", "john.doe@company.com", "hash", "John Doe", User.Role.EMPLOYEE);
+        user.setId(2L);
+        token = jwtUtil.generateToken(user);
+    }
+
+    static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(token, user);
+    }
+
+    @Benchmark
+    public Boolean validateTokenUncached() {
+        // Forces a full HS256 verification, i.e. a verified-token cache miss
+        tokenCache.invalidate(token);
+        return jwtUtil.validateToken(token, user);
+    }
+
+    @Benchmark
+    public Boolean filterPath() {
+        // What JwtRequestFilter does per request, minus the user lookup
+        String username = jwtUtil.extractUsername(token);
+        return username != null && jwtUtil.validateToken(token, user);
+    }
+}
@@ -0,0 +1,141 @@
+package com.company.stresspayroll.benchmark;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.company.stresspayroll.model.EmployeeProfile;
+import com.company.stresspayroll.model.Payslip;
+import com.company.stresspayroll.model.User;
+import com.company.stresspayroll.payroll.PayBatch;
+import com.company.stresspayroll.payroll.PayRules;
+import com.company.stresspayroll.service.PayrollCalculator;
+
+/**
+ * Pure payroll arithmetic without any persistence: daily-salary math, full payslip
+ * calculation and stress-level derivation. Payslips are calculated both with the
+ * shipped pay rules on minor units, as the application does, and with the original
+ * BigDecimal formula as a baseline; run with {@code -prof gc} to compare their
+ * allocation per operation. {@code PayRulesTest} in the backend checks that the two agree.
+ * <p>
+ * {@code evaluatePayRules} times the pay rule pipeline with every rule enabled, per
+ * employee, over a batch the size of a payroll run chunk.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayrollCalculationBenchmark {
+
+    private static final int SAMPLES = 1024;
+    private static final int MASK = SAMPLES - 1;
+
+    private BigDecimal[] baseSalaries;
+    private EmployeeProfile[] profiles;
+    private long[] totalLeaves;
+    private int[] overtimeHours;
+    private User user;
+    private int index;
+    private PayRules defaultRules;
+    private PayRules allRules;
+    private PayBatch batch;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        baseSalaries = new BigDecimal[SAMPLES];
+        profiles = new EmployeeProfile[SAMPLES];
+        totalLeaves = new long[SAMPLES];
+        overtimeHours = new int[SAMPLES];
+        user = new User("bench", "bench@company.com", "hash", "Bench User", User.Role.EMPLOYEE);
+        for (int i = 0; i < SAMPLES; i++) {
+            baseSalaries[i] = BigDecimal.valueOf(3_000_000 + random.nextInt(12_000_000), 2);
+            profiles[i] = new EmployeeProfile(user, "+100000000", "Engineering", "Developer", baseSalaries[i], 2);
+            totalLeaves[i] = random.nextInt(6);
+            overtimeHours[i] = random.nextInt(120);
+        }
+        Properties defaults = new Properties();
+        defaults.load(PayRules.class.getResourceAsStream("/payroll-rules.properties"));
+        defaultRules = PayRules.compile(defaults);
+
+        Properties settings = new Properties();
+        settings.setProperty("overtime.enabled", "true");
+        settings.setProperty("overtime.threshold-hours", "10");
+        settings.setProperty("stress-allowance.enabled", "true");
+        settings.setProperty("stress-allowance.tiers", "4:1,6:2.5,8:5");
+        allRules = PayRules.compile(settings);
+        batch = new PayBatch(SAMPLES);
+    }
+
+    private int next() {
+        return index++ & MASK;
+    }
+
+    @Benchmark
+    public BigDecimal dailySalary() {
+        return PayrollCalculator.dailySalary(baseSalaries[next()]);
+    }
+
+    @Benchmark
+    public long dailySalaryMinor() {
+        return PayrollCalculator.dailySalaryMinor(PayrollCalculator.toMinorUnits(baseSalaries[next()]));
+    }
+
+    @Benchmark
+    public BigDecimal unpaidLeaveDeductions() {
+        int i = next();
+        return PayrollCalculator.unpaidLeaveDeductions(baseSalaries[i], PayrollCalculator.unpaidLeaves(totalLeaves[i], 2));
+    }
+
+    @Benchmark
+    public Payslip calculatePayslip() {
+        int i = next();
+        return defaultRules.calculatePayslip(user, 6, 2024, profiles[i], totalLeaves[i], null);
+    }
+
+    @Benchmark
+    public Payslip calculatePayslipBigDecimal() {
+        int i = next();
+        EmployeeProfile profile = profiles[i];
+        BigDecimal unpaidLeaveDeductions = PayrollCalculator.unpaidLeaveDeductions(profile.getBaseSalary(),
+                PayrollCalculator.unpaidLeaves(totalLeaves[i], profile.getPaidLeavesPerMonth()));
+        return new Payslip(user, 6, 2024, profile.getBaseSalary(), unpaidLeaveDeductions,
+                profile.getBaseSalary().subtract(unpaidLeaveDeductions));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public long evaluatePayRules() {
+        batch.clear();
+        for (int i = 0; i < SAMPLES; i++) {
+            batch.add(baseSalaries[i], 2, totalLeaves[i], overtimeHours[i], PayrollCalculator.stressLevel(overtimeHours[i]));
+        }
+        allRules.evaluate(batch);
+        long total = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            total += batch.getFinalSalary(i);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int stressLevel() {
+        return PayrollCalculator.stressLevel(overtimeHours[next()]);
+    }
+}
@@ -0,0 +1,155 @@
+package com.company.stresspayroll.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.jsonwebtoken.Claims;
+
+import com.company.stresspayroll.StressPayrollSystemApplication;
+import com.company.stresspayroll.model.Payslip;
+import com.company.stresspayroll.model.StressRecord;
+import com.company.stresspayroll.model.User;
+import com.company.stresspayroll.security.AuthenticatedUser;
+import com.company.stresspayroll.security.JwtUtil;
+import com.company.stresspayroll.security.UserInvalidationRegistry;
+import com.company.stresspayroll.service.PayrollRun;
+import com.company.stresspayroll.service.PayrollRunService;
+import com.company.stresspayroll.service.PayrollService;
+import com.company.stresspayroll.service.UserService;
+
+/**
+ * Full repository-backed paths against an in-memory H2 database seeded with
+ * {@code employees} employees. Override the scale with {@code -p employees=100000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    private static final int TOKEN_SAMPLES = 256;
+
+    @Param({"1000"})
+    public int employees;
+
+    private ConfigurableApplicationContext context;
+    private PayrollService payrollService;
+    private UserService userService;
+    private JwtUtil jwtUtil;
+    private UserInvalidationRegistry invalidationRegistry;
+
+    private User[] users;
+    private String[] tokens;
+    private final AtomicLong periodCounter = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        context = new SpringApplicationBuilder(StressPayrollSystemApplication.class)
+            .web(WebApplicationType.NONE)
+            .bannerMode(Banner.Mode.OFF)
+            .run("--spring.datasource.url=jdbc:h2:mem:payroll_bench;DB_CLOSE_DELAY=-1",
+                 "--spring.jpa.show-sql=false",
+                 "--spring.jpa.properties.hibernate.format_sql=false",
+                 "--spring.h2.console.enabled=false",
+                 "--logging.level.root=WARN",
+                 "--logging.level.com.company.stresspayroll=WARN",
+                 "--logging.level.org.springframework.security=WARN");
+
+        payrollService = context.getBean(PayrollService.class);
+        userService = context.getBean(UserService.class);
+        jwtUtil = context.getBean(JwtUtil.class);
+        invalidationRegistry = context.getBean(UserInvalidationRegistry.class);
+
+        String passwordHash = context.getBean(PasswordEncoder.class).encode("password123");
+        List<Long> userIds = BenchmarkDataSeeder.seed(context.getBean(JdbcTemplate.class), employees, passwordHash);
+
+        users = new User[userIds.size()];
+        for (int i = 0; i < users.length; i++) {
+            User user = new User(BenchmarkDataSeeder.USERNAME_PREFIX + i, null, passwordHash, null, User.Role.EMPLOYEE);
+            user.setId(userIds.get(i));
+            users[i] = user;
+        }
+
+        tokens = new String[Math.min(TOKEN_SAMPLES, users.length)];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = jwtUtil.generateToken(users[i]);
+        }
+
+        // Pre-generate the seeded month so generatePayslipExisting measures the lookup path
+        PayrollRunService payrollRunService = context.getBean(PayrollRunService.class);
+        PayrollRun run = payrollRunService.startRun(BenchmarkDataSeeder.SEED_MONTH, BenchmarkDataSeeder.SEED_YEAR);
+        while (!run.isFinished()) {
+            Thread.sleep(50);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private User randomUser() {
+        return users[ThreadLocalRandom.current().nextInt(users.length)];
+    }
+
+    @Benchmark
+    public Payslip generatePayslipNewPeriod() {
+        // Every invocation uses a pay period that has no payslip yet
+        long n = periodCounter.getAndIncrement();
+        long period = n / users.length;
+        int month = 1 + (int) (period % 12);
+        int year = 3000 + (int) (period / 12);
+        return payrollService.generatePayslip(users[(int) (n % users.length)], month, year);
+    }
+
+    @Benchmark
+    public Payslip generatePayslipExisting() {
+        return payrollService.generatePayslip(randomUser(), BenchmarkDataSeeder.SEED_MONTH, BenchmarkDataSeeder.SEED_YEAR);
+    }
+
+    @Benchmark
+    public StressRecord createStressRecord() {
+        int overtimeHours = ThreadLocalRandom.current().nextInt(120);
+        return payrollService.createStressRecord(randomUser(), BenchmarkDataSeeder.SEED_MONTH,
+                                                 BenchmarkDataSeeder.SEED_YEAR, overtimeHours, "Release crunch");
+    }
+
+    @Benchmark
+    public AuthenticatedUser authenticateRequest() {
+        // Mirrors JwtRequestFilter: verify the token and build the principal from its claims
+        String token = tokens[ThreadLocalRandom.current().nextInt(tokens.length)];
+        Claims claims = jwtUtil.getVerifiedClaims(token);
+        AuthenticatedUser principal = jwtUtil.toPrincipal(claims);
+        return invalidationRegistry.isInvalidated(principal.getId(), claims.getIssuedAt()) ? null : principal;
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsername() {
+        return userService.loadUserByUsername(users[ThreadLocalRandom.current().nextInt(users.length)].getUsername());
+    }
+}
@@ -0,0 +1,236 @@
+package com.company.stresspayroll.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.company.stresspayroll.dto.AttendanceEntry;
+import com.company.stresspayroll.dto.EmployeeDirectoryEntry;
+import com.company.stresspayroll.dto.ReminderResponse;
+import com.company.stresspayroll.dto.StressHistoryEntry;
+import com.company.stresspayroll.model.Attendance;
+import com.company.stresspayroll.model.Reminder;
+import com.company.stresspayroll.model.StressRecord;
+import com.company.stresspayroll.model.User;
+import com.company.stresspayroll.service.EmployeeDirectoryService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * JSON serialization of the list endpoints' rows, without any persistence. The
+ * {@code *Maps} benchmarks build a map per row from loaded entities and serialize
+ * those, as the controllers used to; the {@code *Dtos} benchmarks serialize the typed
+ * projections the repositories now return. {@code directoryStreaming} writes the
+ * employee directory with a {@link JsonGenerator} as {@code GET /api/hr/employees}
+ * does. Run with {@code -prof gc} to compare allocation per operation.
+ * <p>
+ * Setup fails the run if the map and DTO output of an endpoint differ as JSON, or if
+ * the streamed directory differs in any byte from Jackson's.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"30", "10000"})
+    public int rows;
+
+    // Jackson closes its target after each value, so this must keep accepting writes
+    private static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private ObjectMapper objectMapper;
+    private List<StressRecord> stressRecords;
+    private List<StressHistoryEntry> stressHistory;
+    private List<Attendance> attendanceRecords;
+    private List<AttendanceEntry> attendanceEntries;
+    private List<Reminder> reminders;
+    private List<ReminderResponse> reminderResponses;
+    private List<EmployeeDirectoryEntry> directory;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Configured the same way as Spring Boot configures the application's ObjectMapper
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        User user = new User("bench", "bench@company.com", "hash", "Bench User", User.Role.EMPLOYEE);
+        LocalDateTime createdAt = LocalDateTime.of(2024, 6, 1, 9, 30, 15, 123_456_000);
+        Attendance.AttendanceStatus[] statuses = Attendance.AttendanceStatus.values();
+
+        stressRecords = new ArrayList<>(rows);
+        attendanceRecords = new ArrayList<>(rows);
+        reminders = new ArrayList<>(rows);
+        directory = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            long id = i + 1;
+            StressRecord stressRecord = new StressRecord(user, i % 12 + 1, 2024 - i / 12, i % 80,
+                    "Release " + i, i % 10 + 1);
+            stressRecord.setId(id);
+            stressRecord.setCreatedAt(createdAt.plusMinutes(i));
+            stressRecords.add(stressRecord);
+
+            Attendance attendance = new Attendance(user, LocalDate.of(2024, 6, 1).minusDays(i), statuses[i % statuses.length]);
+            attendance.setId(id);
+            attendance.setCreatedAt(createdAt.plusMinutes(i));
+            attendanceRecords.add(attendance);
+
+            Reminder reminder = new Reminder(user, "Reminder number " + i, i % 2 == 0);
+            reminder.setId(id);
+            reminder.setCreatedAt(createdAt.plusMinutes(i));
+            reminder.setUpdatedAt(createdAt.plusMinutes(i + 1));
+            reminders.add(reminder);
+
+            directory.add(new EmployeeDirectoryEntry(id, String.format("emp%07d", i), String.format("emp%07d@company.com", i),
+                    "Employee " + i, "+1555" + i, "Engineering", "Developer", BigDecimal.valueOf(5_000_000 + i, 2),
+                    createdAt.plusMinutes(i)));
+        }
+        stressHistory = stressRecords.stream()
+            .map(r -> new StressHistoryEntry(r.getId(), r.getMonth(), r.getYear(), r.getStressLevel(),
+                    r.getOvertimeHours(), r.getOvertimeReason(), r.getCreatedAt()))
+            .collect(Collectors.toList());
+        attendanceEntries = attendanceRecords.stream()
+            .map(a -> new AttendanceEntry(a.getId(), a.getDate(), a.getStatus(), a.getCreatedAt()))
+            .collect(Collectors.toList());
+        reminderResponses = reminders.stream()
+            .map(r -> new ReminderResponse(r.getId(), r.getReminderText(), r.getIsCompleted(), r.getCreatedAt(), r.getUpdatedAt()))
+            .collect(Collectors.toList());
+
+        verifySameJson("stress history", stressHistoryMapRows(), stressHistory);
+        verifySameJson("attendance", attendanceMapRows(), attendanceEntries);
+        verifySameJson("reminders", reminderMapRows(), reminderResponses);
+        verifyStreamedDirectory();
+    }
+
+    private void verifySameJson(String endpoint, Object maps, Object dtos) throws IOException {
+        if (!objectMapper.readTree(objectMapper.writeValueAsBytes(maps)).equals(objectMapper.readTree(objectMapper.writeValueAsBytes(dtos)))) {
+            throw new IllegalStateException("Typed " + endpoint + " rows serialize differently from the map rows");
+        }
+    }
+
+    private void verifyStreamedDirectory() throws IOException {
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(streamed, JsonEncoding.UTF8)) {
+            EmployeeDirectoryService.writeEntries(directory.iterator(), json);
+        }
+        if (!Arrays.equals(streamed.toByteArray(), objectMapper.writeValueAsBytes(directory))) {
+            throw new IllegalStateException("The streamed employee directory differs from Jackson's output");
+        }
+    }
+
+    private List<Map<String, Object>> stressHistoryMapRows() {
+        return stressRecords.stream()
+            .map(record -> Map.<String, Object>of(
+                "id", record.getId(),
+                "month", record.getMonth(),
+                "year", record.getYear(),
+                "stressLevel", record.getStressLevel(),
+                "overtimeHours", record.getOvertimeHours(),
+                "overtimeReason", record.getOvertimeReason(),
+                "createdAt", record.getCreatedAt()
+            ))
+            .collect(Collectors.toList());
+    }
+
+    private List<Map<String, Object>> attendanceMapRows() {
+        return attendanceRecords.stream()
+            .map(record -> Map.<String, Object>of(
+                "id", record.getId(),
+                "date", record.getDate(),
+                "status", record.getStatus().name(),
+                "createdAt", record.getCreatedAt()
+            ))
+            .collect(Collectors.toList());
+    }
+
+    private List<Map<String, Object>> reminderMapRows() {
+        return reminders.stream()
+            .map(reminder -> {
+                Map<String, Object> map = new HashMap<>();
+                map.put("id", reminder.getId());
+                map.put("reminderText", reminder.getReminderText());
+                map.put("isCompleted", reminder.getIsCompleted());
+                map.put("createdAt", reminder.getCreatedAt());
+                map.put("updatedAt", reminder.getUpdatedAt());
+                return map;
+            })
+            .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public void stressHistoryMaps() throws IOException {
+        objectMapper.writeValue(DISCARD, stressHistoryMapRows());
+    }
+
+    @Benchmark
+    public void stressHistoryDtos() throws IOException {
+        objectMapper.writeValue(DISCARD, stressHistory);
+    }
+
+    @Benchmark
+    public void attendanceMaps() throws IOException {
+        objectMapper.writeValue(DISCARD, attendanceMapRows());
+    }
+
+    @Benchmark
+    public void attendanceDtos() throws IOException {
+        objectMapper.writeValue(DISCARD, attendanceEntries);
+    }
+
+    @Benchmark
+    public void remindersMaps() throws IOException {
+        objectMapper.writeValue(DISCARD, reminderMapRows());
+    }
+
+    @Benchmark
+    public void remindersDtos() throws IOException {
+        objectMapper.writeValue(DISCARD, reminderResponses);
+    }
+
+    @Benchmark
+    public void directoryList() throws IOException {
+        objectMapper.writeValue(DISCARD, directory);
+    }
+
+    @Benchmark
+    public long directoryStreaming() throws IOException {
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(DISCARD, JsonEncoding.UTF8)) {
+            return EmployeeDirectoryService.writeEntries(directory.iterator(), json);
+        }
+    }
+}
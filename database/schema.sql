@@ -14,7 +14,8 @@ CREATE TABLE users (
     full_name VARCHAR(100) NOT NULL,
     role ENUM('employee', 'hr') NOT NULL DEFAULT 'employee',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    INDEX idx_users_role_id (role, id)
 );
 
 -- Employee profiles with additional information
@@ -28,7 +29,9 @@ CREATE TABLE employee_profiles (
     paid_leaves_per_month INT DEFAULT 2,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
-    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    UNIQUE KEY idx_employee_profiles_user (user_id),
+    INDEX idx_employee_profiles_department_position (department, position)
 );
 
 -- Attendance tracking
@@ -50,10 +53,43 @@ CREATE TABLE payslips (
     year INT NOT NULL,
     base_salary DECIMAL(10, 2) NOT NULL,
     unpaid_leave_deductions DECIMAL(10, 2) DEFAULT 0,
+    overtime_pay DECIMAL(10, 2) DEFAULT 0,
+    stress_allowance DECIMAL(10, 2) DEFAULT 0,
     final_salary DECIMAL(10, 2) NOT NULL,
     generated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    revision INT NOT NULL DEFAULT 1,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    UNIQUE KEY unique_user_month_year (user_id, month, year),
+    INDEX idx_payslips_period (year, month)
+);
+
+-- Amounts of a payslip before each recompute replaced them
+CREATE TABLE payslip_revisions (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    payslip_id INT NOT NULL,
+    revision INT NOT NULL,
+    base_salary DECIMAL(10, 2),
+    unpaid_leave_deductions DECIMAL(10, 2),
+    overtime_pay DECIMAL(10, 2),
+    stress_allowance DECIMAL(10, 2),
+    final_salary DECIMAL(10, 2),
+    generated_at TIMESTAMP NULL,
+    replaced_at TIMESTAMP NULL,
+    FOREIGN KEY (payslip_id) REFERENCES payslips(id) ON DELETE CASCADE,
+    UNIQUE KEY uk_payslip_revisions_revision (payslip_id, revision)
+);
+
+-- Generated payslips whose attendance, stress record or compensation changed since
+CREATE TABLE dirty_pay_periods (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    user_id INT NOT NULL,
+    period_year INT NOT NULL,
+    period_month INT NOT NULL,
+    changes BIGINT NOT NULL DEFAULT 1,
+    compensation_changed BOOLEAN NOT NULL DEFAULT FALSE,
+    marked_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
-    UNIQUE KEY unique_user_month_year (user_id, month, year)
+    UNIQUE KEY uk_dirty_pay_periods_period (user_id, period_year, period_month)
 );
 
 -- Stress level tracking
@@ -67,7 +103,8 @@ CREATE TABLE stress_records (
     stress_level INT CHECK (stress_level >= 1 AND stress_level <= 10),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
-    UNIQUE KEY unique_user_month_year_stress (user_id, month, year)
+    UNIQUE KEY unique_user_month_year_stress (user_id, month, year),
+    INDEX idx_stress_records_level_id (stress_level, id)
 );
 
 -- Reminders for employees
@@ -81,6 +118,19 @@ CREATE TABLE reminders (
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
+-- Precomputed HR dashboard counters per calendar month (year 0 / month 0 holds all-time totals)
+CREATE TABLE monthly_aggregates (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    period_year INT NOT NULL,
+    period_month INT NOT NULL,
+    present_count BIGINT NOT NULL DEFAULT 0,
+    paid_leave_count BIGINT NOT NULL DEFAULT 0,
+    unpaid_leave_count BIGINT NOT NULL DEFAULT 0,
+    employee_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE KEY uk_monthly_aggregates_period (period_year, period_month)
+);
+
 -- Insert sample HR user
 INSERT INTO users (username, email, password_hash, full_name, role) VALUES
 ('hr_admin', 'hr@company.com', '$2a$10$N.zmdr9k7uOCQb376NoUnuTJ8iAt6Z5EHsM8lE9lBOsl7iKTVEFDi', 'HR Administrator', 'hr');
@@ -260,6 +260,14 @@ class EmployeeDashboard {
                 <div class="payslip-info">
                     <h4>${getMonthName(payslip.month)} ${payslip.year}</h4>
                     <p>Base Salary: ${formatCurrency(payslip.baseSalary)}</p>
+                    ${payslip.overtimePay > 0 ? 
+                        `<p>Overtime Pay: ${formatCurrency(payslip.overtimePay)}</p>` : 
+                        ''
+                    }
+                    ${payslip.stressAllowance > 0 ? 
+                        `<p>Stress Allowance: ${formatCurrency(payslip.stressAllowance)}</p>` : 
+                        ''
+                    }
                     <p>Final Salary: ${formatCurrency(payslip.finalSalary)}</p>
                     ${payslip.unpaidLeaveDeductions > 0 ? 
                         `<p class="deduction">Deductions: ${formatCurrency(payslip.unpaidLeaveDeductions)}</p>` : 
@@ -3,6 +3,9 @@ class HRDashboard {
     constructor() {
         this.currentSection = 'dashboard';
         this.stressChart = null;
+        this.dashboardData = null;
+        this.eventsController = null;
+        this.eventsRetryDelay = 1000;
         this.init();
     }
 
@@ -10,6 +13,8 @@ class HRDashboard {
         this.setupNavigation();
         this.loadDashboardData();
         this.setupEventListeners();
+        this.connectDashboardEvents();
+        window.addEventListener('beforeunload', () => this.disconnectDashboardEvents());
     }
 
     setupNavigation() {
@@ -93,6 +98,7 @@ class HRDashboard {
         try {
             const result = await authService.makeRequest('/api/hr/dashboard');
             if (result.success) {
+                this.dashboardData = result.data;
                 this.updateDashboardStats(result.data);
             } else {
                 showError(result.error);
@@ -120,6 +126,112 @@ class HRDashboard {
         this.createStressChart(data.highStressEmployees);
     }
 
+    // Live updates. EventSource cannot send the Authorization header, so the
+    // stream is read with fetch. Events are not replayed, so the dashboard is
+    // reloaded whenever the stream (re)connects.
+    async connectDashboardEvents() {
+        this.eventsController = new AbortController();
+        try {
+            const response = await fetch(`${authService.baseURL}/api/hr/dashboard/events`, {
+                headers: { ...authService.getAuthHeaders(), 'Accept': 'text/event-stream' },
+                signal: this.eventsController.signal,
+            });
+            if (response.status === 401) {
+                authService.logout();
+                return;
+            }
+            if (!response.ok || !response.body) {
+                const retryAfter = Number(response.headers.get('Retry-After'));
+                this.scheduleDashboardEventsReconnect(retryAfter > 0 ? retryAfter * 1000 : null);
+                return;
+            }
+
+            const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+            let buffer = '';
+            while (true) {
+                const { value, done } = await reader.read();
+                if (done) break;
+                buffer += value.replace(/\r\n?/g, '\n');
+                let boundary;
+                while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+                    this.handleDashboardEventFrame(buffer.slice(0, boundary));
+                    buffer = buffer.slice(boundary + 2);
+                }
+            }
+        } catch (error) {
+            if (error.name === 'AbortError') return;
+            console.error('Dashboard event stream failed:', error);
+        }
+        this.scheduleDashboardEventsReconnect(null);
+    }
+
+    disconnectDashboardEvents() {
+        if (this.eventsController) {
+            this.eventsController.abort();
+            this.eventsController = null;
+        }
+    }
+
+    scheduleDashboardEventsReconnect(delay) {
+        if (!this.eventsController || this.eventsController.signal.aborted) return;
+        const wait = delay || this.eventsRetryDelay;
+        this.eventsRetryDelay = Math.min(this.eventsRetryDelay * 2, 30000);
+        setTimeout(() => this.connectDashboardEvents(), wait);
+    }
+
+    handleDashboardEventFrame(frame) {
+        let type = 'message';
+        const data = [];
+        frame.split('\n').forEach(line => {
+            if (line.startsWith(':')) return;
+            const colon = line.indexOf(':');
+            const field = colon < 0 ? line : line.slice(0, colon);
+            const value = colon < 0 ? '' : line.slice(colon + 1).replace(/^ /, '');
+            if (field === 'event') type = value;
+            if (field === 'data') data.push(value);
+        });
+        if (data.length === 0) return;
+        this.handleDashboardEvent(type, JSON.parse(data.join('\n')));
+    }
+
+    handleDashboardEvent(type, payload) {
+        switch (type) {
+            case 'connected':
+                this.eventsRetryDelay = 1000;
+                this.loadDashboardData();
+                return;
+            case 'refresh':
+                this.loadDashboardData();
+                return;
+        }
+        const data = this.dashboardData;
+        if (!data) return;
+
+        switch (type) {
+            case 'payslip-generated':
+                data.recentPayslips = [payload, ...data.recentPayslips.filter(p => p.id !== payload.id)].slice(0, 10);
+                break;
+            case 'high-stress':
+                data.highStressEmployees = [payload, ...data.highStressEmployees.filter(e => e.userId !== payload.userId)]
+                    .slice(0, Math.max(data.highStressEmployees.length, 10));
+                break;
+            case 'attendance-marked': {
+                const now = new Date();
+                const [year, month] = payload.date.split('-').map(Number);
+                if (year !== now.getFullYear() || month !== now.getMonth() + 1) return;
+                const stats = data.statistics;
+                const counter = { PRESENT: 'presentDays', PAID_LEAVE: 'paidLeaveDays', UNPAID_LEAVE: 'unpaidLeaveDays' }[payload.status];
+                stats[counter] = (stats[counter] || 0) + 1;
+                stats.totalAttendanceRecords = (stats.totalAttendanceRecords || 0) + 1;
+                stats.attendanceRate = Math.round(stats.presentDays / stats.totalAttendanceRecords * 100);
+                break;
+            }
+            default:
+                return;
+        }
+        this.updateDashboardStats(data);
+    }
+
     updateRecentPayslips(payslips) {
         const recentPayslipsList = document.getElementById('recentPayslipsList');
         if (!recentPayslipsList) return;
@@ -441,6 +553,14 @@ class HRDashboard {
                 <div class="payslip-info">
                     <h4>${getMonthName(payslip.month)} ${payslip.year}</h4>
                     <p>Base Salary: ${formatCurrency(payslip.baseSalary)}</p>
+                    ${payslip.overtimePay > 0 ? 
+                        `<p>Overtime Pay: ${formatCurrency(payslip.overtimePay)}</p>` : 
+                        ''
+                    }
+                    ${payslip.stressAllowance > 0 ? 
+                        `<p>Stress Allowance: ${formatCurrency(payslip.stressAllowance)}</p>` : 
+                        ''
+                    }
                     <p>Final Salary: ${formatCurrency(payslip.finalSalary)}</p>
                     ${payslip.unpaidLeaveDeductions > 0 ? 
                         `<p class="deduction">Deductions: ${formatCurrency(payslip.unpaidLeaveDeductions)}</p>` : 
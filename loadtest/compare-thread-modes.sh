@@ -0,0 +1,98 @@
+#!/usr/bin/env bash
+# Compares request throughput and latency of the backend on Tomcat's platform thread pool
+# and on virtual threads. For each mode it starts the backend with synthetic data and
+# runs the load driver at each concurrency level, keeping every report for later diffs.
+#
+# Both modes run on the same JVM, which must be Java 21+ for the virtual mode:
+#   JAVA_HOME=/path/to/jdk-21 loadtest/compare-thread-modes.sh
+#
+# Environment overrides:
+#   MODES="platform virtual"   thread modes to run
+#   LEVELS="16 64 256"         driver concurrency levels
+#   PROFILE=synthetic          data profile, e.g. synthetic-10k
+#   USERS=500                  employees the driver logs in
+#   WARMUP=10s DURATION=30s    driver warmup and measured window per level
+#   POOL_SIZE=32               connection pool size, the same in both modes
+#   HEAP=3g                    backend heap
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+MODES="${MODES:-platform virtual}"
+LEVELS="${LEVELS:-16 64 256}"
+PROFILE="${PROFILE:-synthetic}"
+USERS="${USERS:-500}"
+WARMUP="${WARMUP:-10s}"
+DURATION="${DURATION:-30s}"
+POOL_SIZE="${POOL_SIZE:-32}"
+HEAP="${HEAP:-3g}"
+PORT=9091
+
+JAVA_MAJOR="$("$JAVA" -XshowSettings:properties -version 2>&1 | sed -n 's/^ *java.specification.version = //p')"
+if [[ " $MODES " == *" virtual "* ]] && (( JAVA_MAJOR < 21 )); then
+    echo "The virtual mode needs Java 21 or newer but $JAVA is Java $JAVA_MAJOR." >&2
+    echo "Set JAVA_HOME to a Java 21 JDK, or run MODES=platform." >&2
+    exit 1
+fi
+
+RESULTS="$ROOT/loadtest/results/compare-$(date +%Y%m%d-%H%M%S)"
+mkdir -p "$RESULTS"
+
+echo "Building backend and load driver"
+mvn -B -q -f "$ROOT/backend/pom.xml" package -DskipTests
+mvn -B -q -f "$ROOT/loadtest/pom.xml" compile dependency:build-classpath -Dmdep.outputFile="$RESULTS/classpath.txt"
+DRIVER_CP="$ROOT/loadtest/target/classes:$(cat "$RESULTS/classpath.txt")"
+JAR="$(ls "$ROOT"/backend/target/stress-payroll-system-*-exec.jar)"
+
+BACKEND_PID=""
+stop_backend() {
+    if [[ -n "$BACKEND_PID" ]]; then
+        kill "$BACKEND_PID" 2>/dev/null || true
+        wait "$BACKEND_PID" 2>/dev/null || true
+        BACKEND_PID=""
+    fi
+}
+trap stop_backend EXIT
+
+for mode in $MODES; do
+    profiles="$PROFILE"
+    if [[ "$mode" == "virtual" ]]; then
+        profiles="$PROFILE,virtual-threads"
+    fi
+
+    echo "Starting backend ($mode threads, profiles $profiles)"
+    "$JAVA" "-Xmx$HEAP" -jar "$JAR" --spring.profiles.active="$profiles" --server.port="$PORT" \
+        --spring.datasource.hikari.maximum-pool-size="$POOL_SIZE" > "$RESULTS/backend-$mode.log" 2>&1 &
+    BACKEND_PID=$!
+    until grep -q "Synthetic data ready" "$RESULTS/backend-$mode.log"; do
+        if ! kill -0 "$BACKEND_PID" 2>/dev/null; then
+            echo "Backend exited during startup, see $RESULTS/backend-$mode.log" >&2
+            exit 1
+        fi
+        sleep 2
+    done
+
+    for level in $LEVELS; do
+        echo "== $mode threads, concurrency $level"
+        "$JAVA" -cp "$DRIVER_CP" com.company.stresspayroll.loadtest.LoadTestRunner \
+            --base-url="http://localhost:$PORT" --users="$USERS" --concurrency="$level" \
+            --warmup="$WARMUP" --duration="$DURATION" --label="$mode-c$level" \
+            --report="$RESULTS/$mode-c$level.json" | tee "$RESULTS/$mode-c$level.txt" | grep -E '^(endpoint|total) '
+    done
+
+    stop_backend
+    if grep -q "Virtual thread pinn" "$RESULTS/backend-$mode.log"; then
+        echo "Pinning reported by the backend:"
+        grep -A 3 "Virtual thread pinn" "$RESULTS/backend-$mode.log" | head -40
+    fi
+done
+
+echo
+printf '%-10s %12s %12s %10s %10s %10s\n' mode concurrency "req/s" "p50 ms" "p99 ms" errors
+for mode in $MODES; do
+    for level in $LEVELS; do
+        awk -v mode="$mode" -v level="$level" '$1 == "total" {
+            printf "%-10s %12s %12s %10s %10s %10s\n", mode, level, $4, $5, $7, $3 }' "$RESULTS/$mode-c$level.txt"
+    done
+done
+echo "Reports are in $RESULTS"
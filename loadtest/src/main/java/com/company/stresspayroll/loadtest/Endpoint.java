@@ -0,0 +1,80 @@
+package com.company.stresspayroll.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * The read-only REST calls the driver knows how to replay, each with its default
+ * weight in the request mix. Employee calls run with a random employee's token,
+ * HR calls with the HR token; calls about a single employee pick a random known
+ * employee id.
+ */
+public enum Endpoint {
+
+    EMPLOYEE_PROFILE("employee.profile", false, 20, "/api/employee/profile"),
+    EMPLOYEE_PAYSLIPS("employee.payslips", false, 15, "/api/employee/payslips"),
+    EMPLOYEE_STRESS_DASHBOARD("employee.stress-dashboard", false, 15, "/api/employee/stress-dashboard"),
+    EMPLOYEE_WELLNESS_TIPS("employee.wellness-tips", false, 10, "/api/employee/wellness-tips"),
+    EMPLOYEE_REMINDERS("employee.reminders", false, 10, "/api/employee/reminders"),
+    HR_DASHBOARD("hr.dashboard", true, 5, "/api/hr/dashboard"),
+    HR_DIRECTORY("hr.directory", true, 5, "/api/hr/employees/directory?limit=50"),
+    HR_HIGH_STRESS("hr.stress-high", true, 5, "/api/hr/stress/high?limit=50"),
+    HR_EMPLOYEE_ATTENDANCE("hr.employee-attendance", true, 5, "/api/hr/employee/{userId}/attendance"),
+    HR_EMPLOYEE_PAYSLIPS("hr.employee-payslips", true, 5, "/api/hr/employee/{userId}/payslips"),
+    HR_EMPLOYEE_STRESS_HISTORY("hr.employee-stress-history", true, 5, "/api/hr/employee/{userId}/stress-history");
+
+    /** Report name for the login calls made while setting up the sessions. */
+    public static final String LOGIN = "auth.login";
+
+    private final String name;
+    private final boolean hr;
+    private final int defaultWeight;
+    private final String pathTemplate;
+
+    Endpoint(String name, boolean hr, int defaultWeight, String pathTemplate) {
+        this.name = name;
+        this.hr = hr;
+        this.defaultWeight = defaultWeight;
+        this.pathTemplate = pathTemplate;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isHr() {
+        return hr;
+    }
+
+    public boolean needsEmployeeId() {
+        return pathTemplate.contains("{userId}");
+    }
+
+    public String path(long employeeId) {
+        return pathTemplate.replace("{userId}", Long.toString(employeeId));
+    }
+
+    public static Endpoint byName(String name) {
+        String normalized = name.trim().toLowerCase(Locale.ROOT);
+        for (Endpoint endpoint : values()) {
+            if (endpoint.name.equals(normalized)) {
+                return endpoint;
+            }
+        }
+        StringJoiner known = new StringJoiner(", ");
+        for (Endpoint endpoint : values()) {
+            known.add(endpoint.name);
+        }
+        throw new IllegalArgumentException("Unknown endpoint '" + name + "'. Known endpoints: " + known);
+    }
+
+    public static Map<Endpoint, Integer> defaultMix() {
+        Map<Endpoint, Integer> mix = new LinkedHashMap<>();
+        for (Endpoint endpoint : values()) {
+            mix.put(endpoint, endpoint.defaultWeight);
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,54 @@
+package com.company.stresspayroll.loadtest;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latency and outcome counters for one endpoint. Like {@link LatencyHistogram} it
+ * is filled by a single worker and merged afterwards.
+ */
+public class EndpointStats {
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final Map<String, Long> outcomes = new TreeMap<>();
+    private long errors;
+
+    public void recordResponse(int statusCode, long nanos) {
+        latency.recordNanos(nanos);
+        outcomes.merge(Integer.toString(statusCode), 1L, Long::sum);
+        if (statusCode < 200 || statusCode >= 300) {
+            errors++;
+        }
+    }
+
+    public void recordFailure(Throwable failure) {
+        outcomes.merge(failure.getClass().getSimpleName(), 1L, Long::sum);
+        errors++;
+    }
+
+    public void add(EndpointStats other) {
+        latency.add(other.latency);
+        other.outcomes.forEach((outcome, count) -> outcomes.merge(outcome, count, Long::sum));
+        errors += other.errors;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * Returns the number of responses per HTTP status code, plus the number of
+     * requests that failed without a response keyed by exception name.
+     */
+    public Map<String, Long> getOutcomes() {
+        return outcomes;
+    }
+
+    public long getRequests() {
+        return outcomes.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+}
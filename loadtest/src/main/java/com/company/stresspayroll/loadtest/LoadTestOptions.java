@@ -0,0 +1,245 @@
+package com.company.stresspayroll.loadtest;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Command line options for the load driver, given as {@code --name=value}. Every
+ * option has a default that works against a backend started locally with the
+ * synthetic data profile.
+ */
+public class LoadTestOptions {
+
+    public enum ThreadMode { AUTO, VIRTUAL, PLATFORM }
+
+    private URI baseUrl = URI.create("http://localhost:9091");
+    private int users = 100;
+    private String password = "password123";
+    private String hrUsername = "hr_admin";
+    private int concurrency = 32;
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration duration = Duration.ofSeconds(30);
+    private Duration requestTimeout = Duration.ofSeconds(10);
+    private ThreadMode threads = ThreadMode.AUTO;
+    private Map<Endpoint, Integer> mix = Endpoint.defaultMix();
+    private Integer hrPercent;
+    private long seed = 42L;
+    private String label = "";
+    private String report;
+
+    public static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            if (arg.equals("--help") || arg.equals("-h")) {
+                throw new IllegalArgumentException(usage());
+            }
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got '" + arg + "'\n" + usage());
+            }
+            String name = arg.substring(2, separator);
+            String value = arg.substring(separator + 1);
+            switch (name) {
+                case "base-url":
+                    options.baseUrl = URI.create(value.endsWith("/") ? value.substring(0, value.length() - 1) : value);
+                    break;
+                case "users":
+                    options.users = positive(name, Integer.parseInt(value));
+                    break;
+                case "password":
+                    options.password = value;
+                    break;
+                case "hr-username":
+                    options.hrUsername = value;
+                    break;
+                case "concurrency":
+                    options.concurrency = positive(name, Integer.parseInt(value));
+                    break;
+                case "warmup":
+                    options.warmup = parseDuration(value);
+                    break;
+                case "duration":
+                    options.duration = parseDuration(value);
+                    break;
+                case "timeout":
+                    options.requestTimeout = parseDuration(value);
+                    break;
+                case "threads":
+                    options.threads = ThreadMode.valueOf(value.toUpperCase(Locale.ROOT));
+                    break;
+                case "mix":
+                    options.mix = parseMix(value);
+                    break;
+                case "hr-percent":
+                    int percent = Integer.parseInt(value);
+                    if (percent < 0 || percent > 100) {
+                        throw new IllegalArgumentException("--hr-percent must be between 0 and 100");
+                    }
+                    options.hrPercent = percent;
+                    break;
+                case "seed":
+                    options.seed = Long.parseLong(value);
+                    break;
+                case "label":
+                    options.label = value;
+                    break;
+                case "report":
+                    options.report = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option --" + name + "\n" + usage());
+            }
+        }
+        if (options.mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("The request mix must have at least one endpoint with a positive weight");
+        }
+        return options;
+    }
+
+    /**
+     * Parses {@code name=weight} pairs separated by commas. Endpoints that are not
+     * listed are left out of the mix.
+     */
+    static Map<Endpoint, Integer> parseMix(String value) {
+        Map<Endpoint, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.split(":|=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected endpoint:weight in --mix but got '" + entry + "'");
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weights in --mix must not be negative");
+            }
+            mix.put(Endpoint.byName(parts[0]), weight);
+        }
+        return mix;
+    }
+
+    static Duration parseDuration(String value) {
+        String trimmed = value.trim().toLowerCase(Locale.ROOT);
+        if (trimmed.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(trimmed.substring(0, trimmed.length() - 2)));
+        }
+        if (trimmed.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(trimmed.substring(0, trimmed.length() - 1)));
+        }
+        if (trimmed.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(trimmed.substring(0, trimmed.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(trimmed));
+    }
+
+    private static int positive(String name, int value) {
+        if (value < 1) {
+            throw new IllegalArgumentException("--" + name + " must be at least 1");
+        }
+        return value;
+    }
+
+    static String usage() {
+        return "Options (all optional):\n"
+            + "  --base-url=http://localhost:9091   backend to drive\n"
+            + "  --users=100                        employees to log in and rotate through\n"
+            + "  --password=password123             password shared by the seeded users\n"
+            + "  --hr-username=hr_admin             HR account used for the HR calls\n"
+            + "  --concurrency=32                   requests in flight at any time\n"
+            + "  --warmup=10s --duration=30s        unrecorded warmup, then the measured window\n"
+            + "  --timeout=10s                      per-request timeout\n"
+            + "  --threads=auto|virtual|platform    worker threads (virtual needs JDK 21+)\n"
+            + "  --mix=employee.profile:20,...      endpoint weights; unlisted endpoints are skipped\n"
+            + "  --hr-percent=N                     rescale the mix so N% of calls are HR calls\n"
+            + "  --seed=42                          seed for the request sequence\n"
+            + "  --label=name                       free-form build label stored in the report\n"
+            + "  --report=results/loadtest-<timestamp>.json";
+    }
+
+    /**
+     * Returns the mix with HR and employee weights rescaled to {@code --hr-percent}
+     * when it is set, keeping the relative weights within each group.
+     */
+    public Map<Endpoint, Integer> getEffectiveMix() {
+        if (hrPercent == null) {
+            return mix;
+        }
+        int hrTotal = 0;
+        int employeeTotal = 0;
+        for (Map.Entry<Endpoint, Integer> entry : mix.entrySet()) {
+            if (entry.getKey().isHr()) {
+                hrTotal += entry.getValue();
+            } else {
+                employeeTotal += entry.getValue();
+            }
+        }
+        Map<Endpoint, Integer> scaled = new LinkedHashMap<>();
+        for (Map.Entry<Endpoint, Integer> entry : mix.entrySet()) {
+            int groupTotal = entry.getKey().isHr() ? hrTotal : employeeTotal;
+            int groupShare = entry.getKey().isHr() ? hrPercent : 100 - hrPercent;
+            if (groupTotal > 0 && groupShare > 0) {
+                // Scale to parts per ten thousand so small weights do not round to zero
+                scaled.put(entry.getKey(), (int) Math.round(entry.getValue() * 100.0 * groupShare / groupTotal));
+            }
+        }
+        return scaled;
+    }
+
+    // Getters
+
+    public URI getBaseUrl() {
+        return baseUrl;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public String getHrUsername() {
+        return hrUsername;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    public ThreadMode getThreads() {
+        return threads;
+    }
+
+    public Integer getHrPercent() {
+        return hrPercent;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public String getReport() {
+        return report;
+    }
+}
@@ -0,0 +1,149 @@
+package com.company.stresspayroll.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Results of one load run. Keys are written in a fixed order and latencies are
+ * rounded to microseconds so two reports can be compared with a plain diff.
+ */
+public class LoadTestReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p999"};
+
+    private final LoadTestOptions options;
+    private final Map<Endpoint, Integer> mix;
+    private final String threadMode;
+    private final OffsetDateTime startedAt = OffsetDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    private EndpointStats login = new EndpointStats();
+    private long loginNanos = 1;
+    private int employeeSessions;
+    private int employeesFound;
+    private Map<Endpoint, EndpointStats> endpoints = new LinkedHashMap<>();
+    private long measuredNanos = 1;
+
+    public LoadTestReport(LoadTestOptions options, Map<Endpoint, Integer> mix, String threadMode) {
+        this.options = options;
+        this.mix = mix;
+        this.threadMode = threadMode;
+    }
+
+    public void setLogin(EndpointStats login, long loginNanos) {
+        this.login = login;
+        this.loginNanos = Math.max(1, loginNanos);
+    }
+
+    public void setSessions(int employeeSessions, int employeesFound) {
+        this.employeeSessions = employeeSessions;
+        this.employeesFound = employeesFound;
+    }
+
+    public void setEndpoints(Map<Endpoint, EndpointStats> endpoints, long measuredNanos) {
+        this.endpoints = endpoints;
+        this.measuredNanos = measuredNanos;
+    }
+
+    public String getThreadMode() {
+        return threadMode;
+    }
+
+    public void write(File file) throws IOException {
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, toMap());
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("baseUrl", options.getBaseUrl().toString());
+        settings.put("users", options.getUsers());
+        settings.put("concurrency", options.getConcurrency());
+        settings.put("warmupSeconds", options.getWarmup().toSeconds());
+        settings.put("durationSeconds", options.getDuration().toSeconds());
+        settings.put("threads", threadMode);
+        settings.put("seed", options.getSeed());
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        mix.forEach((endpoint, weight) -> weights.put(endpoint.getName(), weight));
+        settings.put("mix", weights);
+
+        Map<String, Object> sessions = new LinkedHashMap<>();
+        sessions.put("employeesFound", employeesFound);
+        sessions.put("employeesLoggedIn", employeeSessions);
+
+        EndpointStats total = new EndpointStats();
+        Map<String, Object> perEndpoint = new LinkedHashMap<>();
+        perEndpoint.put(Endpoint.LOGIN, summarize(login, loginNanos));
+        for (Endpoint endpoint : Endpoint.values()) {
+            EndpointStats stats = endpoints.get(endpoint);
+            if (stats != null) {
+                perEndpoint.put(endpoint.getName(), summarize(stats, measuredNanos));
+                total.add(stats);
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("label", options.getLabel());
+        report.put("startedAt", startedAt.toString());
+        report.put("java", Runtime.version().toString());
+        report.put("settings", settings);
+        report.put("sessions", sessions);
+        report.put("total", summarize(total, measuredNanos));
+        report.put("endpoints", perEndpoint);
+        return report;
+    }
+
+    private static Map<String, Object> summarize(EndpointStats stats, long windowNanos) {
+        LatencyHistogram latency = stats.getLatency();
+        Map<String, Object> latencyMillis = new LinkedHashMap<>();
+        latencyMillis.put("min", millis(latency.getMinMicros()));
+        latencyMillis.put("mean", millis(Math.round(latency.getMeanMicros())));
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            latencyMillis.put(PERCENTILE_NAMES[i], millis(latency.percentileMicros(PERCENTILES[i])));
+        }
+        latencyMillis.put("max", millis(latency.getMaxMicros()));
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", stats.getRequests());
+        summary.put("errors", stats.getErrors());
+        summary.put("throughputPerSecond", Math.round(stats.getRequests() * 1e10 / windowNanos) / 10.0);
+        summary.put("latencyMillis", latencyMillis);
+        summary.put("outcomes", stats.getOutcomes());
+        return summary;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%-28s %9s %7s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        printRow(out, Endpoint.LOGIN, login, loginNanos);
+        EndpointStats total = new EndpointStats();
+        for (Endpoint endpoint : Endpoint.values()) {
+            EndpointStats stats = endpoints.get(endpoint);
+            if (stats != null) {
+                printRow(out, endpoint.getName(), stats, measuredNanos);
+                total.add(stats);
+            }
+        }
+        printRow(out, "total", total, measuredNanos);
+    }
+
+    private static void printRow(PrintStream out, String name, EndpointStats stats, long windowNanos) {
+        LatencyHistogram latency = stats.getLatency();
+        out.printf("%-28s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", name, stats.getRequests(), stats.getErrors(),
+            stats.getRequests() * 1e9 / windowNanos, millis(latency.percentileMicros(50)), millis(latency.percentileMicros(90)),
+            millis(latency.percentileMicros(99)), millis(latency.getMaxMicros()));
+    }
+}
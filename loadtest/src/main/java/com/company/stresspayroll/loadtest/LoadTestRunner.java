@@ -0,0 +1,304 @@
+package com.company.stresspayroll.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Closed-loop HTTP load driver for the REST API. It logs in the HR account and a
+ * set of employees found through the HR directory, then keeps a fixed number of
+ * requests in flight replaying a weighted mix of employee and HR calls. After an
+ * unrecorded warmup every response is timed into a per-endpoint histogram and the
+ * results are written as a JSON report that can be diffed between builds.
+ */
+public class LoadTestRunner {
+
+    private static final DateTimeFormatter REPORT_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final int MAX_DIRECTORY_PAGE_SIZE = 500;
+
+    private final LoadTestOptions options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client;
+
+    private String hrToken;
+    private final List<String> employeeTokens = new ArrayList<>();
+    private final List<Long> employeeIds = new ArrayList<>();
+
+    public LoadTestRunner(LoadTestOptions options) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(options.getRequestTimeout())
+            .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        LoadTestReport report = new LoadTestRunner(options).run();
+
+        File reportFile;
+        if (options.getReport() != null) {
+            reportFile = new File(options.getReport());
+        } else {
+            File resultsDir = new File("results");
+            reportFile = new File(resultsDir, "loadtest-" + LocalDateTime.now().format(REPORT_TIMESTAMP) + ".json");
+        }
+        report.write(reportFile);
+        report.print(System.out);
+        System.out.println("Report written to " + reportFile.getPath());
+    }
+
+    public LoadTestReport run() throws Exception {
+        Map<Endpoint, Integer> mix = options.getEffectiveMix();
+        boolean virtual = useVirtualThreads();
+        ExecutorService workers = virtual ? newVirtualThreadExecutor() : newPlatformThreadExecutor(options.getConcurrency());
+        LoadTestReport report = new LoadTestReport(options, mix, virtual ? "virtual" : "platform");
+
+        try {
+            long loginStart = System.nanoTime();
+            EndpointStats loginStats = logIn(workers);
+            report.setLogin(loginStats, System.nanoTime() - loginStart);
+            report.setSessions(employeeTokens.size(), employeeIds.size());
+            System.out.printf("Logged in %d employees and %s in %d ms%n", employeeTokens.size(), options.getHrUsername(),
+                Duration.ofNanos(System.nanoTime() - loginStart).toMillis());
+
+            List<Endpoint> endpoints = new ArrayList<>(mix.keySet());
+            int[] cumulativeWeights = new int[endpoints.size()];
+            int total = 0;
+            for (int i = 0; i < endpoints.size(); i++) {
+                total += mix.get(endpoints.get(i));
+                cumulativeWeights[i] = total;
+            }
+            checkSessionsCover(mix);
+
+            long start = System.nanoTime();
+            long measureStart = start + options.getWarmup().toNanos();
+            long end = measureStart + options.getDuration().toNanos();
+            System.out.printf("Running %d concurrent requests on %s threads: %ds warmup, %ds measured%n",
+                options.getConcurrency(), report.getThreadMode(), options.getWarmup().toSeconds(), options.getDuration().toSeconds());
+
+            List<Future<Map<Endpoint, EndpointStats>>> results = new ArrayList<>();
+            for (int worker = 0; worker < options.getConcurrency(); worker++) {
+                SplittableRandom random = new SplittableRandom(options.getSeed() * 1_000_003L + worker);
+                results.add(workers.submit(() -> replay(random, endpoints, cumulativeWeights, measureStart, end)));
+            }
+
+            Map<Endpoint, EndpointStats> merged = new EnumMap<>(Endpoint.class);
+            for (Future<Map<Endpoint, EndpointStats>> result : results) {
+                result.get().forEach((endpoint, stats) -> merged.computeIfAbsent(endpoint, e -> new EndpointStats()).add(stats));
+            }
+            report.setEndpoints(merged, Math.max(1, System.nanoTime() - measureStart));
+        } finally {
+            workers.shutdownNow();
+        }
+        return report;
+    }
+
+    /**
+     * Runs one worker until the end of the measured window, issuing the next request
+     * as soon as the previous one completes.
+     */
+    private Map<Endpoint, EndpointStats> replay(SplittableRandom random, List<Endpoint> endpoints, int[] cumulativeWeights,
+                                                long measureStart, long end) {
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        int totalWeight = cumulativeWeights[cumulativeWeights.length - 1];
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            int pick = random.nextInt(totalWeight);
+            int index = 0;
+            while (cumulativeWeights[index] <= pick) {
+                index++;
+            }
+            Endpoint endpoint = endpoints.get(index);
+            long employeeId = endpoint.needsEmployeeId() ? employeeIds.get(random.nextInt(employeeIds.size())) : 0L;
+            String token = endpoint.isHr() ? hrToken : employeeTokens.get(random.nextInt(employeeTokens.size()));
+            HttpRequest request = HttpRequest.newBuilder(options.getBaseUrl().resolve(endpoint.path(employeeId)))
+                .timeout(options.getRequestTimeout())
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+
+            boolean measured = now >= measureStart;
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (measured) {
+                    stats.computeIfAbsent(endpoint, e -> new EndpointStats()).recordResponse(response.statusCode(), System.nanoTime() - now);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (IOException e) {
+                if (measured) {
+                    stats.computeIfAbsent(endpoint, ep -> new EndpointStats()).recordFailure(e);
+                }
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Logs in the HR account, collects employee ids and usernames from the HR
+     * directory and then logs in every employee with the shared password.
+     */
+    private EndpointStats logIn(ExecutorService workers) throws Exception {
+        EndpointStats loginStats = new EndpointStats();
+        hrToken = login(options.getHrUsername(), loginStats);
+        if (hrToken == null) {
+            throw new IllegalStateException("Could not log in as " + options.getHrUsername() + " at " + options.getBaseUrl());
+        }
+
+        List<String> usernames = new ArrayList<>();
+        Long cursor = null;
+        while (usernames.size() < options.getUsers()) {
+            int limit = Math.min(MAX_DIRECTORY_PAGE_SIZE, options.getUsers() - usernames.size());
+            String path = "/api/hr/employees/directory?limit=" + limit + (cursor == null ? "" : "&afterId=" + cursor);
+            HttpRequest request = HttpRequest.newBuilder(options.getBaseUrl().resolve(path))
+                .timeout(options.getRequestTimeout())
+                .header("Authorization", "Bearer " + hrToken)
+                .GET()
+                .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Employee directory returned " + response.statusCode() + ": " + response.body());
+            }
+            JsonNode page = objectMapper.readTree(response.body());
+            for (JsonNode employee : page.path("employees")) {
+                employeeIds.add(employee.path("id").asLong());
+                usernames.add(employee.path("username").asText());
+            }
+            if (page.path("nextCursor").isNull() || page.path("employees").isEmpty()) {
+                break;
+            }
+            cursor = page.path("nextCursor").asLong();
+        }
+
+        // Log the employees in with the same number of requests in flight as the load phase
+        AtomicInteger next = new AtomicInteger();
+        List<Callable<EndpointStats>> loginTasks = new ArrayList<>();
+        List<String> tokens = new ArrayList<>();
+        for (int worker = 0; worker < Math.min(options.getConcurrency(), usernames.size()); worker++) {
+            loginTasks.add(() -> {
+                EndpointStats stats = new EndpointStats();
+                int index;
+                while ((index = next.getAndIncrement()) < usernames.size()) {
+                    String token = login(usernames.get(index), stats);
+                    if (token != null) {
+                        synchronized (tokens) {
+                            tokens.add(token);
+                        }
+                    }
+                }
+                return stats;
+            });
+        }
+        for (Future<EndpointStats> result : workers.invokeAll(loginTasks)) {
+            loginStats.add(result.get());
+        }
+        employeeTokens.addAll(tokens);
+        return loginStats;
+    }
+
+    private String login(String username, EndpointStats stats) throws InterruptedException {
+        Map<String, String> credentials = Map.of("username", username, "password", options.getPassword());
+        long start = System.nanoTime();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(options.getBaseUrl().resolve("/auth/login"))
+                .timeout(options.getRequestTimeout())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(credentials)))
+                .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            stats.recordResponse(response.statusCode(), System.nanoTime() - start);
+            if (response.statusCode() != 200) {
+                return null;
+            }
+            return objectMapper.readTree(response.body()).path("token").asText(null);
+        } catch (IOException e) {
+            stats.recordFailure(e);
+            return null;
+        }
+    }
+
+    private void checkSessionsCover(Map<Endpoint, Integer> mix) {
+        for (Map.Entry<Endpoint, Integer> entry : mix.entrySet()) {
+            if (entry.getValue() == 0) {
+                continue;
+            }
+            if (!entry.getKey().isHr() && employeeTokens.isEmpty()) {
+                throw new IllegalStateException("No employee could log in with the configured password");
+            }
+            if (entry.getKey().needsEmployeeId() && employeeIds.isEmpty()) {
+                throw new IllegalStateException("The HR directory returned no employees");
+            }
+        }
+    }
+
+    private boolean useVirtualThreads() {
+        boolean available = virtualThreadFactoryMethod() != null;
+        switch (options.getThreads()) {
+            case VIRTUAL:
+                if (!available) {
+                    throw new IllegalStateException("--threads=virtual needs JDK 21 or newer, running on " + Runtime.version());
+                }
+                return true;
+            case PLATFORM:
+                return false;
+            default:
+                return available;
+        }
+    }
+
+    /**
+     * Looks up {@code Executors.newVirtualThreadPerTaskExecutor()} reflectively so the
+     * module still builds and runs on the JDK 17 baseline.
+     */
+    private static Method virtualThreadFactoryMethod() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() throws ReflectiveOperationException {
+        return (ExecutorService) virtualThreadFactoryMethod().invoke(null);
+    }
+
+    private static ExecutorService newPlatformThreadExecutor(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "loadtest-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(threads, factory);
+    }
+}